@@ -0,0 +1,17 @@
+#!/bin/bash
+
+# JMH comparison of the search engines (built-in and Lucene) on the same synthetic corpus and query set.
+# Extra arguments are passed to JMH, e.g. "-p sections=5000" or "-wi 1 -i 3" for a quick run.
+#
+# Usage: benchmark/run.sh [JMH options]
+
+set -e
+
+DIR="$(cd "$(dirname "$0")/.." && pwd)"
+cd "$DIR"
+
+./mvnw -q -B test-compile dependency:build-classpath \
+    -Dmdep.outputFile=target/test-classpath.txt -Dmdep.includeScope=test
+
+java -cp "target/test-classes:target/classes:$(cat target/test-classpath.txt)" \
+    org.openjdk.jmh.Main SearchEngineBenchmark "$@"
@@ -0,0 +1,134 @@
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test of the stateless streamable HTTP transport. Starts a round robin proxy in front of the given
+ * instances and drives it with concurrent clients sending tools/call requests for varied queries.
+ * <p>
+ * Run with the JDK source launcher, usually through {@code run.sh}:
+ * {@code java LoadTest.java <proxy port> <clients> <seconds> <backend port>...}
+ */
+public class LoadTest {
+
+    private static final String[] WORDS = {
+        "select", "join", "insert", "update", "delete", "merge", "transaction", "batch", "window", "function",
+        "record", "mapping", "code", "generation", "dialect", "postgresql", "oracle", "mysql", "conflict",
+        "returning", "subquery", "exists", "group", "order", "limit", "offset", "union", "cte", "procedure",
+        "converter", "binding", "listener", "fetch", "stream", "reactive", "kotlin", "scala", "schema"
+    };
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("Usage: java LoadTest.java <proxy port> <clients> <seconds> <backend port>...");
+            System.exit(1);
+        }
+        int proxyPort = Integer.parseInt(args[0]);
+        int clients = Integer.parseInt(args[1]);
+        int seconds = Integer.parseInt(args[2]);
+        List<URI> backends = Arrays.stream(args, 3, args.length)
+            .map(port -> URI.create("http://localhost:" + port + "/mcp"))
+            .toList();
+
+        HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newFixedThreadPool(clients * 2))
+            .build();
+        HttpServer proxy = startProxy(proxyPort, backends, httpClient, clients);
+
+        LongAdder succeeded = new LongAdder();
+        LongAdder failed = new LongAdder();
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        URI target = URI.create("http://localhost:" + proxyPort + "/mcp");
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        ExecutorService workers = Executors.newFixedThreadPool(clients);
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            workers.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int id = 0;
+                while (System.nanoTime() < end) {
+                    String query = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+                    String body = """
+                        {"jsonrpc":"2.0","id":"%d-%d","method":"tools/call","params":{"name":"searchDocumentation","arguments":{"query":"%s"}}}"""
+                        .formatted(client, id++, query);
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(target)
+                                .header("Content-Type", "application/json")
+                                .header("Accept", "application/json, text/event-stream")
+                                .POST(HttpRequest.BodyPublishers.ofString(body))
+                                .build(), HttpResponse.BodyHandlers.ofString());
+                        if (response.statusCode() == 200 && response.body().contains("\"isError\":false")) {
+                            succeeded.increment();
+                            latencies.add(System.nanoTime() - start);
+                        } else {
+                            failed.increment();
+                        }
+                    } catch (IOException e) {
+                        failed.increment();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(seconds + 30L, TimeUnit.SECONDS);
+        proxy.stop(0);
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf("instances=%d clients=%d requests=%d failed=%d throughput=%.1f req/s p50=%.1fms p99=%.1fms%n",
+            backends.size(), clients, succeeded.sum(), failed.sum(), succeeded.sum() / (double) seconds,
+            percentile(sorted, 0.50), percentile(sorted, 0.99));
+        System.exit(0);
+    }
+
+    /**
+     * Forwards every POST to the next backend in turn; any instance can answer since the transport is stateless
+     */
+    private static HttpServer startProxy(int port, List<URI> backends, HttpClient httpClient, int threads) throws IOException {
+        AtomicInteger next = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", port), 256);
+        server.setExecutor(Executors.newFixedThreadPool(threads));
+        server.createContext("/mcp", exchange -> {
+            try (InputStream in = exchange.getRequestBody(); OutputStream out = exchange.getResponseBody()) {
+                URI backend = backends.get(Math.floorMod(next.getAndIncrement(), backends.size()));
+                HttpResponse<byte[]> response = httpClient.send(HttpRequest.newBuilder(backend)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(in.readAllBytes()))
+                        .build(), HttpResponse.BodyHandlers.ofByteArray());
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(response.statusCode(), response.body().length == 0 ? -1 : response.body().length);
+                out.write(response.body());
+            } catch (IOException | InterruptedException e) {
+                exchange.sendResponseHeaders(502, -1);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * percentile))] / 1_000_000d;
+    }
+}
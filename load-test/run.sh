@@ -0,0 +1,60 @@
+#!/bin/bash
+
+# Multi-instance load test of the stateless streamable HTTP transport.
+# Starts 1, 2, ... MAX_INSTANCES server JVMs behind a local round robin proxy and reports the
+# throughput for each instance count. Each instance is pinned to its own CPU when taskset is
+# available, so the numbers show how the stateless transport scales out rather than how one JVM
+# uses more cores. Needs MAX_INSTANCES + 1 CPUs for meaningful results.
+#
+# Usage: load-test/run.sh [max instances] [clients per instance] [seconds]
+
+set -e
+
+MAX_INSTANCES=${1:-4}
+CLIENTS_PER_INSTANCE=${2:-8}
+SECONDS_PER_RUN=${3:-30}
+BASE_PORT=18080
+PROXY_PORT=18000
+DIR="$(cd "$(dirname "$0")" && pwd)"
+JAR=$(ls "$DIR"/../target/jooq-mcp-*.jar 2>/dev/null | grep -v plain | head -1)
+
+if [ -z "$JAR" ]; then
+    echo "Build the application first: ./mvnw package -DskipTests"
+    exit 1
+fi
+
+PIDS=()
+cleanup() {
+    for pid in "${PIDS[@]}"; do
+        kill "$pid" 2>/dev/null || true
+    done
+}
+trap cleanup EXIT
+
+start_instance() {
+    local index=$1
+    local port=$((BASE_PORT + index))
+    local pin=""
+    if command -v taskset > /dev/null && [ "$(nproc)" -gt "$index" ]; then
+        pin="taskset -c $index"
+    fi
+    # Admission control would throttle all load test clients as one local address
+    $pin java -XX:ActiveProcessorCount=1 -jar "$JAR" --server.port="$port" \
+        --jooq.admission.enabled=false --jooq.query-log.enabled=false \
+        > "/tmp/jooq-mcp-load-$index.log" 2>&1 &
+    PIDS+=($!)
+    until curl -sf "http://localhost:$port/actuator/health/readiness" > /dev/null; do
+        sleep 1
+    done
+}
+
+for ((instances = 1; instances <= MAX_INSTANCES; instances *= 2)); do
+    for ((i = ${#PIDS[@]}; i < instances; i++)); do
+        start_instance "$i"
+    done
+    PORTS=()
+    for ((i = 0; i < instances; i++)); do
+        PORTS+=($((BASE_PORT + i)))
+    done
+    java "$DIR/LoadTest.java" "$PROXY_PORT" $((instances * CLIENTS_PER_INSTANCE)) "$SECONDS_PER_RUN" "${PORTS[@]}"
+done
@@ -0,0 +1,135 @@
+package ch.martinelli.jooqmcp.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control for tool calls. Every client has a token bucket, so one runaway agent loop only
+ * exhausts its own budget; admitted calls then need one of a bounded number of execution permits.
+ * Calls that find all permits taken wait in a short queue for a limited time, anything beyond is
+ * rejected immediately instead of piling up threads and latency for everybody else.
+ * <p>
+ * Metrics: {@code jooq.admission.admitted}, {@code jooq.admission.rejected} (tag {@code reason}:
+ * rate or capacity), {@code jooq.admission.queued}, {@code jooq.admission.queue.wait} and the
+ * {@code jooq.admission.in-flight} and {@code jooq.admission.queue.length} gauges.
+ */
+@Component
+public class AdmissionController {
+
+    private final boolean enabled;
+    private final double clientRate;
+    private final double clientBurst;
+    private final int maxConcurrent;
+    private final int queueSize;
+    private final long queueTimeoutNanos;
+
+    private final Cache<String, TokenBucket> clientBuckets = Caffeine.newBuilder()
+        .expireAfterAccess(Duration.ofMinutes(10))
+        .maximumSize(10_000)
+        .build();
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final Counter admitted;
+    private final Counter rejectedByRate;
+    private final Counter rejectedByCapacity;
+    private final Counter queuedCalls;
+    private final Timer queueWait;
+
+    public AdmissionController(@Value("${jooq.admission.enabled:true}") boolean enabled,
+                               @Value("${jooq.admission.client-rate-per-second:10}") double clientRate,
+                               @Value("${jooq.admission.client-burst:30}") double clientBurst,
+                               @Value("${jooq.admission.max-concurrent:16}") int maxConcurrent,
+                               @Value("${jooq.admission.queue-size:32}") int queueSize,
+                               @Value("${jooq.admission.queue-timeout-ms:250}") long queueTimeoutMillis,
+                               MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.clientRate = clientRate;
+        this.clientBurst = clientBurst;
+        this.maxConcurrent = maxConcurrent;
+        this.queueSize = queueSize;
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+        this.permits = new Semaphore(maxConcurrent);
+
+        this.admitted = Counter.builder("jooq.admission.admitted").register(meterRegistry);
+        this.rejectedByRate = Counter.builder("jooq.admission.rejected").tag("reason", "rate").register(meterRegistry);
+        this.rejectedByCapacity = Counter.builder("jooq.admission.rejected").tag("reason", "capacity").register(meterRegistry);
+        this.queuedCalls = Counter.builder("jooq.admission.queued").register(meterRegistry);
+        this.queueWait = Timer.builder("jooq.admission.queue.wait").register(meterRegistry);
+        Gauge.builder("jooq.admission.in-flight", this, controller -> controller.getInFlight()).register(meterRegistry);
+        Gauge.builder("jooq.admission.queue.length", queued, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Admit a call of the client and hold an execution permit until the returned handle is closed
+     *
+     * @throws AdmissionRejectedException if the client exceeded its rate or the instance is saturated
+     */
+    public Permit admit(String client) {
+        if (!enabled) {
+            return () -> {};
+        }
+        TokenBucket bucket = clientBuckets.get(client, key -> new TokenBucket(clientBurst, clientRate, System.nanoTime()));
+        if (!bucket.tryAcquire(System.nanoTime())) {
+            rejectedByRate.increment();
+            throw new AdmissionRejectedException("Rate limit exceeded: at most " + (int) clientRate
+                + " tool calls per second are allowed per client. Please slow down and retry.");
+        }
+        if (!permits.tryAcquire()) {
+            awaitPermit();
+        }
+        admitted.increment();
+        return permits::release;
+    }
+
+    private void awaitPermit() {
+        if (queued.incrementAndGet() > queueSize) {
+            queued.decrementAndGet();
+            rejectedByCapacity.increment();
+            throw overloaded();
+        }
+        queuedCalls.increment();
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejectedByCapacity.increment();
+                throw overloaded();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejectedByCapacity.increment();
+            throw overloaded();
+        } finally {
+            queued.decrementAndGet();
+            queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static AdmissionRejectedException overloaded() {
+        return new AdmissionRejectedException("The server is busy. Please retry in a moment.");
+    }
+
+    public int getInFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /**
+     * Execution permit of an admitted call
+     */
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
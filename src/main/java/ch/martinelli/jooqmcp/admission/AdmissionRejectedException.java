@@ -0,0 +1,11 @@
+package ch.martinelli.jooqmcp.admission;
+
+/**
+ * Tool call shed by the {@link AdmissionController}; the message is returned to the client
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    public AdmissionRejectedException(String message) {
+        super(message);
+    }
+}
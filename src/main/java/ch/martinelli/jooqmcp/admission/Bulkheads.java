@@ -0,0 +1,120 @@
+package ch.martinelli.jooqmcp.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Isolated executors per tool cost class, so a burst of expensive searches cannot occupy the threads
+ * cheap lookups need. Tools are mapped to a bulkhead with {@code jooq.bulkhead.tool.<tool>}, falling
+ * back to {@code jooq.bulkhead.default}; every bulkhead has {@code jooq.bulkhead.<name>.threads} and
+ * a bounded {@code jooq.bulkhead.<name>.queue-size}. Calls that find the queue full are rejected.
+ * <p>
+ * Each executor is instrumented as {@code executor.*} with tag {@code name=bulkhead-<name>}; rejections
+ * are counted as {@code jooq.bulkhead.rejected} with tag {@code bulkhead}.
+ */
+@Component
+public class Bulkheads {
+
+    private static final int DEFAULT_THREADS = 4;
+    private static final int DEFAULT_QUEUE_SIZE = 16;
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final String defaultBulkhead;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    private record Bulkhead(ExecutorService executor, ThreadPoolExecutor pool, Counter rejected) {}
+
+    public Bulkheads(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.defaultBulkhead = environment.getProperty("jooq.bulkhead.default", "default");
+    }
+
+    /**
+     * Run the call on the tool's bulkhead and wait for its result
+     *
+     * @throws AdmissionRejectedException if the bulkhead is saturated
+     */
+    public <T> T execute(String tool, Callable<T> call) {
+        Bulkhead bulkhead = bulkheads.computeIfAbsent(bulkheadOf(tool), this::create);
+        Future<T> future;
+        try {
+            future = bulkhead.executor().submit(call);
+        } catch (RejectedExecutionException e) {
+            bulkhead.rejected().increment();
+            throw new AdmissionRejectedException("The server is busy with similar requests. Please retry in a moment.");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + tool, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(tool + " failed", e.getCause());
+        }
+    }
+
+    String bulkheadOf(String tool) {
+        return environment.getProperty("jooq.bulkhead.tool." + tool, defaultBulkhead);
+    }
+
+    /**
+     * Active threads and queued calls of a bulkhead, for diagnostics and tests
+     */
+    int[] saturation(String name) {
+        Bulkhead bulkhead = bulkheads.get(name);
+        return bulkhead == null ? new int[2] : new int[] {bulkhead.pool().getActiveCount(), bulkhead.pool().getQueue().size()};
+    }
+
+    private Bulkhead create(String name) {
+        int threads = environment.getProperty("jooq.bulkhead." + name + ".threads", Integer.class, DEFAULT_THREADS);
+        int queueSize = environment.getProperty("jooq.bulkhead." + name + ".queue-size", Integer.class, DEFAULT_QUEUE_SIZE);
+        BlockingQueue<Runnable> queue = queueSize > 0 ? new ArrayBlockingQueue<>(queueSize) : new SynchronousQueue<>();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, queue,
+            new BulkheadThreadFactory(name), new ThreadPoolExecutor.AbortPolicy());
+        ExecutorService executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "bulkhead-" + name, Tags.empty());
+        Counter rejected = Counter.builder("jooq.bulkhead.rejected")
+            .description("Tool calls rejected because the bulkhead was saturated")
+            .tag("bulkhead", name)
+            .register(meterRegistry);
+        return new Bulkhead(executor, pool, rejected);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bulkheads.values().forEach(bulkhead -> bulkhead.executor().shutdownNow());
+    }
+
+    private static final class BulkheadThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        BulkheadThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "bulkhead-" + name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
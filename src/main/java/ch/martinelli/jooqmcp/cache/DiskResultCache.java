@@ -0,0 +1,192 @@
+package ch.martinelli.jooqmcp.cache;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Second level cache of search results and rendered responses in an append-only, memory-mapped file,
+ * so a restarted machine starts with the popular queries already answered. There is one file per
+ * cache key, which combines the manual's content hash with the deployment generation; files of other
+ * keys are deleted when the cache is opened.
+ * <p>
+ * Records are {@code [key length][value length][crc32][key][value]}. Opening the file scans the
+ * records into an offset map and resumes appending after the last intact record, so a record torn
+ * by a crash is simply overwritten. Once the file is full, new entries are not persisted.
+ */
+@Component
+public class DiskResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiskResultCache.class);
+
+    private static final String FILE_PREFIX = "results-";
+    private static final String FILE_SUFFIX = ".cache";
+    private static final int RECORD_HEADER = 3 * Integer.BYTES;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final String generation;
+    private final int maxSize;
+
+    // Namespace and key -> offset of the value length in the mapped file
+    private final Map<String, Integer> offsets = new ConcurrentHashMap<>();
+    private FileChannel channel;
+    private volatile MappedByteBuffer buffer;
+    private int writePosition;
+
+    public DiskResultCache(@Value("${jooq.cache.disk.enabled:true}") boolean enabled,
+                           @Value("${jooq.cache.disk.directory:${java.io.tmpdir}/jooq-mcp/cache}") String directory,
+                           @Value("${jooq.cache.disk.generation:}") String generation,
+                           @Value("${jooq.cache.disk.max-size-bytes:67108864}") int maxSize) {
+        this.enabled = enabled && !generation.isBlank();
+        this.directory = Path.of(directory);
+        this.generation = generation;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Map the cache file of the given manual content, reusing the entries of a previous run
+     */
+    public synchronized void open(String contentHash) {
+        if (!enabled || buffer != null) {
+            return;
+        }
+        String name = FILE_PREFIX + contentHash + "-" + Integer.toHexString(generation.hashCode()) + FILE_SUFFIX;
+        try {
+            Files.createDirectories(directory);
+            deleteOtherFiles(name);
+            channel = FileChannel.open(directory.resolve(name), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, maxSize);
+            writePosition = scan(mapped);
+            buffer = mapped;
+            logger.info("Opened disk result cache {} with {} entries", name, offsets.size());
+        } catch (IOException e) {
+            logger.warn("Disk result cache unavailable: {}", e.getMessage());
+            close();
+        }
+    }
+
+    private void deleteOtherFiles(String current) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> stale = files.filter(path -> {
+                String fileName = path.getFileName().toString();
+                return fileName.startsWith(FILE_PREFIX) && fileName.endsWith(FILE_SUFFIX) && !fileName.equals(current);
+            }).toList();
+            for (Path path : stale) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * Index the intact records and return the position after the last one
+     */
+    private int scan(ByteBuffer mapped) {
+        int position = 0;
+        while (position + RECORD_HEADER <= maxSize) {
+            int keyLength = mapped.getInt(position);
+            int valueLength = mapped.getInt(position + Integer.BYTES);
+            int end = position + RECORD_HEADER + keyLength + valueLength;
+            if (keyLength <= 0 || valueLength < 0 || end > maxSize || end < 0) {
+                break;
+            }
+            if (mapped.getInt(position + 2 * Integer.BYTES) != checksum(mapped, position + RECORD_HEADER, keyLength + valueLength)) {
+                break;
+            }
+            byte[] key = new byte[keyLength];
+            mapped.get(position + RECORD_HEADER, key);
+            offsets.put(new String(key, StandardCharsets.UTF_8), position);
+            position = end;
+        }
+        return position;
+    }
+
+    public String get(String namespace, String key) {
+        MappedByteBuffer mapped = buffer;
+        if (mapped == null) {
+            return null;
+        }
+        Integer position = offsets.get(namespace + "\n" + key);
+        if (position == null) {
+            return null;
+        }
+        int keyLength = mapped.getInt(position);
+        int valueLength = mapped.getInt(position + Integer.BYTES);
+        byte[] value = new byte[valueLength];
+        mapped.get(position + RECORD_HEADER + keyLength, value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    public boolean contains(String namespace, String key) {
+        return buffer != null && offsets.containsKey(namespace + "\n" + key);
+    }
+
+    /**
+     * Append an entry, ignored when the key is already stored or the file is full
+     */
+    public synchronized void put(String namespace, String key, String value) {
+        MappedByteBuffer mapped = buffer;
+        String recordKey = namespace + "\n" + key;
+        if (mapped == null || offsets.containsKey(recordKey)) {
+            return;
+        }
+        byte[] keyBytes = recordKey.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = RECORD_HEADER + keyBytes.length + valueBytes.length;
+        if (writePosition + length > maxSize) {
+            return;
+        }
+        int position = writePosition;
+        mapped.put(position + RECORD_HEADER, keyBytes);
+        mapped.put(position + RECORD_HEADER + keyBytes.length, valueBytes);
+        mapped.putInt(position + 2 * Integer.BYTES, checksum(mapped, position + RECORD_HEADER, keyBytes.length + valueBytes.length));
+        mapped.putInt(position + Integer.BYTES, valueBytes.length);
+        // The key length goes last, a zero key length marks the end of the records
+        mapped.putInt(position, keyBytes.length);
+        writePosition = position + length;
+        offsets.put(recordKey, position);
+    }
+
+    private static int checksum(ByteBuffer mapped, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(mapped.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    public int size() {
+        return offsets.size();
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (buffer != null) {
+            buffer.force();
+            buffer = null;
+        }
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("Closing the disk result cache failed: {}", e.getMessage());
+            }
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ch.martinelli.jooqmcp.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent computations of the same key: the first caller computes, callers arriving
+ * while it runs wait for and share its result (or its exception). Nothing is kept once the
+ * computation is done, caching is left to the caller. Counts executions and coalesced calls as
+ * {@code jooq.single-flight.executions} and {@code jooq.single-flight.coalesced}, tagged with the name.
+ */
+public class SingleFlight<T> {
+
+    private final Map<String, CompletableFuture<T>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executions;
+    private final Counter coalesced;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executions = Counter.builder("jooq.single-flight.executions")
+            .description("Computations started")
+            .tag("name", name)
+            .register(meterRegistry);
+        this.coalesced = Counter.builder("jooq.single-flight.coalesced")
+            .description("Calls that shared the result of an in-flight computation")
+            .tag("name", name)
+            .register(meterRegistry);
+    }
+
+    public T execute(String key, Supplier<T> computation) {
+        return execute(key, computation, shared -> true);
+    }
+
+    /**
+     * Like {@link #execute(String, Supplier)}, but a caller that joined a flight computes on its own
+     * if the shared result is not usable for it, e.g. cut short by the first caller's time budget
+     */
+    public T execute(String key, Supplier<T> computation, Predicate<? super T> usable) {
+        CompletableFuture<T> flight = new CompletableFuture<>();
+        CompletableFuture<T> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            T shared = await(existing);
+            if (usable.test(shared)) {
+                return shared;
+            }
+            executions.increment();
+            return computation.get();
+        }
+        executions.increment();
+        try {
+            T result = computation.get();
+            flight.complete(result);
+            return result;
+        } catch (Throwable e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    public long getExecutions() {
+        return (long) executions.count();
+    }
+
+    public long getCoalesced() {
+        return (long) coalesced.count();
+    }
+}
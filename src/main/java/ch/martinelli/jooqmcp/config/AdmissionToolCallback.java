@@ -0,0 +1,94 @@
+package ch.martinelli.jooqmcp.config;
+
+import ch.martinelli.jooqmcp.admission.AdmissionController;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tool callback that passes calls through the {@link AdmissionController} before dispatching them.
+ * Rejections surface as tool errors with a short explanation.
+ * <p>
+ * Clients are told apart by their MCP session. The SDK creates a new exchange per call and exposes no
+ * session id, but every exchange of a session returns the client info instance the session received
+ * with its initialize request. Sessions are therefore keyed by the identity of that instance, held
+ * weakly so the key goes away with the session. Transports without sessions pass their own client key
+ * as {@link #CLIENT_KEY} in the tool context.
+ */
+public class AdmissionToolCallback implements ToolCallback {
+
+    /**
+     * Tool context entry identifying the client when there is no MCP session
+     */
+    public static final String CLIENT_KEY = "admission.client";
+
+    private static final String ANONYMOUS = "anonymous";
+    // Client info (or capabilities) instance of a session -> unique session key, compared by identity
+    private static final Cache<Object, String> SESSION_KEYS = Caffeine.newBuilder().weakKeys().build();
+    private static final AtomicLong SESSION_SEQUENCE = new AtomicLong();
+
+    private final ToolCallback delegate;
+    private final AdmissionController admissionController;
+
+    public AdmissionToolCallback(ToolCallback delegate, AdmissionController admissionController) {
+        this.delegate = delegate;
+        this.admissionController = admissionController;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        AdmissionController.Permit permit = admissionController.admit(ANONYMOUS);
+        try {
+            return delegate.call(toolInput);
+        } finally {
+            permit.close();
+        }
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        AdmissionController.Permit permit = admissionController.admit(clientKey(toolContext));
+        try {
+            return delegate.call(toolInput, toolContext);
+        } finally {
+            permit.close();
+        }
+    }
+
+    static String clientKey(ToolContext toolContext) {
+        if (toolContext == null) {
+            return ANONYMOUS;
+        }
+        if (toolContext.getContext().get(CLIENT_KEY) instanceof String client) {
+            return client;
+        }
+        return McpToolUtils.getMcpExchange(toolContext)
+            .map(AdmissionToolCallback::sessionKey)
+            .orElse(ANONYMOUS);
+    }
+
+    private static String sessionKey(McpSyncServerExchange exchange) {
+        Object session = exchange.getClientInfo() != null ? exchange.getClientInfo() : exchange.getClientCapabilities();
+        if (session == null) {
+            return ANONYMOUS;
+        }
+        return SESSION_KEYS.get(session, k -> "session-" + SESSION_SEQUENCE.incrementAndGet());
+    }
+}
@@ -0,0 +1,41 @@
+package ch.martinelli.jooqmcp.config;
+
+import ch.martinelli.jooqmcp.admission.Bulkheads;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+/**
+ * Tool callback executing the tool on the bulkhead of its cost class
+ */
+public class BulkheadToolCallback implements ToolCallback {
+
+    private final ToolCallback delegate;
+    private final Bulkheads bulkheads;
+
+    public BulkheadToolCallback(ToolCallback delegate, Bulkheads bulkheads) {
+        this.delegate = delegate;
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return bulkheads.execute(getToolDefinition().name(), () -> delegate.call(toolInput));
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        return bulkheads.execute(getToolDefinition().name(), () -> delegate.call(toolInput, toolContext));
+    }
+}
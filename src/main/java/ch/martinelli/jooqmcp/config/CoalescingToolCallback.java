@@ -0,0 +1,50 @@
+package ch.martinelli.jooqmcp.config;
+
+import ch.martinelli.jooqmcp.cache.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+/**
+ * Tool callback sharing one invocation between identical concurrent calls, e.g. a burst of
+ * {@code getSqlExamples("JOIN")} from several agents of one session
+ */
+public class CoalescingToolCallback implements ToolCallback {
+
+    private final ToolCallback delegate;
+    private final SingleFlight<String> singleFlight;
+
+    public CoalescingToolCallback(ToolCallback delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.singleFlight = new SingleFlight<>(delegate.getToolDefinition().name(), meterRegistry);
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return singleFlight.execute(key(toolInput), () -> delegate.call(toolInput));
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        return singleFlight.execute(key(toolInput), () -> delegate.call(toolInput, toolContext));
+    }
+
+    /**
+     * The tool arguments as JSON, with insignificant surrounding and repeated whitespace removed
+     */
+    private static String key(String toolInput) {
+        return toolInput == null ? "" : toolInput.strip().replaceAll("\\s+", " ");
+    }
+}
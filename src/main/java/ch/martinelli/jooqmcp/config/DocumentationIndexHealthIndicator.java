@@ -0,0 +1,32 @@
+package ch.martinelli.jooqmcp.config;
+
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService;
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.IndexState;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Out of service while the documentation is indexed and warmed up in the background, so the
+ * readiness group only admits traffic once searches are fast.
+ */
+@Component
+public class DocumentationIndexHealthIndicator implements HealthIndicator {
+
+    private final LocalJooqDocumentationService documentationService;
+
+    public DocumentationIndexHealthIndicator(LocalJooqDocumentationService documentationService) {
+        this.documentationService = documentationService;
+    }
+
+    @Override
+    public Health health() {
+        IndexState state = documentationService.getState();
+        Health.Builder status = switch (state) {
+            case READY -> Health.up();
+            case FAILED -> Health.down();
+            case LOADING, WARMING_UP -> Health.outOfService();
+        };
+        return status.withDetail("state", state).build();
+    }
+}
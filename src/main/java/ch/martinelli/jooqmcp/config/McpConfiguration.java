@@ -1,6 +1,9 @@
 package ch.martinelli.jooqmcp.config;
 
+import ch.martinelli.jooqmcp.admission.AdmissionController;
+import ch.martinelli.jooqmcp.admission.Bulkheads;
 import ch.martinelli.jooqmcp.service.JooqDocumentationService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.ai.support.ToolCallbacks;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -8,14 +11,26 @@ import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Arrays;
 import java.util.List;
 
 @Configuration
 @EnableCaching
 public class McpConfiguration {
 
+    /**
+     * The documentation tools behind admission control, each coalescing identical concurrent calls and
+     * running on the bulkhead of its cost class. Coalesced calls wait outside the bulkhead.
+     */
     @Bean
-    public List<ToolCallback> jooqDocumentationTools(JooqDocumentationService jooqDocumentationService) {
-        return List.of(ToolCallbacks.from(jooqDocumentationService));
+    public List<ToolCallback> jooqDocumentationTools(JooqDocumentationService jooqDocumentationService,
+                                                     AdmissionController admissionController,
+                                                     Bulkheads bulkheads,
+                                                     MeterRegistry meterRegistry) {
+        return Arrays.stream(ToolCallbacks.from(jooqDocumentationService))
+            .<ToolCallback>map(callback -> new BulkheadToolCallback(callback, bulkheads))
+            .<ToolCallback>map(callback -> new CoalescingToolCallback(callback, meterRegistry))
+            .<ToolCallback>map(callback -> new AdmissionToolCallback(callback, admissionController))
+            .toList();
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package ch.martinelli.jooqmcp.config;
 
+import ch.martinelli.jooqmcp.memory.MemoryGovernor;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.stereotype.Component;
@@ -8,10 +9,18 @@ import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.lang.management.MemoryUsage;
 
+/**
+ * Reports heap usage and the {@link MemoryGovernor} pressure level. High usage does not mark the
+ * instance DOWN, the governor sheds caches instead of getting the process restarted.
+ */
 @Component
 public class MemoryHealthIndicator implements HealthIndicator {
 
-    private static final double MEMORY_THRESHOLD = 0.85; // 85% threshold
+    private final MemoryGovernor memoryGovernor;
+
+    public MemoryHealthIndicator(MemoryGovernor memoryGovernor) {
+        this.memoryGovernor = memoryGovernor;
+    }
 
     @Override
     public Health health() {
@@ -22,9 +31,8 @@ public class MemoryHealthIndicator implements HealthIndicator {
         long maxMemory = heapUsage.getMax();
         double memoryUsageRatio = (double) usedMemory / maxMemory;
         
-        Health.Builder status = memoryUsageRatio < MEMORY_THRESHOLD ? Health.up() : Health.down();
-        
-        return status
+        return Health.up()
+                .withDetail("pressure", memoryGovernor.getPressure())
                 .withDetail("heap.used", formatBytes(usedMemory))
                 .withDetail("heap.max", formatBytes(maxMemory))
                 .withDetail("heap.usage", String.format("%.2f%%", memoryUsageRatio * 100))
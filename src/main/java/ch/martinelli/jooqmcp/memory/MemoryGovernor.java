@@ -0,0 +1,145 @@
+package ch.martinelli.jooqmcp.memory;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Watches the heap after garbage collection and asks the {@link MemoryPressureListener}s to give memory
+ * back before the JVM runs out of it. The long lived heap pools get a collection usage threshold at the
+ * elevated ratio, and every GC notification re-evaluates the usage after collection, so the pressure
+ * level also drops again once memory was freed. The level is published as the
+ * {@code jooq.memory.pressure} gauge (0 normal, 1 elevated, 2 critical).
+ */
+@Component
+public class MemoryGovernor {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemoryGovernor.class);
+
+    private final List<MemoryPressureListener> listeners;
+    private final double elevatedRatio;
+    private final double criticalRatio;
+    private final List<MemoryPoolMXBean> pools = new ArrayList<>();
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private final NotificationListener notificationListener = this::handleNotification;
+    private volatile MemoryPressure pressure = MemoryPressure.NORMAL;
+
+    @Autowired
+    public MemoryGovernor(List<MemoryPressureListener> listeners, MeterRegistry meterRegistry,
+                          @Value("${jooq.memory.elevated-ratio:0.70}") double elevatedRatio,
+                          @Value("${jooq.memory.critical-ratio:0.85}") double criticalRatio) {
+        this(listeners, meterRegistry, elevatedRatio, criticalRatio, true);
+    }
+
+    /**
+     * @param subscribe whether to follow the JVM's memory notifications, or only {@link #update(double)}
+     */
+    MemoryGovernor(List<MemoryPressureListener> listeners, MeterRegistry meterRegistry,
+                   double elevatedRatio, double criticalRatio, boolean subscribe) {
+        this.listeners = listeners;
+        this.elevatedRatio = elevatedRatio;
+        this.criticalRatio = criticalRatio;
+        if (subscribe) {
+            subscribeToMemoryNotifications();
+        }
+
+        Gauge.builder("jooq.memory.pressure", this, governor -> governor.getPressure().ordinal())
+            .description("Memory pressure level: 0 normal, 1 elevated, 2 critical")
+            .register(meterRegistry);
+    }
+
+    private void subscribeToMemoryNotifications() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            long max = pool.getUsage().getMax();
+            // Only the pools that survive collections, e.g. the old generation
+            if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported() && max > 0) {
+                pool.setCollectionUsageThreshold((long) (max * elevatedRatio));
+                pools.add(pool);
+            }
+        }
+        subscribe(ManagementFactory.getMemoryMXBean());
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            subscribe(collector);
+        }
+    }
+
+    private void subscribe(Object bean) {
+        if (bean instanceof NotificationEmitter emitter) {
+            emitter.addNotificationListener(notificationListener, null, null);
+            emitters.add(emitter);
+        }
+    }
+
+    private void handleNotification(Notification notification, Object handback) {
+        String type = notification.getType();
+        if (type.equals(MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED)
+                || type.equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+            update(usageAfterCollection());
+        }
+    }
+
+    /**
+     * Highest used/max ratio of the long lived pools after their last collection
+     */
+    private double usageAfterCollection() {
+        double ratio = 0;
+        for (MemoryPoolMXBean pool : pools) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage != null && usage.getMax() > 0) {
+                ratio = Math.max(ratio, (double) usage.getUsed() / usage.getMax());
+            }
+        }
+        return ratio;
+    }
+
+    /**
+     * Derive the pressure level from a usage ratio and notify the listeners when it changed
+     */
+    synchronized void update(double usageRatio) {
+        MemoryPressure level = usageRatio >= criticalRatio ? MemoryPressure.CRITICAL
+            : usageRatio >= elevatedRatio ? MemoryPressure.ELEVATED
+            : MemoryPressure.NORMAL;
+        if (level == pressure) {
+            return;
+        }
+        logger.info("Memory pressure changed from {} to {} at {}% heap usage after GC",
+            pressure, level, String.format("%.1f", usageRatio * 100));
+        pressure = level;
+        for (MemoryPressureListener listener : listeners) {
+            try {
+                listener.onMemoryPressure(level);
+            } catch (RuntimeException e) {
+                logger.warn("Memory pressure listener {} failed: {}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    public MemoryPressure getPressure() {
+        return pressure;
+    }
+
+    @PreDestroy
+    public void close() {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(notificationListener);
+            } catch (ListenerNotFoundException e) {
+                // Already removed
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ch.martinelli.jooqmcp.memory;
+
+/**
+ * How close the old generation is to its limit after garbage collection
+ */
+public enum MemoryPressure {
+    NORMAL,
+    /** Caches are shrunk and derived per-document data is released */
+    ELEVATED,
+    /** Everything that can be recomputed is dropped */
+    CRITICAL
+}
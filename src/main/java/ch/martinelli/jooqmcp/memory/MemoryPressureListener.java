@@ -0,0 +1,10 @@
+package ch.martinelli.jooqmcp.memory;
+
+/**
+ * Component holding memory it can give back when the {@link MemoryGovernor} reports pressure.
+ * Called on a JMX notification thread, so implementations must be quick and thread safe.
+ */
+public interface MemoryPressureListener {
+
+    void onMemoryPressure(MemoryPressure pressure);
+}
@@ -0,0 +1,242 @@
+package ch.martinelli.jooqmcp.querylog;
+
+import ch.martinelli.jooqmcp.search.BooleanQuery;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Structured, asynchronous log of tool invocations. Callers claim a slot in a bounded lock-free ring
+ * buffer and store the entry; a background thread drains the buffer to an append-only JSON lines file
+ * that is rolled over by size. When the buffer is full, entries are dropped and counted rather than
+ * blocking the caller.
+ */
+@Component
+public class QueryLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryLog.class);
+
+    static final String FILE_PREFIX = "query-log";
+    static final String FILE_SUFFIX = ".jsonl";
+    private static final long IDLE_PARK_NANOS = 5_000_000L;
+    private static final DateTimeFormatter ROLL_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxFileSize;
+    private final int maxFiles;
+
+    private final AtomicReferenceArray<QueryLogEntry> slots;
+    private final int mask;
+    // Next sequence to claim by producers and next sequence to drain by the writer thread
+    private final AtomicLong head = new AtomicLong();
+    private volatile long tail;
+    private final LongAdder dropped = new LongAdder();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+    private OutputStream writer;
+    private long fileSize;
+    private int rollCount;
+
+    public QueryLog(@Value("${jooq.query-log.enabled:true}") boolean enabled,
+                    @Value("${jooq.query-log.directory:${java.io.tmpdir}/jooq-mcp}") String directory,
+                    @Value("${jooq.query-log.max-file-size-bytes:10485760}") long maxFileSize,
+                    @Value("${jooq.query-log.max-files:5}") int maxFiles,
+                    @Value("${jooq.query-log.buffer-size:4096}") int bufferSize) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        if (enabled) {
+            this.writerThread = new Thread(this::drainLoop, "query-log-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
+        } else {
+            this.writerThread = null;
+        }
+    }
+
+    /**
+     * Record a tool invocation. Only claims a buffer slot, never blocks or touches the file.
+     */
+    public void record(String tool, String arguments, long startNanos, int resultCount, boolean cacheHit) {
+        if (!enabled) {
+            return;
+        }
+        // Built before claiming a slot: a claimed slot that is never filled would stall the writer thread
+        QueryLogEntry entry = new QueryLogEntry(System.currentTimeMillis(), tool, arguments,
+            (System.nanoTime() - startNanos) / 1000, resultCount, cacheHit);
+        long sequence;
+        do {
+            sequence = head.get();
+            if (sequence - tail >= slots.length()) {
+                dropped.increment();
+                return;
+            }
+        } while (!head.compareAndSet(sequence, sequence + 1));
+        // Arguments are normalized by the writer thread
+        slots.lazySet((int) sequence & mask, entry);
+    }
+
+    /**
+     * Trimmed arguments with collapsed whitespace, lower cased unless they are a structured query whose
+     * operators are case sensitive, like the search normalizes them
+     */
+    public static String normalize(String arguments) {
+        if (arguments == null) {
+            return "";
+        }
+        String collapsed = arguments.trim().replaceAll("\\s+", " ");
+        return BooleanQuery.isStructured(collapsed) ? collapsed : collapsed.toLowerCase(Locale.ROOT);
+    }
+
+    public long getDroppedEntries() {
+        return dropped.sum();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private void drainLoop() {
+        while (running || tail < head.get()) {
+            try {
+                if (!drain()) {
+                    flush();
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (IOException e) {
+                logger.warn("Writing the query log failed: {}", e.getMessage());
+                closeWriter();
+                LockSupport.parkNanos(IDLE_PARK_NANOS * 100);
+            }
+        }
+        closeWriter();
+    }
+
+    /**
+     * Write all published entries
+     *
+     * @return whether anything was written
+     */
+    private boolean drain() throws IOException {
+        boolean written = false;
+        long sequence = tail;
+        while (sequence < head.get()) {
+            int index = (int) sequence & mask;
+            QueryLogEntry entry = slots.get(index);
+            if (entry == null) {
+                // Slot claimed but not yet published
+                Thread.onSpinWait();
+                continue;
+            }
+            slots.set(index, null);
+            tail = ++sequence;
+            write(entry);
+            written = true;
+        }
+        return written;
+    }
+
+    private void write(QueryLogEntry entry) throws IOException {
+        if (writer == null) {
+            openWriter();
+        }
+        QueryLogEntry normalized = new QueryLogEntry(entry.timestamp(), entry.tool(), normalize(entry.arguments()),
+            entry.latencyMicros(), entry.resultCount(), entry.cacheHit());
+        byte[] line = (objectMapper.writeValueAsString(normalized) + "\n").getBytes(StandardCharsets.UTF_8);
+        writer.write(line);
+        fileSize += line.length;
+        if (fileSize >= maxFileSize) {
+            roll();
+        }
+    }
+
+    private void openWriter() throws IOException {
+        Files.createDirectories(directory);
+        Path file = currentFile();
+        writer = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+        fileSize = Files.size(file);
+    }
+
+    private void roll() throws IOException {
+        closeWriter();
+        // The counter keeps names unique and ordered when several rolls happen within a millisecond
+        String rolledName = String.format("%s-%s-%04d%s", FILE_PREFIX, LocalDateTime.now().format(ROLL_SUFFIX),
+            rollCount++ % 10_000, FILE_SUFFIX);
+        Files.move(currentFile(), directory.resolve(rolledName), StandardCopyOption.ATOMIC_MOVE);
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> rolled = files
+                .filter(path -> isRolledFile(path.getFileName().toString()))
+                .sorted()
+                .toList();
+            for (int i = 0; i < rolled.size() - (maxFiles - 1); i++) {
+                Files.deleteIfExists(rolled.get(i));
+            }
+        }
+    }
+
+    private Path currentFile() {
+        return directory.resolve(FILE_PREFIX + FILE_SUFFIX);
+    }
+
+    private static boolean isRolledFile(String name) {
+        return name.startsWith(FILE_PREFIX + "-") && name.endsWith(FILE_SUFFIX);
+    }
+
+    private void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                logger.warn("Closing the query log failed: {}", e.getMessage());
+            }
+            writer = null;
+        }
+    }
+
+    /**
+     * Stop the writer thread after the buffer has been drained
+     */
+    @PreDestroy
+    public void close() {
+        running = false;
+        if (writerThread != null) {
+            LockSupport.unpark(writerThread);
+            try {
+                writerThread.join(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
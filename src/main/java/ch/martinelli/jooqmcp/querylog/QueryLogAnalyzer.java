@@ -0,0 +1,97 @@
+package ch.martinelli.jooqmcp.querylog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Offline analysis of the query log. Turns the rolled and current log files into a warm-up list of
+ * the most frequent tool invocations, used to prime caches and as a benchmark query set.
+ * <p>
+ * Run standalone with {@code QueryLogAnalyzer <log directory> [limit]} to print the list as
+ * tab separated {@code tool, arguments, count} lines.
+ */
+public final class QueryLogAnalyzer {
+
+    /**
+     * A distinct tool invocation and how often it was logged
+     */
+    public record WarmupQuery(String tool, String arguments, long count) {}
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private QueryLogAnalyzer() {
+    }
+
+    /**
+     * Most frequent invocations across all log files in the directory, most frequent first
+     */
+    public static List<WarmupQuery> topQueries(Path directory, int limit) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        Map<List<String>, Long> counts = new HashMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(QueryLogAnalyzer::isLogFile).sorted().toList()) {
+                countEntries(file, counts);
+            }
+        }
+        return counts.entrySet().stream()
+            .map(entry -> new WarmupQuery(entry.getKey().get(0), entry.getKey().get(1), entry.getValue()))
+            .sorted(Comparator.comparingLong(WarmupQuery::count).reversed()
+                .thenComparing(WarmupQuery::tool)
+                .thenComparing(WarmupQuery::arguments))
+            .limit(limit)
+            .toList();
+    }
+
+    /**
+     * Most frequent arguments of one tool, e.g. the search queries to warm the search cache with
+     */
+    public static List<String> topArguments(Path directory, String tool, int limit) throws IOException {
+        return topQueries(directory, Integer.MAX_VALUE).stream()
+            .filter(query -> query.tool().equals(tool) && !query.arguments().isEmpty())
+            .limit(limit)
+            .map(WarmupQuery::arguments)
+            .toList();
+    }
+
+    private static void countEntries(Path file, Map<List<String>, Long> counts) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    QueryLogEntry entry = objectMapper.readValue(line, QueryLogEntry.class);
+                    counts.merge(List.of(entry.tool(), entry.arguments()), 1L, Long::sum);
+                } catch (IOException e) {
+                    // A line cut off by a crash, skip it
+                }
+            }
+        }
+    }
+
+    private static boolean isLogFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(QueryLog.FILE_PREFIX) && name.endsWith(QueryLog.FILE_SUFFIX);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: QueryLogAnalyzer <log directory> [limit]");
+            System.exit(1);
+        }
+        int limit = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        for (WarmupQuery query : topQueries(Path.of(args[0]), limit)) {
+            System.out.println(query.tool() + "\t" + query.arguments() + "\t" + query.count());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ch.martinelli.jooqmcp.querylog;
+
+/**
+ * One tool invocation as written to the query log
+ *
+ * @param timestamp     epoch milliseconds
+ * @param tool          tool name
+ * @param arguments     normalized arguments
+ * @param latencyMicros time spent in the tool
+ * @param resultCount   number of results returned
+ * @param cacheHit      whether the answer came from a cache or precomputed list
+ */
+public record QueryLogEntry(long timestamp, String tool, String arguments, long latencyMicros,
+                            int resultCount, boolean cacheHit) {
+}
@@ -0,0 +1,290 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.util.TextProcessor;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Small structured query language on top of the plain keyword search:
+ * <pre>
+ *   title:merge AND code:onConflict -oracle
+ *   (upsert OR "on conflict") NOT breadcrumb:kotlin
+ * </pre>
+ * A query is only structured if it opts in with a field scope, an exclusion ({@code -term}) or
+ * parentheses, so SQL searches like {@code NOT EXISTS} or {@code IS NOT NULL} stay keyword searches.
+ * Within a structured query upper case {@code AND}, {@code OR} and {@code NOT} are operators where they
+ * stand between two clauses, elsewhere they are plain words; adjacent clauses are combined with AND.
+ * A clause may be scoped to one field with {@code title:}, {@code breadcrumb:}, {@code content:} or
+ * {@code code:}; unscoped clauses match any field like the plain search. Quoted text requires all of
+ * its words.
+ */
+public final class BooleanQuery {
+
+    private static final Pattern STRUCTURED = Pattern.compile(
+        "(^|\\s)(\\(|-\\w)|\\b(title|breadcrumb|content|code):");
+    private static final Set<String> OPERATORS = Set.of("AND", "OR", "NOT");
+
+    public enum Field { ANY, TITLE, BREADCRUMB, CONTENT, CODE }
+
+    /**
+     * Node of a parsed query
+     */
+    public sealed interface Node permits Term, And, Or, Not {}
+
+    /**
+     * Documents containing all processed tokens in the field
+     */
+    public record Term(Field field, List<String> tokens) implements Node {}
+
+    public record And(List<Node> clauses) implements Node {}
+
+    public record Or(List<Node> clauses) implements Node {}
+
+    public record Not(Node clause) implements Node {}
+
+    private final List<String> tokens;
+    private int position;
+
+    private BooleanQuery(List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * Whether the query uses field scopes, exclusions or grouping rather than plain keywords
+     */
+    public static boolean isStructured(String query) {
+        if (query == null) {
+            return false;
+        }
+        return STRUCTURED.matcher(query.replaceAll("\"[^\"]*\"", " ")).find();
+    }
+
+    /**
+     * Parse a structured query, returns null if nothing searchable is left
+     */
+    public static Node parse(String query) {
+        BooleanQuery parser = new BooleanQuery(markOperators(lex(query)));
+        List<Node> clauses = new ArrayList<>();
+        while (parser.peek() != null) {
+            Node node = parser.parseOr();
+            if (node != null) {
+                clauses.add(node);
+            }
+            if (")".equals(parser.peek())) {
+                // Unbalanced closing parenthesis
+                parser.position++;
+            }
+        }
+        if (clauses.isEmpty()) {
+            return null;
+        }
+        return simplify(clauses.size() == 1 ? clauses.getFirst() : new And(clauses));
+    }
+
+    /**
+     * Processed tokens of all clauses that are not negated, used to rank the matching documents
+     */
+    public static Set<String> positiveTokens(Node node) {
+        Set<String> result = new LinkedHashSet<>();
+        collectPositive(node, false, result);
+        return result;
+    }
+
+    private static void collectPositive(Node node, boolean negated, Set<String> result) {
+        switch (node) {
+            case Term term -> {
+                if (!negated) {
+                    result.addAll(term.tokens());
+                }
+            }
+            case And and -> and.clauses().forEach(clause -> collectPositive(clause, negated, result));
+            case Or or -> or.clauses().forEach(clause -> collectPositive(clause, negated, result));
+            case Not not -> collectPositive(not.clause(), !negated, result);
+        }
+    }
+
+    private Node parseOr() {
+        List<Node> clauses = new ArrayList<>();
+        Node first = parseAnd();
+        if (first != null) {
+            clauses.add(first);
+        }
+        while ("OR".equals(peek())) {
+            position++;
+            Node next = parseAnd();
+            if (next != null) {
+                clauses.add(next);
+            }
+        }
+        if (clauses.isEmpty()) {
+            return null;
+        }
+        return clauses.size() == 1 ? clauses.getFirst() : new Or(clauses);
+    }
+
+    private Node parseAnd() {
+        List<Node> clauses = new ArrayList<>();
+        while (true) {
+            String token = peek();
+            if (token == null || token.equals("OR") || token.equals(")")) {
+                break;
+            }
+            if (token.equals("AND")) {
+                position++;
+                continue;
+            }
+            Node clause = parseUnary();
+            if (clause != null) {
+                clauses.add(clause);
+            }
+        }
+        if (clauses.isEmpty()) {
+            return null;
+        }
+        return clauses.size() == 1 ? clauses.getFirst() : new And(clauses);
+    }
+
+    private Node parseUnary() {
+        String token = peek();
+        if (token.equals("NOT") || token.equals("-")) {
+            position++;
+            String next = peek();
+            if (next == null || next.equals(")") || next.equals("OR") || next.equals("AND")) {
+                return null;
+            }
+            Node clause = parseUnary();
+            return clause != null ? new Not(clause) : null;
+        }
+        return parsePrimary();
+    }
+
+    private Node parsePrimary() {
+        String token = tokens.get(position++);
+        if (token.equals("(")) {
+            Node inner = parseOr();
+            if (")".equals(peek())) {
+                position++;
+            }
+            return inner;
+        }
+        Field field = Field.ANY;
+        int colon = token.indexOf(':');
+        if (colon > 0) {
+            Field scoped = fieldOf(token.substring(0, colon));
+            if (scoped != null) {
+                field = scoped;
+                token = token.substring(colon + 1);
+            }
+        }
+        List<String> terms = TextProcessor.processText(token.startsWith("\"") ? token.substring(1) : token);
+        return terms.isEmpty() ? null : new Term(field, terms);
+    }
+
+    private String peek() {
+        return position < tokens.size() ? tokens.get(position) : null;
+    }
+
+    private static Field fieldOf(String name) {
+        return switch (name.toLowerCase()) {
+            case "title" -> Field.TITLE;
+            case "breadcrumb" -> Field.BREADCRUMB;
+            case "content" -> Field.CONTENT;
+            case "code" -> Field.CODE;
+            default -> null;
+        };
+    }
+
+    /**
+     * Split into parentheses, operators, {@code -} and words; quoted text becomes one token starting
+     * with a quote, optionally prefixed by a field scope
+     */
+    private static List<String> lex(String query) {
+        List<String> result = new ArrayList<>();
+        int i = 0;
+        int length = query.length();
+        while (i < length) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')') {
+                result.add(String.valueOf(c));
+                i++;
+            } else if (c == '-' && i + 1 < length && !Character.isWhitespace(query.charAt(i + 1))) {
+                result.add("-");
+                i++;
+            } else {
+                int start = i;
+                while (i < length && !Character.isWhitespace(query.charAt(i)) && "()\"".indexOf(query.charAt(i)) < 0) {
+                    i++;
+                }
+                String word = query.substring(start, i);
+                if (i < length && query.charAt(i) == '"') {
+                    int end = query.indexOf('"', i + 1);
+                    end = end < 0 ? length : end;
+                    String scope = word.endsWith(":") ? word : "";
+                    result.add(scope + "\"" + query.substring(i + 1, end));
+                    i = Math.min(length, end + 1);
+                } else if (!word.isEmpty() && !word.equals("-")) {
+                    result.add(word);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Keep {@code AND} and {@code OR} as operators only between the end of one clause and the start of
+     * the next, and {@code NOT} only after a clause or another operator; all others become words
+     */
+    private static List<String> markOperators(List<String> tokens) {
+        List<String> result = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            if (OPERATORS.contains(token)) {
+                String previous = result.isEmpty() ? null : result.getLast();
+                String next = i + 1 < tokens.size() ? tokens.get(i + 1) : null;
+                boolean afterClause = previous != null && (endsClause(previous)
+                    || token.equals("NOT") && (previous.equals("AND") || previous.equals("OR")));
+                if (!afterClause || !startsClause(next)) {
+                    token = token.toLowerCase();
+                }
+            }
+            result.add(token);
+        }
+        return result;
+    }
+
+    private static boolean endsClause(String token) {
+        return !token.equals("(") && !token.equals("-") && !OPERATORS.contains(token);
+    }
+
+    private static boolean startsClause(String token) {
+        return token != null && !token.equals(")") && !token.equals("AND") && !token.equals("OR");
+    }
+
+    /**
+     * Flatten nested conjunctions and disjunctions
+     */
+    private static Node simplify(Node node) {
+        return switch (node) {
+            case Term term -> term;
+            case Not not -> new Not(simplify(not.clause()));
+            case And and -> new And(flatten(and.clauses(), And.class));
+            case Or or -> new Or(flatten(or.clauses(), Or.class));
+        };
+    }
+
+    private static List<Node> flatten(List<Node> clauses, Class<? extends Node> type) {
+        List<Node> result = new ArrayList<>();
+        for (Node clause : clauses) {
+            Node simplified = simplify(clause);
+            if (type.isInstance(simplified)) {
+                result.addAll(simplified instanceof And and ? and.clauses() : ((Or) simplified).clauses());
+            } else {
+                result.add(simplified);
+            }
+        }
+        return result;
+    }
+}
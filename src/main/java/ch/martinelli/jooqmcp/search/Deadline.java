@@ -0,0 +1,53 @@
+package ch.martinelli.jooqmcp.search;
+
+/**
+ * Time budget of one request. Search stages poll {@link #expired()} cooperatively before doing more
+ * work and return the best results found so far once it is spent. The first poll past the deadline
+ * marks it exhausted, so the caller can flag the results as partial. Safe to share between the shard
+ * threads of one search.
+ */
+public final class Deadline {
+
+    /**
+     * No time limit
+     */
+    public static final Deadline NONE = new Deadline(Long.MAX_VALUE);
+
+    private final long deadlineNanos;
+    private volatile boolean exhausted;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * @param budgetMillis time budget from now, 0 or less for no limit
+     */
+    public static Deadline afterMillis(long budgetMillis) {
+        return budgetMillis > 0 ? new Deadline(System.nanoTime() + budgetMillis * 1_000_000L) : NONE;
+    }
+
+    /**
+     * Whether the budget is spent; marks the deadline exhausted when it is
+     */
+    public boolean expired() {
+        if (this == NONE) {
+            return false;
+        }
+        if (exhausted) {
+            return true;
+        }
+        if (System.nanoTime() - deadlineNanos >= 0) {
+            exhausted = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whether some stage ran out of time, i.e. results computed under this deadline may be incomplete
+     */
+    public boolean isExhausted() {
+        return exhausted;
+    }
+}
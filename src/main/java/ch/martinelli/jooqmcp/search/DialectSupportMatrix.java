@@ -0,0 +1,196 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.CodeExample;
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
+
+import java.util.*;
+
+/**
+ * Dialect to section matrix extracted from the manual at load time. Every dialect owns a bitset over
+ * section ordinals, so support and comparison questions become bitset operations.
+ */
+public class DialectSupportMatrix {
+
+    /**
+     * A SQL dialect named after jOOQ's {@code SQLDialect} constants, with the spellings used in prose
+     */
+    public record Dialect(String name, String displayName, List<String> aliases) {
+
+        Dialect(String name, String displayName, String... aliases) {
+            this(name, displayName, List.of(aliases));
+        }
+    }
+
+    public static final List<Dialect> DIALECTS = List.of(
+        new Dialect("ACCESS", "MS Access", "ms access", "msaccess"),
+        new Dialect("AURORA_MYSQL", "Aurora MySQL", "aurora mysql"),
+        new Dialect("AURORA_POSTGRES", "Aurora PostgreSQL", "aurora postgres", "aurora postgresql"),
+        new Dialect("BIGQUERY", "BigQuery", "bigquery", "big query"),
+        new Dialect("CLICKHOUSE", "ClickHouse", "clickhouse"),
+        new Dialect("COCKROACHDB", "CockroachDB", "cockroachdb", "cockroach"),
+        new Dialect("DATABRICKS", "Databricks", "databricks"),
+        new Dialect("DB2", "Db2", "db2"),
+        new Dialect("DERBY", "Derby", "derby"),
+        new Dialect("DUCKDB", "DuckDB", "duckdb"),
+        new Dialect("EXASOL", "Exasol", "exasol"),
+        new Dialect("FIREBIRD", "Firebird", "firebird"),
+        new Dialect("H2", "H2", "h2"),
+        new Dialect("HANA", "SAP HANA", "hana"),
+        new Dialect("HSQLDB", "HSQLDB", "hsqldb", "hypersql"),
+        new Dialect("IGNITE", "Ignite", "ignite"),
+        new Dialect("INFORMIX", "Informix", "informix"),
+        new Dialect("INGRES", "Ingres", "ingres"),
+        new Dialect("MARIADB", "MariaDB", "mariadb"),
+        new Dialect("MEMSQL", "SingleStore", "memsql", "singlestore"),
+        new Dialect("MYSQL", "MySQL", "mysql"),
+        new Dialect("ORACLE", "Oracle", "oracle"),
+        new Dialect("POSTGRES", "PostgreSQL", "postgresql", "postgres", "pgsql"),
+        new Dialect("REDSHIFT", "Redshift", "redshift"),
+        new Dialect("SNOWFLAKE", "Snowflake", "snowflake"),
+        new Dialect("SQLDATAWAREHOUSE", "Azure Synapse", "sqldatawarehouse", "azure synapse"),
+        new Dialect("SQLITE", "SQLite", "sqlite"),
+        new Dialect("SQLSERVER", "SQL Server", "sql server", "sqlserver", "mssql"),
+        new Dialect("SYBASE", "Sybase", "sybase"),
+        new Dialect("TERADATA", "Teradata", "teradata"),
+        new Dialect("TRINO", "Trino", "trino"),
+        new Dialect("VERTICA", "Vertica", "vertica"),
+        new Dialect("YUGABYTEDB", "YugabyteDB", "yugabytedb", "yugabyte")
+    );
+
+    /**
+     * Dialects mentioned in a free-text request, in order of appearance, and the remaining words
+     */
+    public record ParsedRequest(List<Dialect> dialects, List<String> remainder) {}
+
+    // First alias token -> alias spellings starting with it, longest first
+    private static final Map<String, List<Alias>> ALIASES = new HashMap<>();
+
+    private record Alias(String[] tokens, int dialect) {}
+
+    static {
+        for (int i = 0; i < DIALECTS.size(); i++) {
+            for (String alias : DIALECTS.get(i).aliases()) {
+                String[] tokens = alias.split(" ");
+                ALIASES.computeIfAbsent(tokens[0], k -> new ArrayList<>()).add(new Alias(tokens, i));
+            }
+        }
+        ALIASES.values().forEach(list -> list.sort(Comparator.comparingInt((Alias alias) -> alias.tokens().length).reversed()));
+    }
+
+    private final BitSet[] mentioning;
+    private final BitSet[] dedicated;
+    private final int sectionCount;
+
+    public DialectSupportMatrix(List<DocumentationSection> sections) {
+        this.sectionCount = sections.size();
+        this.mentioning = new BitSet[DIALECTS.size()];
+        this.dedicated = new BitSet[DIALECTS.size()];
+        for (int i = 0; i < DIALECTS.size(); i++) {
+            mentioning[i] = new BitSet(sectionCount);
+            dedicated[i] = new BitSet(sectionCount);
+        }
+
+        for (int ordinal = 0; ordinal < sectionCount; ordinal++) {
+            DocumentationSection section = sections.get(ordinal);
+            for (int dialect : scan(section.getTitle(), null)) {
+                dedicated[dialect].set(ordinal);
+                mentioning[dialect].set(ordinal);
+            }
+            for (int dialect : scan(section.getContent(), null)) {
+                mentioning[dialect].set(ordinal);
+            }
+            for (CodeExample example : section.getCodeExamples()) {
+                for (int dialect : scan(example.getCode(), null)) {
+                    mentioning[dialect].set(ordinal);
+                }
+            }
+        }
+    }
+
+    /**
+     * Split a request such as "PostgreSQL vs Oracle for MERGE" into dialects and remaining words
+     */
+    public static ParsedRequest parse(String text) {
+        List<String> remainder = new ArrayList<>();
+        List<Dialect> dialects = new ArrayList<>();
+        for (int dialect : scan(text, remainder)) {
+            dialects.add(DIALECTS.get(dialect));
+        }
+        return new ParsedRequest(dialects, remainder);
+    }
+
+    /**
+     * Sections mentioning the dialect anywhere in title, text or code
+     */
+    public BitSet sectionsMentioning(Dialect dialect) {
+        return (BitSet) mentioning[DIALECTS.indexOf(dialect)].clone();
+    }
+
+    /**
+     * Sections whose title names the dialect, e.g. dialect specific chapters
+     */
+    public BitSet sectionsDedicatedTo(Dialect dialect) {
+        return (BitSet) dedicated[DIALECTS.indexOf(dialect)].clone();
+    }
+
+    /**
+     * Dialects mentioned by at least one section, most documented first
+     */
+    public List<Dialect> documentedDialects() {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < DIALECTS.size(); i++) {
+            if (!mentioning[i].isEmpty()) {
+                order.add(i);
+            }
+        }
+        order.sort(Comparator.comparingInt((Integer i) -> mentioning[i].cardinality()).reversed());
+        return order.stream().map(DIALECTS::get).toList();
+    }
+
+    public int sectionCount() {
+        return sectionCount;
+    }
+
+    /**
+     * Distinct dialect indexes found in the text; unmatched words are appended to the remainder if given
+     */
+    private static Set<Integer> scan(String text, List<String> remainder) {
+        Set<Integer> found = new LinkedHashSet<>();
+        if (text == null || text.isEmpty()) {
+            return found;
+        }
+        String[] tokens = text.toLowerCase().split("[^a-z0-9]+");
+        int i = 0;
+        while (i < tokens.length) {
+            Alias match = null;
+            for (Alias alias : ALIASES.getOrDefault(tokens[i], Collections.emptyList())) {
+                if (matches(tokens, i, alias.tokens())) {
+                    match = alias;
+                    break;
+                }
+            }
+            if (match != null) {
+                found.add(match.dialect());
+                i += match.tokens().length;
+            } else {
+                if (remainder != null && !tokens[i].isEmpty()) {
+                    remainder.add(tokens[i]);
+                }
+                i++;
+            }
+        }
+        return found;
+    }
+
+    private static boolean matches(String[] tokens, int start, String[] alias) {
+        if (start + alias.length > tokens.length) {
+            return false;
+        }
+        for (int j = 0; j < alias.length; j++) {
+            if (!tokens[start + j].equals(alias[j])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
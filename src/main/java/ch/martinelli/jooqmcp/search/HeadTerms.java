@@ -0,0 +1,52 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
+import ch.martinelli.jooqmcp.util.TextProcessor;
+
+import java.util.*;
+
+/**
+ * Head terms of the collection: the indexed terms with the highest document frequency, which are also
+ * the bulk of real single-term traffic ("select", "join", "transaction"). Since the index only knows
+ * stems, every head term is mapped back to the words users actually type for it.
+ */
+public final class HeadTerms {
+
+    private HeadTerms() {
+    }
+
+    /**
+     * Most common surface forms of the highest document frequency terms, most frequent term first
+     *
+     * @param termCount    number of head terms
+     * @param formsPerTerm surface forms kept per head term
+     */
+    public static List<String> surfaceForms(SearchEngine index, List<DocumentationSection> sections,
+                                            int termCount, int formsPerTerm) {
+        List<String> headTerms = index.mostFrequentTerms(termCount);
+        Map<String, Map<String, Integer>> formCounts = new HashMap<>();
+        for (String term : headTerms) {
+            formCounts.put(term, new HashMap<>());
+        }
+
+        for (DocumentationSection section : sections) {
+            List<String> tokens = TextProcessor.removeStopWords(
+                TextProcessor.tokenize(section.getTitle() + " " + section.getContent()));
+            for (String token : tokens) {
+                Map<String, Integer> counts = formCounts.get(TextProcessor.stem(token));
+                if (counts != null) {
+                    counts.merge(token, 1, Integer::sum);
+                }
+            }
+        }
+
+        List<String> forms = new ArrayList<>();
+        for (String term : headTerms) {
+            formCounts.get(term).entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(formsPerTerm)
+                .forEach(entry -> forms.add(entry.getKey()));
+        }
+        return forms;
+    }
+}
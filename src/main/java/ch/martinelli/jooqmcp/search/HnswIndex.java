@@ -0,0 +1,256 @@
+package ch.martinelli.jooqmcp.search;
+
+import java.util.*;
+
+/**
+ * Hierarchical navigable small world graph for approximate nearest neighbour search over
+ * L2-normalized vectors stored in one flat float array. Similarity is the dot product.
+ * The graph is built once and read-only afterwards, so concurrent searches are safe.
+ */
+public class HnswIndex {
+
+    private static final int DEFAULT_M = 16;
+    private static final int DEFAULT_EF_CONSTRUCTION = 100;
+
+    private final float[] vectors;
+    private final int dimensions;
+    private final int size;
+    private final int m;
+    private final int maxM0;
+
+    // node -> level -> neighbour ids
+    private final int[][][] links;
+    private final int entryPoint;
+    private final int maxLevel;
+
+    /**
+     * A node id with its similarity to the query
+     */
+    public record Neighbor(int id, float similarity) {}
+
+    public HnswIndex(float[] vectors, int dimensions) {
+        this(vectors, dimensions, DEFAULT_M, DEFAULT_EF_CONSTRUCTION, 42L);
+    }
+
+    public HnswIndex(float[] vectors, int dimensions, int m, int efConstruction, long seed) {
+        this.vectors = vectors;
+        this.dimensions = dimensions;
+        this.size = dimensions > 0 ? vectors.length / dimensions : 0;
+        this.m = m;
+        this.maxM0 = 2 * m;
+        this.links = new int[size][][];
+
+        Random random = new Random(seed);
+        double levelMultiplier = 1.0 / Math.log(m);
+        int[][] counts = new int[size][];
+        int currentEntry = -1;
+        int currentMaxLevel = -1;
+
+        for (int node = 0; node < size; node++) {
+            int level = (int) (-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+            links[node] = new int[level + 1][];
+            counts[node] = new int[level + 1];
+            for (int lc = 0; lc <= level; lc++) {
+                links[node][lc] = new int[(lc == 0 ? maxM0 : m) + 1];
+            }
+
+            if (currentEntry < 0) {
+                currentEntry = node;
+                currentMaxLevel = level;
+                continue;
+            }
+
+            int entry = currentEntry;
+            for (int lc = currentMaxLevel; lc > level; lc--) {
+                entry = greedyClosest(node, entry, lc, counts);
+            }
+            for (int lc = Math.min(level, currentMaxLevel); lc >= 0; lc--) {
+                List<Neighbor> candidates = searchLayer(vectorOffset(node), entry, efConstruction, lc, counts);
+                int maxLinks = lc == 0 ? maxM0 : m;
+                for (int i = 0; i < Math.min(m, candidates.size()); i++) {
+                    int neighbor = candidates.get(i).id();
+                    connect(node, neighbor, lc, counts, maxLinks);
+                    connect(neighbor, node, lc, counts, maxLinks);
+                }
+                entry = candidates.get(0).id();
+            }
+
+            if (level > currentMaxLevel) {
+                currentEntry = node;
+                currentMaxLevel = level;
+            }
+        }
+
+        // Compact the link arrays to their final sizes
+        for (int node = 0; node < size; node++) {
+            for (int lc = 0; lc < links[node].length; lc++) {
+                links[node][lc] = Arrays.copyOf(links[node][lc], counts[node][lc]);
+            }
+        }
+        this.entryPoint = currentEntry;
+        this.maxLevel = currentMaxLevel;
+    }
+
+    /**
+     * Approximate k nearest neighbours of a normalized query vector, most similar first
+     */
+    public List<Neighbor> search(float[] query, int k, int ef) {
+        if (size == 0 || query.length != dimensions) {
+            return Collections.emptyList();
+        }
+        int entry = entryPoint;
+        for (int lc = maxLevel; lc > 0; lc--) {
+            entry = greedyClosest(query, entry, lc);
+        }
+        List<Neighbor> result = searchLayer(query, entry, Math.max(ef, k), 0);
+        return result.size() > k ? result.subList(0, k) : result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    private int greedyClosest(int node, int entry, int level, int[][] counts) {
+        int offset = vectorOffset(node);
+        int current = entry;
+        float best = similarity(offset, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[] neighbors = links[current][level];
+            for (int i = 0; i < counts[current][level]; i++) {
+                float sim = similarity(offset, neighbors[i]);
+                if (sim > best) {
+                    best = sim;
+                    current = neighbors[i];
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    private int greedyClosest(float[] query, int entry, int level) {
+        int current = entry;
+        float best = similarity(query, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int neighbor : links[current][level]) {
+                float sim = similarity(query, neighbor);
+                if (sim > best) {
+                    best = sim;
+                    current = neighbor;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Beam search on one layer during construction, where link arrays are still partially filled
+     */
+    private List<Neighbor> searchLayer(int queryOffset, int entry, int ef, int level, int[][] counts) {
+        float[] query = Arrays.copyOfRange(vectors, queryOffset, queryOffset + dimensions);
+        return beamSearch(query, entry, ef, level, counts);
+    }
+
+    private List<Neighbor> searchLayer(float[] query, int entry, int ef, int level) {
+        return beamSearch(query, entry, ef, level, null);
+    }
+
+    private List<Neighbor> beamSearch(float[] query, int entry, int ef, int level, int[][] counts) {
+        BitSet visited = new BitSet(size);
+        PriorityQueue<Neighbor> candidates = new PriorityQueue<>((a, b) -> Float.compare(b.similarity(), a.similarity()));
+        PriorityQueue<Neighbor> results = new PriorityQueue<>((a, b) -> Float.compare(a.similarity(), b.similarity()));
+
+        Neighbor start = new Neighbor(entry, similarity(query, entry));
+        visited.set(entry);
+        candidates.add(start);
+        results.add(start);
+
+        while (!candidates.isEmpty()) {
+            Neighbor candidate = candidates.poll();
+            if (results.size() >= ef && candidate.similarity() < results.peek().similarity()) {
+                break;
+            }
+            int[] neighbors = links[candidate.id()][level];
+            int count = counts != null ? counts[candidate.id()][level] : neighbors.length;
+            for (int i = 0; i < count; i++) {
+                int neighbor = neighbors[i];
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                float sim = similarity(query, neighbor);
+                if (results.size() < ef || sim > results.peek().similarity()) {
+                    Neighbor next = new Neighbor(neighbor, sim);
+                    candidates.add(next);
+                    results.add(next);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+
+        List<Neighbor> sorted = new ArrayList<>(results);
+        sorted.sort((a, b) -> Float.compare(b.similarity(), a.similarity()));
+        return sorted;
+    }
+
+    /**
+     * Add a directed link, keeping only the most similar neighbours once the node is full
+     */
+    private void connect(int from, int to, int level, int[][] counts, int maxLinks) {
+        int[] neighbors = links[from][level];
+        int count = counts[from][level];
+        for (int i = 0; i < count; i++) {
+            if (neighbors[i] == to) {
+                return;
+            }
+        }
+        neighbors[count++] = to;
+        if (count > maxLinks) {
+            int fromOffset = vectorOffset(from);
+            int worst = 0;
+            float worstSim = Float.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                float sim = similarity(fromOffset, neighbors[i]);
+                if (sim < worstSim) {
+                    worstSim = sim;
+                    worst = i;
+                }
+            }
+            neighbors[worst] = neighbors[--count];
+        }
+        counts[from][level] = count;
+    }
+
+    private int vectorOffset(int node) {
+        return node * dimensions;
+    }
+
+    private float similarity(int offset, int node) {
+        int other = vectorOffset(node);
+        float dot = 0f;
+        for (int i = 0; i < dimensions; i++) {
+            dot += vectors[offset + i] * vectors[other + i];
+        }
+        return dot;
+    }
+
+    private float similarity(float[] query, int node) {
+        int other = vectorOffset(node);
+        float dot = 0f;
+        for (int i = 0; i < dimensions; i++) {
+            dot += query[i] * vectors[other + i];
+        }
+        return dot;
+    }
+}
@@ -1,80 +1,132 @@
 package ch.martinelli.jooqmcp.search;
 
+import ch.martinelli.jooqmcp.util.SynonymGraph;
 import ch.martinelli.jooqmcp.util.TextProcessor;
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.CodeExample;
 import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
 
 /**
- * Inverted index for fast full-text search with TF-IDF scoring
+ * Inverted index for fast full-text search with BM25F scoring. Title, breadcrumb, content and code
+ * blocks are indexed as separate fields: every posting keeps the term frequency per field, and the
+ * impact of a term in a document is computed at build time from the field weights, the field lengths
+ * and the collection wide average field lengths. Documents are addressed by their insertion ordinal;
+ * postings are compiled into sorted arrays of these impacts, which lets {@link WandEvaluator} skip
+ * documents that cannot reach the top results. Query terms are expanded with weighted synonyms,
+ * whose discounted upper bounds let the evaluator skip them where they cannot change the top results.
+ * A query independent static score per document, such as its {@link LinkGraph} rank, is added to the
+ * score of every match.
  */
-public class InvertedIndex {
+public class InvertedIndex implements SearchEngine {
     
-    // Term -> Document ID -> Term Frequency
-    private final Map<String, Map<String, Integer>> termFrequencies = new ConcurrentHashMap<>();
+    static final float PHRASE_BOOST = 50.0f;
+    // Fuzzy variants of a query term count for a fraction of an exact match
+    static final float FUZZY_TERM_WEIGHT = 0.3f;
+    // Vocabulary terms compared between two polls of the deadline, a power of two
+    private static final int FUZZY_DEADLINE_CHECK_INTERVAL = 512;
     
-    // Document ID -> Document data
-    private final Map<String, IndexedDocument> documents = new ConcurrentHashMap<>();
+    // BM25F: fields in posting order with their weight and length normalization
+    static final BooleanQuery.Field[] FIELDS = {
+        BooleanQuery.Field.TITLE, BooleanQuery.Field.BREADCRUMB, BooleanQuery.Field.CONTENT, BooleanQuery.Field.CODE
+    };
+    static final float[] FIELD_WEIGHTS = {3.0f, 0.5f, 1.0f, 0.5f};
+    private static final float[] FIELD_LENGTH_NORMALIZATION = {0.5f, 0.5f, 0.75f, 0.75f};
+    private static final float K1 = 1.2f;
+    // Score added for the most referenced section, see LinkGraph
+    static final float STATIC_RANK_WEIGHT = 1.0f;
+    // Near-duplicates are collapsed after evaluation, so keep some spare hits
+    static final int DUPLICATE_SLACK = 2;
+    private static final int[] NO_DOCUMENTS = new int[0];
     
-    // Document ID -> Total word count
-    private final Map<String, Integer> documentWordCounts = new ConcurrentHashMap<>();
+    // Documents by ordinal
+    private final List<IndexedDocument> documents = new ArrayList<>();
+    
+    // Term -> postings with per field frequencies under construction
+    private final Map<String, PostingsBuilder> termPostings = new HashMap<>();
     
     // Phrase index for exact phrase matching
-    private final Map<String, Set<String>> phraseIndex = new ConcurrentHashMap<>();
+    private final Map<String, PostingsBuilder> phrasePostings = new HashMap<>();
+    
+    // Field -> document ordinal -> length in tokens
+    private final int[][] fieldLengths = new int[FIELDS.length][64];
+    
+    // Document ordinal -> query independent score in [0, 1]
+    private float[] staticScores = new float[64];
+    
+    private volatile CompiledIndex compiled;
+    private volatile boolean dynamicPruning = true;
+    private final LongAdder scoredDocuments = new LongAdder();
+    private final SynonymGraph synonyms;
     
-    // Total number of documents
-    private int totalDocuments = 0;
+    public InvertedIndex() {
+        this(SynonymGraph.defaultGraph());
+    }
+    
+    public InvertedIndex(SynonymGraph synonyms) {
+        this.synonyms = synonyms;
+    }
     
     public static class IndexedDocument {
         private final String id;
         private final DocumentationSection section;
-        private Set<String> titleTokens;
-        private Set<String> allTokens;
-        private List<String> phrases;
+        private final long simHash;
+        // Derived lazily and released under memory pressure, recomputed on the next access
+        private volatile TokenSets tokens;
+        private volatile List<String> phrases;
         
-        public IndexedDocument(String id, DocumentationSection section) {
+        private record TokenSets(Set<String> title, Set<String> all) {}
+        
+        public IndexedDocument(String id, DocumentationSection section, long simHash) {
             this.id = id;
             this.section = section;
+            this.simHash = simHash;
             // Lazy initialization to save memory
         }
         
-        private void ensureTokensInitialized() {
-            if (titleTokens == null) {
-                titleTokens = new HashSet<>(TextProcessor.processText(section.getTitle()));
-                Set<String> contentTokens = new HashSet<>(TextProcessor.processText(section.getContent()));
-                allTokens = new HashSet<>();
-                allTokens.addAll(titleTokens);
-                allTokens.addAll(contentTokens);
+        private TokenSets tokenSets() {
+            TokenSets current = tokens;
+            if (current == null) {
+                Set<String> titleTokens = new HashSet<>(TextProcessor.processText(section.getTitle()));
+                Set<String> allTokens = new HashSet<>(titleTokens);
+                allTokens.addAll(TextProcessor.processText(section.getContent()));
+                current = new TokenSets(titleTokens, allTokens);
+                tokens = current;
             }
+            return current;
         }
         
-        private void ensurePhrasesInitialized() {
-            if (phrases == null) {
+        private List<String> phraseList() {
+            List<String> current = phrases;
+            if (current == null) {
                 String combinedText = section.getTitle() + " " + section.getContent();
                 // Limit phrase extraction to first 2000 chars to save memory
                 if (combinedText.length() > 2000) {
                     combinedText = combinedText.substring(0, 2000);
                 }
-                phrases = TextProcessor.extractPhrases(combinedText);
+                current = TextProcessor.extractPhrases(combinedText);
+                phrases = current;
             }
+            return current;
+        }
+        
+        /**
+         * Drop the lazily built token and phrase sets
+         */
+        public void releaseDerivedData() {
+            tokens = null;
+            phrases = null;
         }
         
         public String getId() { return id; }
         public DocumentationSection getSection() { return section; }
-        public Set<String> getTitleTokens() { 
-            ensureTokensInitialized();
-            return titleTokens; 
-        }
-        public Set<String> getAllTokens() { 
-            ensureTokensInitialized();
-            return allTokens; 
-        }
-        public List<String> getPhrases() { 
-            ensurePhrasesInitialized();
-            return phrases; 
-        }
+        public long getSimHash() { return simHash; }
+        public Set<String> getTitleTokens() { return tokenSets().title(); }
+        public Set<String> getAllTokens() { return tokenSets().all(); }
+        public List<String> getPhrases() { return phraseList(); }
     }
     
     public static class SearchMatch {
@@ -96,35 +148,46 @@ public class InvertedIndex {
     /**
      * Add a document to the index
      */
-    public void addDocument(DocumentationSection section) {
-        String docId = section.getId() != null ? section.getId() : "doc_" + totalDocuments;
-        IndexedDocument indexedDoc = new IndexedDocument(docId, section);
-        
-        documents.put(docId, indexedDoc);
-        
-        // Count tokens directly from section text to avoid storing duplicates
-        List<String> titleTokens = TextProcessor.processText(section.getTitle());
-        List<String> contentTokens = TextProcessor.processText(section.getContent());
-        
-        int totalTokens = titleTokens.size() + contentTokens.size();
-        documentWordCounts.put(docId, totalTokens);
+    public synchronized void addDocument(DocumentationSection section) {
+        addDocument(section, 0f);
+    }
+    
+    /**
+     * Add a document with a query independent score in [0, 1], e.g. its link graph rank, that is added
+     * to its score for every query it matches
+     */
+    public synchronized void addDocument(DocumentationSection section, float staticScore) {
+        int ordinal = documents.size();
+        String docId = section.getId() != null && !section.getId().isEmpty() ? section.getId() : "doc_" + ordinal;
+        IndexedDocument indexedDoc = new IndexedDocument(docId, section, computeSimHash(section));
+        documents.add(indexedDoc);
+        
+        StringBuilder code = new StringBuilder();
+        for (CodeExample example : section.getCodeExamples()) {
+            code.append(example.getCode()).append('\n');
+        }
+        String[] fieldTexts = {section.getTitle(), section.getBreadcrumb(), section.getContent(), code.toString()};
         
-        // Build term frequency map for this document
-        Map<String, Integer> docTermFreq = new HashMap<>();
-        for (String token : titleTokens) {
-            docTermFreq.merge(token, 1, Integer::sum);
+        // Term frequencies per field, in the order of FIELDS
+        if (ordinal == fieldLengths[0].length) {
+            for (int field = 0; field < FIELDS.length; field++) {
+                fieldLengths[field] = Arrays.copyOf(fieldLengths[field], ordinal * 2);
+            }
+            staticScores = Arrays.copyOf(staticScores, ordinal * 2);
         }
-        for (String token : contentTokens) {
-            docTermFreq.merge(token, 1, Integer::sum);
+        staticScores[ordinal] = staticScore;
+        Map<String, int[]> docTermFreq = new HashMap<>();
+        for (int field = 0; field < FIELDS.length; field++) {
+            List<String> tokens = fieldTokens(fieldTexts[field]);
+            fieldLengths[field][ordinal] = tokens.size();
+            for (String token : tokens) {
+                docTermFreq.computeIfAbsent(token, k -> new int[FIELDS.length])[field]++;
+            }
         }
         
-        // Update inverted index
-        for (Map.Entry<String, Integer> entry : docTermFreq.entrySet()) {
-            String term = entry.getKey();
-            int frequency = entry.getValue();
-            
-            termFrequencies.computeIfAbsent(term, k -> new ConcurrentHashMap<>())
-                          .put(docId, frequency);
+        // Update inverted index; ordinals only grow, so postings stay sorted
+        for (Map.Entry<String, int[]> entry : docTermFreq.entrySet()) {
+            termPostings.computeIfAbsent(entry.getKey(), k -> new PostingsBuilder()).add(ordinal, entry.getValue());
         }
         
         // Index phrases with memory limit
@@ -132,56 +195,325 @@ public class InvertedIndex {
         // Limit to first 10 phrases per document to save memory
         int phraseLimit = Math.min(10, phrases.size());
         for (int i = 0; i < phraseLimit; i++) {
-            String phrase = phrases.get(i);
-            phraseIndex.computeIfAbsent(phrase.toLowerCase(), k -> new HashSet<>()).add(docId);
+            phrasePostings.computeIfAbsent(phrases.get(i).toLowerCase(), k -> new PostingsBuilder())
+                    .addDistinct(ordinal);
+        }
+        
+        compiled = null;
+    }
+    
+    /**
+     * Stemmed tokens of a field without stop words, repeated tokens included so they count towards the
+     * term frequency
+     */
+    static List<String> fieldTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        List<String> tokens = TextProcessor.removeStopWords(TextProcessor.tokenize(text));
+        List<String> stemmed = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            stemmed.add(TextProcessor.stem(token));
+        }
+        return stemmed;
+    }
+    
+    /**
+     * Compile postings into immutable arrays with precomputed impacts. Called lazily by the first
+     * search after documents were added.
+     */
+    public synchronized void build() {
+        if (compiled != null) {
+            return;
+        }
+        long[] totals = fieldLengthTotals();
+        float[] averageFieldLengths = new float[FIELDS.length];
+        for (int field = 0; field < FIELDS.length; field++) {
+            averageFieldLengths[field] = documents.isEmpty() ? 0f : (float) totals[field] / documents.size();
+        }
+        build(documents.size(), this::getDocumentFrequency, averageFieldLengths);
+    }
+    
+    /**
+     * Compile postings with IDF and average field lengths taken from collection wide statistics, so
+     * that a shard scores its documents exactly like an index holding the whole collection would
+     */
+    synchronized void build(int totalDocuments, ToIntFunction<String> documentFrequency, float[] averageFieldLengths) {
+        int documentCount = documents.size();
+        
+        // Length normalization per field and document, shared by all terms
+        float[][] normalizations = new float[FIELDS.length][documentCount];
+        for (int field = 0; field < FIELDS.length; field++) {
+            float b = FIELD_LENGTH_NORMALIZATION[field];
+            for (int document = 0; document < documentCount; document++) {
+                float relativeLength = averageFieldLengths[field] > 0 ? fieldLengths[field][document] / averageFieldLengths[field] : 1f;
+                normalizations[field][document] = FIELD_WEIGHTS[field] / (1 - b + b * relativeLength);
+            }
+        }
+        
+        Map<String, PostingList> terms = new HashMap<>(termPostings.size() * 2);
+        Map<BooleanQuery.Field, Map<String, int[]>> fields = new EnumMap<>(BooleanQuery.Field.class);
+        for (BooleanQuery.Field field : FIELDS) {
+            fields.put(field, new HashMap<>());
+        }
+        for (Map.Entry<String, PostingsBuilder> entry : termPostings.entrySet()) {
+            PostingsBuilder builder = entry.getValue();
+            int df = documentFrequency.applyAsInt(entry.getKey());
+            double idf = Math.log(1 + (totalDocuments - df + 0.5) / (df + 0.5));
+            float[] impacts = new float[builder.size];
+            for (int i = 0; i < builder.size; i++) {
+                impacts[i] = termImpact(builder, i, normalizations, idf);
+            }
+            int[] termDocuments = Arrays.copyOf(builder.documents, builder.size);
+            terms.put(entry.getKey(), new PostingList(termDocuments, impacts));
+            
+            // Field scoped postings for structured queries
+            for (int field = 0; field < FIELDS.length; field++) {
+                int[] fieldDocuments = builder.documentsIn(field);
+                if (fieldDocuments.length > 0) {
+                    fields.get(FIELDS[field]).put(entry.getKey(),
+                        fieldDocuments.length == termDocuments.length ? termDocuments : fieldDocuments);
+                }
+            }
+        }
+        
+        Map<String, BitSet> phrases = new HashMap<>(phrasePostings.size() * 2);
+        for (Map.Entry<String, PostingsBuilder> entry : phrasePostings.entrySet()) {
+            BitSet phraseDocs = new BitSet(documentCount);
+            PostingsBuilder builder = entry.getValue();
+            for (int i = 0; i < builder.size; i++) {
+                phraseDocs.set(builder.documents[i]);
+            }
+            phrases.put(entry.getKey(), phraseDocs);
         }
         
-        totalDocuments++;
+        float[] staticBoosts = new float[documentCount];
+        float maxStaticBoost = 0f;
+        for (int document = 0; document < documentCount; document++) {
+            staticBoosts[document] = STATIC_RANK_WEIGHT * staticScores[document];
+            maxStaticBoost = Math.max(maxStaticBoost, staticBoosts[document]);
+        }
+        
+        compiled = new CompiledIndex(terms, phrases, documentCount, fields, staticBoosts, maxStaticBoost);
+    }
+    
+    /**
+     * Summed length of every field over all documents, in the order of the BM25F fields
+     */
+    synchronized long[] fieldLengthTotals() {
+        long[] totals = new long[FIELDS.length];
+        for (int field = 0; field < FIELDS.length; field++) {
+            for (int document = 0; document < documents.size(); document++) {
+                totals[field] += fieldLengths[field][document];
+            }
+        }
+        return totals;
+    }
+    
+    private CompiledIndex compiled() {
+        CompiledIndex current = compiled;
+        if (current == null) {
+            build();
+            current = compiled;
+        }
+        return current;
+    }
+    
+    /**
+     * SimHash over the stemmed title and content tokens, weighted by frequency
+     */
+    static long computeSimHash(DocumentationSection section) {
+        Map<String, Integer> weightedTokens = new HashMap<>();
+        List<String> tokens = TextProcessor.removeStopWords(
+                TextProcessor.tokenize(section.getTitle() + " " + section.getContent()));
+        for (String token : tokens) {
+            weightedTokens.merge(TextProcessor.stem(token), 1, Integer::sum);
+        }
+        return SimHash.fingerprint(weightedTokens);
     }
     
     /**
      * Search the index with advanced scoring
      */
     public List<SearchMatch> search(String query, int maxResults) {
+        return search(query, maxResults, Deadline.NONE);
+    }
+    
+    /**
+     * Search within a time budget, returning the best results found before the deadline
+     */
+    public List<SearchMatch> search(String query, int maxResults, Deadline deadline) {
         if (query == null || query.trim().isEmpty()) {
             return Collections.emptyList();
         }
+        SearchQuery parsedQuery = parseQuery(query, synonyms);
+        return collectDistinct(rank(parsedQuery, maxResults * DUPLICATE_SLACK, deadline), parsedQuery, maxResults);
+    }
+    
+    /**
+     * Best scoring documents for a parsed query, before near-duplicates are collapsed. Safe to call
+     * concurrently once the index is built.
+     */
+    List<ScoredDocument> rank(SearchQuery parsedQuery, int k, Deadline deadline) {
+        CompiledIndex index = compiled();
+        if (parsedQuery.getStructured() != null) {
+            return rankStructured(index, parsedQuery, k, deadline);
+        }
         
-        // Parse query into terms and phrases
-        SearchQuery parsedQuery = parseQuery(query);
-        
-        // Find candidate documents
-        Set<String> candidateDocIds = findCandidateDocuments(parsedQuery);
-        
-        if (candidateDocIds.isEmpty()) {
+        // One cursor per query term, fuzzy variants only widen the candidate set
+        List<PostingCursor> cursors = createCursors(index, parsedQuery, deadline);
+        BitSet phraseFilter = phraseFilter(index, parsedQuery);
+        if (cursors.isEmpty() && phraseFilter != null) {
+            // Phrase-only query, every phrase match is a candidate
+            int[] phraseDocs = phraseFilter.stream().toArray();
+            cursors.add(new PostingCursor(new PostingList(phraseDocs, new float[phraseDocs.length]), 0f));
+        }
+        if (cursors.isEmpty()) {
             return Collections.emptyList();
         }
         
-        // Score each candidate document
-        List<SearchMatch> matches = new ArrayList<>();
-        for (String docId : candidateDocIds) {
-            IndexedDocument doc = documents.get(docId);
-            if (doc != null) {
-                double score = calculateScore(doc, parsedQuery);
-                if (score > 0) {
-                    Set<String> matchedTerms = findMatchedTerms(doc, parsedQuery);
-                    matches.add(new SearchMatch(doc, score, matchedTerms));
+        float extraBound = PHRASE_BOOST * parsedQuery.getPhrases().size() + index.maxStaticBoost();
+        WandEvaluator.Result result = WandEvaluator.topK(cursors, extraBound,
+                (document, termScore) -> termScore + index.staticBoosts()[document] + queryBoost(document, parsedQuery),
+                phraseFilter, k, dynamicPruning, deadline);
+        scoredDocuments.add(result.scoredDocuments());
+        return toScoredDocuments(result);
+    }
+    
+    /**
+     * Evaluate a boolean query over the sorted postings, then score only its matches with the
+     * impacts of the positive terms
+     */
+    private List<ScoredDocument> rankStructured(CompiledIndex index, SearchQuery parsedQuery, int k, Deadline deadline) {
+        int[] matches = evaluate(index, parsedQuery.getStructured());
+        List<PostingCursor> cursors = new ArrayList<>();
+        for (String term : parsedQuery.getTerms()) {
+            PostingList postings = index.terms().get(term);
+            if (postings != null) {
+                cursors.add(new PostingCursor(postings, parsedQuery.getWeight(term)));
+            }
+        }
+        WandEvaluator.Result result = WandEvaluator.scoreCandidates(matches, cursors,
+                (document, termScore) -> termScore + index.staticBoosts()[document] + queryBoost(document, parsedQuery),
+                k, deadline);
+        scoredDocuments.add(result.scoredDocuments());
+        return toScoredDocuments(result);
+    }
+    
+    /**
+     * Sorted documents matching a boolean query node. Conjunctions intersect their clauses smallest
+     * first, so a restrictive clause limits the work for all others.
+     */
+    private int[] evaluate(CompiledIndex index, BooleanQuery.Node node) {
+        return switch (node) {
+            case BooleanQuery.Term term -> {
+                List<int[]> tokenDocuments = new ArrayList<>();
+                for (String token : term.tokens()) {
+                    tokenDocuments.add(index.documents(term.field(), token));
+                }
+                yield intersectAll(tokenDocuments);
+            }
+            case BooleanQuery.Or or -> {
+                List<int[]> clauses = new ArrayList<>();
+                for (BooleanQuery.Node clause : or.clauses()) {
+                    clauses.add(evaluate(index, clause));
+                }
+                yield PostingList.union(clauses);
+            }
+            case BooleanQuery.And and -> {
+                List<int[]> required = new ArrayList<>();
+                List<BooleanQuery.Node> excluded = new ArrayList<>();
+                for (BooleanQuery.Node clause : and.clauses()) {
+                    if (clause instanceof BooleanQuery.Not not) {
+                        excluded.add(not.clause());
+                    } else {
+                        required.add(evaluate(index, clause));
+                    }
+                }
+                int[] result = required.isEmpty() ? allDocuments(index) : intersectAll(required);
+                for (BooleanQuery.Node clause : excluded) {
+                    if (result.length == 0) {
+                        break;
+                    }
+                    result = PostingList.difference(result, evaluate(index, clause));
                 }
+                yield result;
             }
+            case BooleanQuery.Not not -> PostingList.difference(allDocuments(index), evaluate(index, not.clause()));
+        };
+    }
+    
+    private static int[] intersectAll(List<int[]> lists) {
+        lists.sort(Comparator.comparingInt(list -> list.length));
+        int[] result = lists.getFirst();
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = PostingList.intersect(result, lists.get(i));
         }
-        
-        // Sort by score (descending) and return top results
-        return matches.stream()
-                .sorted(Comparator.comparingDouble(SearchMatch::getScore).reversed())
-                .limit(maxResults)
-                .toList();
+        return result;
+    }
+    
+    private static int[] allDocuments(CompiledIndex index) {
+        int[] all = new int[index.documentCount()];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i;
+        }
+        return all;
+    }
+    
+    private List<ScoredDocument> toScoredDocuments(WandEvaluator.Result result) {
+        List<ScoredDocument> ranked = new ArrayList<>(result.hits().size());
+        for (WandEvaluator.Hit hit : result.hits()) {
+            ranked.add(new ScoredDocument(hit.document(), documents.get(hit.document()), hit.score()));
+        }
+        return ranked;
+    }
+    
+    record ScoredDocument(int ordinal, IndexedDocument document, double score) {}
+    
+    /**
+     * Top-k collector that collapses near-duplicate sections (per-dialect variants, repeated examples)
+     * onto the best scoring one and stops as soon as k distinct results are collected
+     */
+    static List<SearchMatch> collectDistinct(List<ScoredDocument> ranked, SearchQuery query, int maxResults) {
+        List<SearchMatch> matches = new ArrayList<>(Math.min(maxResults, ranked.size()));
+        for (ScoredDocument candidate : ranked) {
+            if (matches.size() >= maxResults) {
+                break;
+            }
+            if (isNearDuplicateOfAny(candidate.document(), matches)) {
+                continue;
+            }
+            IndexedDocument doc = candidate.document();
+            matches.add(new SearchMatch(doc, candidate.score(), findMatchedTerms(doc, query)));
+        }
+        return matches;
+    }
+    
+    private static boolean isNearDuplicateOfAny(IndexedDocument doc, List<SearchMatch> accepted) {
+        for (SearchMatch match : accepted) {
+            if (SimHash.isNearDuplicate(doc.getSimHash(), match.getDocument().getSimHash())) {
+                return true;
+            }
+        }
+        return false;
     }
     
     /**
-     * Parse query into structured format
+     * Parse query into structured format, expanding free text terms with their weighted synonyms
      */
-    private SearchQuery parseQuery(String query) {
+    static SearchQuery parseQuery(String query, SynonymGraph synonyms) {
         SearchQuery searchQuery = new SearchQuery();
+        searchQuery.setOriginalQuery(query);
+        
+        if (BooleanQuery.isStructured(query)) {
+            // Operators and field scopes are matched exactly, without synonyms or typo tolerance
+            BooleanQuery.Node structured = BooleanQuery.parse(query);
+            searchQuery.setStructured(structured);
+            if (structured != null) {
+                searchQuery.setTerms(new ArrayList<>(BooleanQuery.positiveTokens(structured)));
+            }
+            return searchQuery;
+        }
         
         // Extract exact phrases (quoted strings)
         List<String> phrases = new ArrayList<>();
@@ -201,130 +533,120 @@ public class InvertedIndex {
         // Process remaining terms
         List<String> terms = TextProcessor.processText(processedQuery);
         
-        // Expand terms with synonyms
-        Set<String> expandedTerms = new HashSet<>();
+        // Expand terms with synonyms at their discounted weight; a term typed by the user keeps full weight
+        Set<String> expandedTerms = new LinkedHashSet<>(terms);
         for (String term : terms) {
-            expandedTerms.addAll(TextProcessor.expandWithSynonyms(term));
+            for (SynonymGraph.Expansion expansion : synonyms.expand(term)) {
+                if (!terms.contains(expansion.term())) {
+                    expandedTerms.add(expansion.term());
+                    searchQuery.addExpansion(expansion.term(), expansion.weight());
+                }
+            }
         }
         
         searchQuery.setTerms(new ArrayList<>(expandedTerms));
         searchQuery.setPhrases(phrases);
-        searchQuery.setOriginalQuery(query);
         
         return searchQuery;
     }
     
     /**
-     * Find documents that contain at least some query terms
+     * Cursors over the postings of all query terms. Synonym expansions are weighted with their discount,
+     * which lowers their upper bounds so WAND skips them when they cannot reach the top results. Fuzzy
+     * matches of a typed term (typo tolerance) get a reduced weight, so they find documents for misspelled
+     * queries without outranking exact matches. The fuzzy scan over the vocabulary is skipped for
+     * expansions and once the deadline expired.
      */
-    private Set<String> findCandidateDocuments(SearchQuery query) {
-        Set<String> candidates = new HashSet<>();
+    private List<PostingCursor> createCursors(CompiledIndex index, SearchQuery query, Deadline deadline) {
+        List<PostingCursor> cursors = new ArrayList<>();
+        Set<String> fuzzyTerms = new HashSet<>();
         
-        // Find documents matching terms
         for (String term : query.getTerms()) {
-            Map<String, Integer> termDocs = termFrequencies.get(term);
-            if (termDocs != null) {
-                candidates.addAll(termDocs.keySet());
+            PostingList postings = index.terms().get(term);
+            if (postings != null) {
+                cursors.add(new PostingCursor(postings, query.getWeight(term)));
             }
             
             // Also try fuzzy matching for typo tolerance
-            for (String indexedTerm : termFrequencies.keySet()) {
-                double similarity = TextProcessor.fuzzyMatchScore(term, indexedTerm);
-                if (similarity > 0.8) { // 80% similarity threshold
-                    Map<String, Integer> fuzzyDocs = termFrequencies.get(indexedTerm);
-                    if (fuzzyDocs != null) {
-                        candidates.addAll(fuzzyDocs.keySet());
-                    }
+            if (query.isExpansion(term) || deadline.expired()) {
+                continue;
+            }
+            // The vocabulary scan is the expensive part, keep the fuzzy terms found when time runs out
+            int scanned = 0;
+            for (String indexedTerm : index.terms().keySet()) {
+                if ((++scanned & (FUZZY_DEADLINE_CHECK_INTERVAL - 1)) == 0 && deadline.expired()) {
+                    break;
+                }
+                if (!indexedTerm.equals(term) && TextProcessor.fuzzyMatchScore(term, indexedTerm) > 0.8) { // 80% similarity threshold
+                    fuzzyTerms.add(indexedTerm);
                 }
             }
         }
         
-        // Find documents matching phrases
+        fuzzyTerms.removeAll(query.getTerms());
+        for (String fuzzyTerm : fuzzyTerms) {
+            cursors.add(new PostingCursor(index.terms().get(fuzzyTerm), FUZZY_TERM_WEIGHT));
+        }
+        return cursors;
+    }
+    
+    /**
+     * Documents containing all indexed query phrases, or null if no query phrase is indexed
+     */
+    private BitSet phraseFilter(CompiledIndex index, SearchQuery query) {
+        BitSet filter = null;
         for (String phrase : query.getPhrases()) {
-            Set<String> phraseDocs = phraseIndex.get(phrase);
+            BitSet phraseDocs = index.phrases().get(phrase);
             if (phraseDocs != null) {
-                if (candidates.isEmpty()) {
-                    candidates.addAll(phraseDocs);
+                if (filter == null) {
+                    filter = (BitSet) phraseDocs.clone();
                 } else {
-                    candidates.retainAll(phraseDocs); // AND operation for phrases
+                    filter.and(phraseDocs); // AND operation for phrases
                 }
             }
         }
-        
-        return candidates;
+        return filter;
     }
     
     /**
-     * Calculate TF-IDF based score for a document
+     * BM25F contribution of a term to a document: the weighted, length normalized frequencies of all
+     * fields are summed before the saturation is applied once
      */
-    private double calculateScore(IndexedDocument doc, SearchQuery query) {
-        double score = 0.0;
-        
-        // TF-IDF scoring for terms
-        for (String term : query.getTerms()) {
-            double termScore = calculateTermScore(doc, term);
-            score += termScore;
-        }
-        
-        // Boost for phrase matches
-        for (String phrase : query.getPhrases()) {
-            if (doc.getPhrases().contains(phrase)) {
-                score += 50.0; // Significant boost for exact phrase matches
+    private static float termImpact(PostingsBuilder builder, int posting, float[][] normalizations, double idf) {
+        int document = builder.documents[posting];
+        float frequency = 0f;
+        for (int field = 0; field < FIELDS.length; field++) {
+            int fieldFrequency = builder.frequencies[posting * FIELDS.length + field];
+            if (fieldFrequency > 0) {
+                frequency += fieldFrequency * normalizations[field][document];
             }
         }
-        
-        // Title match boost
-        String lowerTitle = doc.getSection().getTitle().toLowerCase();
-        String lowerQuery = query.getOriginalQuery().toLowerCase();
-        if (lowerTitle.contains(lowerQuery)) {
-            score += 30.0;
-        }
-        
-        // Section level boost (higher-level sections are more important)
-        score += (7 - doc.getSection().getLevel()) * 2.0;
-        
-        // Content length normalization (prefer focused content)
-        int contentLength = doc.getSection().getContent().length();
-        if (contentLength > 0 && contentLength < 1000) {
-            score += 10.0; // Boost for concise sections
-        }
-        
-        return score;
+        return (float) (idf * frequency * (K1 + 1) / (frequency + K1));
     }
     
     /**
-     * Calculate TF-IDF score for a specific term in a document
+     * Query dependent boosts, only computed for documents that are fully scored
      */
-    private double calculateTermScore(IndexedDocument doc, String term) {
-        Map<String, Integer> termDocs = termFrequencies.get(term);
-        if (termDocs == null || !termDocs.containsKey(doc.getId())) {
-            return 0.0;
+    private float queryBoost(int document, SearchQuery query) {
+        if (query.getPhrases().isEmpty()) {
+            return 0f;
         }
+        IndexedDocument doc = documents.get(document);
+        float boost = 0f;
         
-        // Term Frequency
-        int termFreq = termDocs.get(doc.getId());
-        int docWordCount = documentWordCounts.getOrDefault(doc.getId(), 1);
-        double tf = (double) termFreq / docWordCount;
-        
-        // Inverse Document Frequency
-        int docsWithTerm = termDocs.size();
-        double idf = Math.log((double) totalDocuments / docsWithTerm);
-        
-        // TF-IDF score
-        double tfidfScore = tf * idf;
-        
-        // Boost if term appears in title
-        if (doc.getTitleTokens().contains(term)) {
-            tfidfScore *= 3.0;
+        // Boost for phrase matches
+        for (String phrase : query.getPhrases()) {
+            if (doc.getPhrases().contains(phrase)) {
+                boost += PHRASE_BOOST; // Significant boost for exact phrase matches
+            }
         }
-        
-        return tfidfScore * 100.0; // Scale up for easier comparison
+        return boost;
     }
     
     /**
      * Find which terms from the query matched in the document
      */
-    private Set<String> findMatchedTerms(IndexedDocument doc, SearchQuery query) {
+    private static Set<String> findMatchedTerms(IndexedDocument doc, SearchQuery query) {
         Set<String> matched = new HashSet<>();
         
         for (String term : query.getTerms()) {
@@ -336,34 +658,194 @@ public class InvertedIndex {
         return matched;
     }
     
+    /**
+     * Score every candidate instead of pruning; used as reference when measuring the evaluator
+     */
+    void setDynamicPruning(boolean dynamicPruning) {
+        this.dynamicPruning = dynamicPruning;
+    }
+    
+    /**
+     * Total number of documents fully scored by searches so far
+     */
+    long getScoredDocuments() {
+        return scoredDocuments.sum();
+    }
+    
+    /**
+     * Visitor over the raw term statistics of the index
+     */
+    @FunctionalInterface
+    public interface PostingVisitor {
+        void visit(String term, int document, int termFrequency);
+    }
+    
+    /**
+     * Visit every (term, document ordinal, frequency) posting of the index
+     */
+    public synchronized void forEachPosting(PostingVisitor visitor) {
+        for (Map.Entry<String, PostingsBuilder> entry : termPostings.entrySet()) {
+            PostingsBuilder builder = entry.getValue();
+            for (int i = 0; i < builder.size; i++) {
+                visitor.visit(entry.getKey(), builder.documents[i], builder.frequency(i));
+            }
+        }
+    }
+    
+    /**
+     * Number of documents containing the term
+     */
+    public synchronized int getDocumentFrequency(String term) {
+        PostingsBuilder builder = termPostings.get(term);
+        return builder != null ? builder.size : 0;
+    }
+    
+    /**
+     * Terms with the highest document frequency, most frequent first
+     */
+    public synchronized List<String> mostFrequentTerms(int count) {
+        return termPostings.entrySet().stream()
+            .sorted(Comparator.<Map.Entry<String, PostingsBuilder>>comparingInt(entry -> -entry.getValue().size)
+                .thenComparing(Map.Entry::getKey))
+            .limit(count)
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+    
+    /**
+     * Visit every indexed term with its document frequency
+     */
+    synchronized void forEachDocumentFrequency(ObjIntConsumer<String> visitor) {
+        termPostings.forEach((term, builder) -> visitor.accept(term, builder.size));
+    }
+    
+    /**
+     * Indexed phrases
+     */
+    synchronized Set<String> getIndexedPhrases() {
+        return new HashSet<>(phrasePostings.keySet());
+    }
+    
+    /**
+     * Indexed documents by ordinal
+     */
+    public synchronized List<IndexedDocument> getDocuments() {
+        return List.copyOf(documents);
+    }
+    
+    /**
+     * Release the lazily built per-document data of all documents
+     */
+    public synchronized void releaseDerivedData() {
+        documents.forEach(IndexedDocument::releaseDerivedData);
+    }
+    
+    public synchronized int getTotalDocuments() {
+        return documents.size();
+    }
+    
     /**
      * Get statistics about the index
      */
-    public Map<String, Object> getStatistics() {
+    public synchronized Map<String, Object> getStatistics() {
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalDocuments", totalDocuments);
-        stats.put("totalTerms", termFrequencies.size());
-        stats.put("totalPhrases", phraseIndex.size());
-        stats.put("averageDocumentLength", documentWordCounts.values().stream()
-                .mapToInt(Integer::intValue)
-                .average()
-                .orElse(0.0));
+        stats.put("totalDocuments", documents.size());
+        stats.put("totalTerms", termPostings.size());
+        stats.put("totalPhrases", phrasePostings.size());
+        long totalLength = Arrays.stream(fieldLengthTotals()).sum();
+        stats.put("averageDocumentLength", documents.isEmpty() ? 0.0 : (double) totalLength / documents.size());
+        stats.put("scoredDocuments", scoredDocuments.sum());
         return stats;
     }
     
+    /**
+     * Immutable search time view of the index
+     */
+    private record CompiledIndex(Map<String, PostingList> terms, Map<String, BitSet> phrases, int documentCount,
+                                 Map<BooleanQuery.Field, Map<String, int[]>> fields, float[] staticBoosts,
+                                 float maxStaticBoost) {
+        
+        int[] documents(BooleanQuery.Field field, String term) {
+            if (field == BooleanQuery.Field.ANY) {
+                PostingList postings = terms.get(term);
+                return postings != null ? postings.documents() : NO_DOCUMENTS;
+            }
+            return fields.getOrDefault(field, Map.of()).getOrDefault(term, NO_DOCUMENTS);
+        }
+    }
+    
+    /**
+     * Growable postings of one term or phrase in ascending document order, with the term frequency of
+     * every field per posting
+     */
+    private static final class PostingsBuilder {
+        private int[] documents = new int[4];
+        private int[] frequencies = new int[4 * FIELDS.length];
+        private int size;
+        
+        void add(int document, int[] fieldFrequencies) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2 * FIELDS.length);
+            }
+            documents[size] = document;
+            System.arraycopy(fieldFrequencies, 0, frequencies, size * FIELDS.length, FIELDS.length);
+            size++;
+        }
+        
+        void addDistinct(int document) {
+            if (size == 0 || documents[size - 1] != document) {
+                add(document, new int[FIELDS.length]);
+            }
+        }
+        
+        int frequency(int posting) {
+            int frequency = 0;
+            for (int field = 0; field < FIELDS.length; field++) {
+                frequency += frequencies[posting * FIELDS.length + field];
+            }
+            return frequency;
+        }
+        
+        /**
+         * Documents in which the term occurs in the field
+         */
+        int[] documentsIn(int field) {
+            int[] result = new int[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (frequencies[i * FIELDS.length + field] > 0) {
+                    result[count++] = documents[i];
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+    }
+    
     /**
      * Query representation
      */
-    private static class SearchQuery {
+    static class SearchQuery {
         private List<String> terms = new ArrayList<>();
         private List<String> phrases = new ArrayList<>();
         private String originalQuery;
+        private BooleanQuery.Node structured;
+        // Synonym expansion -> score discount; terms typed by the user are not listed and weigh 1
+        private final Map<String, Float> expansionWeights = new HashMap<>();
         
         public List<String> getTerms() { return terms; }
         public void setTerms(List<String> terms) { this.terms = terms; }
         public List<String> getPhrases() { return phrases; }
         public void setPhrases(List<String> phrases) { this.phrases = phrases; }
         public String getOriginalQuery() { return originalQuery; }
+        public BooleanQuery.Node getStructured() { return structured; }
+        public void setStructured(BooleanQuery.Node structured) { this.structured = structured; }
         public void setOriginalQuery(String originalQuery) { this.originalQuery = originalQuery; }
+        public float getWeight(String term) { return expansionWeights.getOrDefault(term, 1.0f); }
+        public boolean isExpansion(String term) { return expansionWeights.containsKey(term); }
+        
+        void addExpansion(String term, float weight) {
+            expansionWeights.merge(term, weight, Math::max);
+        }
     }
-}
\ No newline at end of file
+}
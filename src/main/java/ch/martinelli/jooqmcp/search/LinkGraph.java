@@ -0,0 +1,178 @@
+package ch.martinelli.jooqmcp.search;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Cross-reference graph between sections, built from the manual's internal anchors. Outbound and
+ * inbound links are kept as sorted section ordinals in flat offset arrays, so both directions of a
+ * section are read in O(degree). A PageRank computed once at build time gives every section a static
+ * score: sections many others refer to are the manual's central pages.
+ */
+public class LinkGraph {
+
+    static final double DAMPING = 0.85;
+    static final int MAX_ITERATIONS = 50;
+    static final double TOLERANCE = 1e-9;
+
+    // Links of section i are at offsets[i] until offsets[i + 1]
+    private final int[] outOffsets;
+    private final int[] outTargets;
+    private final int[] inOffsets;
+    private final int[] inSources;
+    private final double[] pageRank;
+    private final float[] staticScores;
+
+    /**
+     * @param outbound link targets per section ordinal; duplicates and self references are ignored
+     */
+    public LinkGraph(int[][] outbound) {
+        int size = outbound.length;
+        this.outOffsets = new int[size + 1];
+        int[][] distinct = new int[size][];
+        for (int section = 0; section < size; section++) {
+            int source = section;
+            distinct[section] = Arrays.stream(outbound[section])
+                .filter(target -> target != source && target >= 0 && target < size)
+                .distinct()
+                .sorted()
+                .toArray();
+            outOffsets[section + 1] = outOffsets[section] + distinct[section].length;
+        }
+        this.outTargets = new int[outOffsets[size]];
+        int[] inDegrees = new int[size];
+        for (int section = 0; section < size; section++) {
+            System.arraycopy(distinct[section], 0, outTargets, outOffsets[section], distinct[section].length);
+            for (int target : distinct[section]) {
+                inDegrees[target]++;
+            }
+        }
+
+        // Sources are visited in ascending order, so inbound lists come out sorted
+        this.inOffsets = new int[size + 1];
+        for (int section = 0; section < size; section++) {
+            inOffsets[section + 1] = inOffsets[section] + inDegrees[section];
+        }
+        this.inSources = new int[outTargets.length];
+        int[] fill = Arrays.copyOf(inOffsets, size);
+        for (int section = 0; section < size; section++) {
+            for (int edge = outOffsets[section]; edge < outOffsets[section + 1]; edge++) {
+                inSources[fill[outTargets[edge]]++] = section;
+            }
+        }
+
+        this.pageRank = computePageRank();
+        this.staticScores = normalize(pageRank);
+    }
+
+    /**
+     * Power iteration over the inbound lists; the rank of sections without outbound links is spread
+     * evenly over all sections
+     */
+    private double[] computePageRank() {
+        int size = size();
+        double[] rank = new double[size];
+        if (size == 0) {
+            return rank;
+        }
+        Arrays.fill(rank, 1.0 / size);
+        double[] next = new double[size];
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            double dangling = 0;
+            for (int section = 0; section < size; section++) {
+                if (outDegree(section) == 0) {
+                    dangling += rank[section];
+                }
+            }
+            double base = (1 - DAMPING) / size + DAMPING * dangling / size;
+            double delta = 0;
+            for (int section = 0; section < size; section++) {
+                double sum = 0;
+                for (int edge = inOffsets[section]; edge < inOffsets[section + 1]; edge++) {
+                    int source = inSources[edge];
+                    sum += rank[source] / outDegree(source);
+                }
+                next[section] = base + DAMPING * sum;
+                delta += Math.abs(next[section] - rank[section]);
+            }
+            double[] swap = rank;
+            rank = next;
+            next = swap;
+            if (delta < TOLERANCE) {
+                break;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Ranks scaled logarithmically to [0, 1], so a handful of hub sections does not flatten the rest
+     */
+    private static float[] normalize(double[] rank) {
+        float[] scores = new float[rank.length];
+        double min = Arrays.stream(rank).min().orElse(0);
+        double max = Arrays.stream(rank).max().orElse(0);
+        if (min <= 0 || max <= min) {
+            return scores;
+        }
+        double range = Math.log(max / min);
+        for (int section = 0; section < rank.length; section++) {
+            scores[section] = (float) (Math.log(rank[section] / min) / range);
+        }
+        return scores;
+    }
+
+    /**
+     * Sections this section refers to, in ordinal order
+     */
+    public int[] outbound(int section) {
+        return Arrays.copyOfRange(outTargets, outOffsets[section], outOffsets[section + 1]);
+    }
+
+    /**
+     * Sections referring to this section, in ordinal order
+     */
+    public int[] inbound(int section) {
+        return Arrays.copyOfRange(inSources, inOffsets[section], inOffsets[section + 1]);
+    }
+
+    public int outDegree(int section) {
+        return outOffsets[section + 1] - outOffsets[section];
+    }
+
+    public int inDegree(int section) {
+        return inOffsets[section + 1] - inOffsets[section];
+    }
+
+    /**
+     * PageRank of a section; the ranks of all sections sum to 1
+     */
+    public double pageRank(int section) {
+        return pageRank[section];
+    }
+
+    /**
+     * PageRank scaled to [0, 1], 0 for the least and 1 for the most referenced section
+     */
+    public float staticScore(int section) {
+        return staticScores[section];
+    }
+
+    /**
+     * Section ordinals by descending PageRank, ties in document order
+     */
+    public int[] impactOrder() {
+        return IntStream.range(0, size()).boxed()
+            .sorted(Comparator.<Integer>comparingDouble(section -> -pageRank[section]).thenComparingInt(section -> section))
+            .mapToInt(Integer::intValue)
+            .toArray();
+    }
+
+    public int size() {
+        return outOffsets.length - 1;
+    }
+
+    public int getEdgeCount() {
+        return outTargets.length;
+    }
+}
@@ -0,0 +1,432 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.search.InvertedIndex.IndexedDocument;
+import ch.martinelli.jooqmcp.search.InvertedIndex.PostingVisitor;
+import ch.martinelli.jooqmcp.search.InvertedIndex.ScoredDocument;
+import ch.martinelli.jooqmcp.search.InvertedIndex.SearchMatch;
+import ch.martinelli.jooqmcp.search.InvertedIndex.SearchQuery;
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.CodeExample;
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
+import ch.martinelli.jooqmcp.util.SynonymGraph;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.FeatureField;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.*;
+import org.apache.lucene.search.*;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.BytesRef;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Search engine backed by a Lucene index in an {@link MMapDirectory}, selected with
+ * {@code jooq.documentation.search.engine=lucene}. Fields are analyzed with the same tokenizer and
+ * stemmer as the built-in index and queried with the same field weights, synonym expansions, phrase and
+ * static rank boosts, scored by Lucene's BM25F. A catch-all field holds the term statistics the semantic
+ * index and the head term cache are built from. The index is rewritten on every build. Without an
+ * explicit directory every instance writes to a temporary directory of its own, deleted on close, so
+ * several processes on one host never share an index.
+ */
+public class LuceneSearchEngine implements SearchEngine {
+
+    private static final String ALL_FIELD = "all";
+    private static final String ORDINAL_FIELD = "ordinal";
+    private static final String FEATURES_FIELD = "features";
+    private static final String LINK_RANK_FEATURE = "link-rank";
+    private static final Map<BooleanQuery.Field, String> FIELD_NAMES = Map.of(
+        BooleanQuery.Field.ANY, ALL_FIELD,
+        BooleanQuery.Field.TITLE, "title",
+        BooleanQuery.Field.BREADCRUMB, "breadcrumb",
+        BooleanQuery.Field.CONTENT, "content",
+        BooleanQuery.Field.CODE, "code");
+    // BM25F field weights relative to the lightest field, since Lucene needs weights of at least 1
+    private static final float[] COMBINED_FIELD_WEIGHTS = combinedFieldWeights();
+    // Typed terms shorter than this are not expanded with fuzzy variants
+    private static final int MIN_FUZZY_LENGTH = 5;
+
+    private final Path path;
+    private final boolean temporary;
+    private final SynonymGraph synonyms;
+    private final MMapDirectory directory;
+    private final List<IndexedDocument> documents = new ArrayList<>();
+    private final List<Float> staticScores = new ArrayList<>();
+    private volatile Index index;
+    // Reader of the last build, also after documents were added since
+    private DirectoryReader reader;
+
+    /**
+     * Reader over the built index with the document ordinal of every Lucene document id
+     */
+    private record Index(DirectoryReader reader, int[] ordinals) {}
+
+    public LuceneSearchEngine(Path path) {
+        this(path, SynonymGraph.defaultGraph());
+    }
+
+    /**
+     * Index in the given directory, which is left in place on close
+     */
+    public LuceneSearchEngine(Path path, SynonymGraph synonyms) {
+        this(path, false, synonyms);
+    }
+
+    /**
+     * Index in a new temporary directory, deleted on close
+     */
+    public LuceneSearchEngine(SynonymGraph synonyms) {
+        this(createTemporaryDirectory(), true, synonyms);
+    }
+
+    private LuceneSearchEngine(Path path, boolean temporary, SynonymGraph synonyms) {
+        this.path = path;
+        this.temporary = temporary;
+        this.synonyms = synonyms;
+        try {
+            Files.createDirectories(path);
+            this.directory = new MMapDirectory(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open Lucene index directory " + path, e);
+        }
+    }
+
+    private static Path createTemporaryDirectory() {
+        try {
+            return Files.createTempDirectory("jooq-mcp-lucene");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create a Lucene index directory", e);
+        }
+    }
+
+    public synchronized void addDocument(DocumentationSection section, float staticScore) {
+        int ordinal = documents.size();
+        String docId = section.getId() != null && !section.getId().isEmpty() ? section.getId() : "doc_" + ordinal;
+        documents.add(new IndexedDocument(docId, section, InvertedIndex.computeSimHash(section)));
+        staticScores.add(staticScore);
+        index = null;
+    }
+
+    /**
+     * Write all documents into a fresh index, merged into a single segment, and open a reader on it
+     */
+    public synchronized void build() {
+        if (index != null) {
+            return;
+        }
+        IndexWriterConfig config = new IndexWriterConfig(new StandardAnalyzer())
+            .setOpenMode(IndexWriterConfig.OpenMode.CREATE);
+        try (IndexWriter writer = new IndexWriter(directory, config)) {
+            for (int ordinal = 0; ordinal < documents.size(); ordinal++) {
+                writer.addDocument(toLuceneDocument(documents.get(ordinal).getSection(), ordinal, staticScores.get(ordinal)));
+            }
+            writer.forceMerge(1);
+            writer.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write Lucene index", e);
+        }
+        try {
+            if (reader != null) {
+                reader.close();
+            }
+            reader = DirectoryReader.open(directory);
+            int[] ordinals = new int[reader.maxDoc()];
+            for (LeafReaderContext leaf : reader.leaves()) {
+                NumericDocValues values = leaf.reader().getNumericDocValues(ORDINAL_FIELD);
+                for (int doc = values.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = values.nextDoc()) {
+                    ordinals[leaf.docBase + doc] = (int) values.longValue();
+                }
+            }
+            index = new Index(reader, ordinals);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open Lucene index", e);
+        }
+    }
+
+    private static Document toLuceneDocument(DocumentationSection section, int ordinal, float staticScore) {
+        StringBuilder code = new StringBuilder();
+        for (CodeExample example : section.getCodeExamples()) {
+            code.append(example.getCode()).append('\n');
+        }
+        String[] fieldTexts = {section.getTitle(), section.getBreadcrumb(), section.getContent(), code.toString()};
+
+        Document document = new Document();
+        StringJoiner all = new StringJoiner(" ");
+        for (int field = 0; field < InvertedIndex.FIELDS.length; field++) {
+            // Index the stems, so Lucene's analyzer only splits on the spaces between them
+            String tokens = String.join(" ", InvertedIndex.fieldTokens(fieldTexts[field]));
+            document.add(new TextField(FIELD_NAMES.get(InvertedIndex.FIELDS[field]), tokens, Field.Store.NO));
+            all.add(tokens);
+        }
+        document.add(new TextField(ALL_FIELD, all.toString(), Field.Store.NO));
+        document.add(new NumericDocValuesField(ORDINAL_FIELD, ordinal));
+        if (staticScore > 0) {
+            document.add(new FeatureField(FEATURES_FIELD, LINK_RANK_FEATURE, staticScore));
+        }
+        return document;
+    }
+
+    private static float[] combinedFieldWeights() {
+        float lightest = Float.MAX_VALUE;
+        for (float weight : InvertedIndex.FIELD_WEIGHTS) {
+            lightest = Math.min(lightest, weight);
+        }
+        float[] weights = new float[InvertedIndex.FIELD_WEIGHTS.length];
+        for (int field = 0; field < weights.length; field++) {
+            weights[field] = InvertedIndex.FIELD_WEIGHTS[field] / lightest;
+        }
+        return weights;
+    }
+
+    private Index index() {
+        Index current = index;
+        if (current == null) {
+            build();
+            current = index;
+        }
+        return current;
+    }
+
+    public List<SearchMatch> search(String query, int maxResults, Deadline deadline) {
+        if (query == null || query.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        Index current = index();
+        SearchQuery parsedQuery = InvertedIndex.parseQuery(query, synonyms);
+        Query luceneQuery = toLuceneQuery(parsedQuery);
+        if (luceneQuery == null) {
+            return Collections.emptyList();
+        }
+
+        // A searcher per query, since the timeout is searcher state
+        IndexSearcher searcher = new IndexSearcher(current.reader());
+        searcher.setTimeout(deadline::expired);
+        TopDocs topDocs;
+        try {
+            topDocs = searcher.search(luceneQuery, maxResults * InvertedIndex.DUPLICATE_SLACK);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Searching the Lucene index failed", e);
+        }
+
+        List<ScoredDocument> ranked = new ArrayList<>(topDocs.scoreDocs.length);
+        for (ScoreDoc hit : topDocs.scoreDocs) {
+            int ordinal = current.ordinals()[hit.doc];
+            ranked.add(new ScoredDocument(ordinal, documents.get(ordinal), hit.score));
+        }
+        // Same tie order as the built-in index: score, then document order
+        ranked.sort(Comparator.comparingDouble(ScoredDocument::score).reversed()
+            .thenComparingInt(ScoredDocument::ordinal));
+        return InvertedIndex.collectDistinct(ranked, parsedQuery, maxResults);
+    }
+
+    /**
+     * Lucene query for a parsed query, or null if it has nothing to match
+     */
+    private static Query toLuceneQuery(SearchQuery parsedQuery) {
+        org.apache.lucene.search.BooleanQuery.Builder query = new org.apache.lucene.search.BooleanQuery.Builder();
+        Query terms = termsQuery(parsedQuery);
+        if (parsedQuery.getStructured() != null) {
+            // The boolean query decides what matches, its positive terms how it is scored
+            query.add(toLuceneQuery(parsedQuery.getStructured()), Occur.FILTER);
+            if (terms != null) {
+                query.add(terms, Occur.SHOULD);
+            }
+        } else {
+            if (terms == null && parsedQuery.getPhrases().isEmpty()) {
+                return null;
+            }
+            if (terms != null) {
+                query.add(terms, Occur.MUST);
+            }
+            for (String phrase : parsedQuery.getPhrases()) {
+                List<String> tokens = InvertedIndex.fieldTokens(phrase);
+                if (!tokens.isEmpty()) {
+                    query.add(new BoostQuery(new PhraseQuery(ALL_FIELD, tokens.toArray(String[]::new)), InvertedIndex.PHRASE_BOOST),
+                        terms == null ? Occur.MUST : Occur.SHOULD);
+                }
+            }
+        }
+        query.add(FeatureField.newLinearQuery(FEATURES_FIELD, LINK_RANK_FEATURE, InvertedIndex.STATIC_RANK_WEIGHT), Occur.SHOULD);
+        return query.build();
+    }
+
+    /**
+     * Disjunction of every query term in every field, weighted by field and synonym discount, with
+     * fuzzy variants of the typed terms
+     */
+    private static Query termsQuery(SearchQuery parsedQuery) {
+        if (parsedQuery.getTerms().isEmpty()) {
+            return null;
+        }
+        org.apache.lucene.search.BooleanQuery.Builder disjunction = new org.apache.lucene.search.BooleanQuery.Builder();
+        for (String term : parsedQuery.getTerms()) {
+            float weight = parsedQuery.getWeight(term);
+            CombinedFieldQuery.Builder fields = new CombinedFieldQuery.Builder(term);
+            for (int field = 0; field < InvertedIndex.FIELDS.length; field++) {
+                fields.addField(FIELD_NAMES.get(InvertedIndex.FIELDS[field]), COMBINED_FIELD_WEIGHTS[field]);
+            }
+            disjunction.add(weight < 1f ? new BoostQuery(fields.build(), weight) : fields.build(), Occur.SHOULD);
+            if (parsedQuery.getStructured() == null && !parsedQuery.isExpansion(term) && term.length() >= MIN_FUZZY_LENGTH) {
+                disjunction.add(new BoostQuery(new FuzzyQuery(new Term(ALL_FIELD, term), 1), InvertedIndex.FUZZY_TERM_WEIGHT), Occur.SHOULD);
+            }
+        }
+        return disjunction.build();
+    }
+
+    /**
+     * Translate a boolean query node; negations match everything but their clause
+     */
+    private static Query toLuceneQuery(BooleanQuery.Node node) {
+        org.apache.lucene.search.BooleanQuery.Builder query = new org.apache.lucene.search.BooleanQuery.Builder();
+        switch (node) {
+            case BooleanQuery.Term term -> {
+                for (String token : term.tokens()) {
+                    query.add(new TermQuery(new Term(FIELD_NAMES.get(term.field()), token)), Occur.MUST);
+                }
+            }
+            case BooleanQuery.And and -> {
+                boolean positive = false;
+                for (BooleanQuery.Node clause : and.clauses()) {
+                    if (clause instanceof BooleanQuery.Not not) {
+                        query.add(toLuceneQuery(not.clause()), Occur.MUST_NOT);
+                    } else {
+                        query.add(toLuceneQuery(clause), Occur.MUST);
+                        positive = true;
+                    }
+                }
+                if (!positive) {
+                    query.add(new MatchAllDocsQuery(), Occur.MUST);
+                }
+            }
+            case BooleanQuery.Or or -> {
+                for (BooleanQuery.Node clause : or.clauses()) {
+                    query.add(toLuceneQuery(clause), Occur.SHOULD);
+                }
+                query.setMinimumNumberShouldMatch(1);
+            }
+            case BooleanQuery.Not not -> {
+                query.add(new MatchAllDocsQuery(), Occur.MUST);
+                query.add(toLuceneQuery(not.clause()), Occur.MUST_NOT);
+            }
+        }
+        return query.build();
+    }
+
+    public List<IndexedDocument> getDocuments() {
+        index();
+        return List.copyOf(documents);
+    }
+
+    public void forEachPosting(PostingVisitor visitor) {
+        Index current = index();
+        try {
+            Terms terms = MultiTerms.getTerms(current.reader(), ALL_FIELD);
+            if (terms == null) {
+                return;
+            }
+            TermsEnum termsEnum = terms.iterator();
+            PostingsEnum postings = null;
+            for (BytesRef term = termsEnum.next(); term != null; term = termsEnum.next()) {
+                String text = term.utf8ToString();
+                postings = termsEnum.postings(postings, PostingsEnum.FREQS);
+                for (int doc = postings.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = postings.nextDoc()) {
+                    visitor.visit(text, current.ordinals()[doc], postings.freq());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reading the Lucene index failed", e);
+        }
+    }
+
+    public int getDocumentFrequency(String term) {
+        try {
+            return index().reader().docFreq(new Term(ALL_FIELD, term));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reading the Lucene index failed", e);
+        }
+    }
+
+    public List<String> mostFrequentTerms(int count) {
+        Map<String, Integer> documentFrequencies = new HashMap<>();
+        forEachTerm((term, df) -> documentFrequencies.put(term, df));
+        return documentFrequencies.entrySet().stream()
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .limit(count)
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    private void forEachTerm(ObjIntConsumer<String> visitor) {
+        try {
+            Terms terms = MultiTerms.getTerms(index().reader(), ALL_FIELD);
+            if (terms == null) {
+                return;
+            }
+            TermsEnum termsEnum = terms.iterator();
+            for (BytesRef term = termsEnum.next(); term != null; term = termsEnum.next()) {
+                visitor.accept(term.utf8ToString(), termsEnum.docFreq());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reading the Lucene index failed", e);
+        }
+    }
+
+    public synchronized int getTotalDocuments() {
+        return documents.size();
+    }
+
+    public Map<String, Object> getStatistics() {
+        int[] termCount = new int[1];
+        forEachTerm((term, df) -> termCount[0]++);
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("engine", "lucene");
+        stats.put("directory", path.toString());
+        stats.put("totalDocuments", getTotalDocuments());
+        stats.put("totalTerms", termCount[0]);
+        try {
+            long bytes = 0;
+            for (String file : directory.listAll()) {
+                bytes += directory.fileLength(file);
+            }
+            stats.put("indexBytes", bytes);
+        } catch (IOException e) {
+            stats.put("indexBytes", -1L);
+        }
+        return stats;
+    }
+
+    public synchronized void releaseDerivedData() {
+        documents.forEach(IndexedDocument::releaseDerivedData);
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            if (reader != null) {
+                reader.close();
+            }
+            directory.close();
+            if (temporary) {
+                try (Stream<Path> files = Files.walk(path)) {
+                    for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close Lucene index", e);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+}
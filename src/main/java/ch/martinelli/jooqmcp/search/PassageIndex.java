@@ -0,0 +1,148 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
+import ch.martinelli.jooqmcp.util.SynonymGraph;
+
+import java.util.*;
+
+/**
+ * Passage level retrieval units. Every section's content is split into overlapping passages of a few
+ * hundred characters, cut at sentence or word boundaries, and each passage is indexed as a document of
+ * its own under the title and breadcrumb of its section. A search then finds the useful paragraph
+ * instead of the section that contains it somewhere.
+ */
+public class PassageIndex {
+
+    static final int MIN_LENGTH = 300;
+    static final int TARGET_LENGTH = 400;
+    static final int MAX_LENGTH = 500;
+    static final int OVERLAP = 100;
+
+    /**
+     * A passage of the section with the given ordinal, starting at {@code start} in its content
+     */
+    public record Passage(int section, int start, String text, boolean last) {
+
+        public int end() {
+            return start + text.length();
+        }
+    }
+
+    /**
+     * A passage with its score for a query and the query terms it matched
+     */
+    public record ScoredPassage(Passage passage, double score, Set<String> matchedTerms) {}
+
+    private final InvertedIndex index;
+    private final Map<DocumentationSection, Passage> passages = new IdentityHashMap<>();
+    private final List<List<Passage>> passagesBySection;
+
+    public PassageIndex(List<DocumentationSection> sections) {
+        this(sections, SynonymGraph.defaultGraph());
+    }
+
+    public PassageIndex(List<DocumentationSection> sections, SynonymGraph synonyms) {
+        this.index = new InvertedIndex(synonyms);
+        this.passagesBySection = new ArrayList<>(sections.size());
+        for (int ordinal = 0; ordinal < sections.size(); ordinal++) {
+            DocumentationSection section = sections.get(ordinal);
+            List<Passage> split = split(ordinal, section.getContent());
+            for (int i = 0; i < split.size(); i++) {
+                Passage passage = split.get(i);
+                String id = (section.getId() != null && !section.getId().isEmpty() ? section.getId() : "section_" + ordinal) + "#" + i;
+                DocumentationSection unit = new DocumentationSection(id, section.getTitle(), passage.text(),
+                    section.getLevel(), section.getBreadcrumb());
+                passages.put(unit, passage);
+                index.addDocument(unit);
+            }
+            passagesBySection.add(split);
+        }
+        index.build();
+    }
+
+    /**
+     * Split content into passages of about {@link #TARGET_LENGTH} characters that overlap by about
+     * {@link #OVERLAP} characters, preferring to end after a sentence and to start at a word
+     */
+    static List<Passage> split(int section, String content) {
+        List<Passage> result = new ArrayList<>();
+        int length = content.length();
+        int start = skipWhitespace(content, 0);
+        while (start < length) {
+            int end = length - start <= MAX_LENGTH ? length : boundary(content, start);
+            String text = content.substring(start, end).stripTrailing();
+            if (!text.isEmpty()) {
+                result.add(new Passage(section, start, text, end == length));
+            }
+            if (end == length) {
+                break;
+            }
+            // Step back by the overlap, then forward to the next word
+            int next = end - OVERLAP;
+            while (next < end && !Character.isWhitespace(content.charAt(next - 1))) {
+                next++;
+            }
+            start = skipWhitespace(content, next > start ? next : end);
+        }
+        return result;
+    }
+
+    /**
+     * End of a passage starting at {@code start}: the last sentence end between the minimum and maximum
+     * length, else the last whitespace before the maximum length
+     */
+    private static int boundary(String content, int start) {
+        int max = start + MAX_LENGTH;
+        int min = start + MIN_LENGTH;
+        for (int i = max; i > min; i--) {
+            char previous = content.charAt(i - 1);
+            if ((previous == '.' || previous == '!' || previous == '?' || previous == '\n')
+                && Character.isWhitespace(content.charAt(i))) {
+                return i;
+            }
+        }
+        for (int i = start + TARGET_LENGTH; i > min; i--) {
+            if (Character.isWhitespace(content.charAt(i))) {
+                return i;
+            }
+        }
+        return start + TARGET_LENGTH;
+    }
+
+    private static int skipWhitespace(String content, int position) {
+        while (position < content.length() && Character.isWhitespace(content.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Best scoring passages across all sections
+     */
+    public List<ScoredPassage> search(String query, int maxResults, Deadline deadline) {
+        List<ScoredPassage> result = new ArrayList<>();
+        for (InvertedIndex.SearchMatch match : index.search(query, maxResults, deadline)) {
+            result.add(new ScoredPassage(passages.get(match.getDocument().getSection()), match.getScore(),
+                match.getMatchedTerms()));
+        }
+        return result;
+    }
+
+    /**
+     * Passages of one section in content order
+     */
+    public List<Passage> passagesOf(int section) {
+        return passagesBySection.get(section);
+    }
+
+    public int getPassageCount() {
+        return passages.size();
+    }
+
+    /**
+     * Release the lazily built per-passage data
+     */
+    public void releaseDerivedData() {
+        index.releaseDerivedData();
+    }
+}
@@ -0,0 +1,62 @@
+package ch.martinelli.jooqmcp.search;
+
+/**
+ * Iterator over a posting list used during query evaluation. The query weight scales the impacts,
+ * so {@link #upperBound()} is the most this cursor can add to any document's score, and
+ * {@link #blockUpperBound()} the most it can add to documents up to {@link #blockLastDocument()}.
+ */
+final class PostingCursor {
+
+    static final int NO_MORE_DOCS = Integer.MAX_VALUE;
+
+    private final PostingList postings;
+    private final float weight;
+    private int position;
+    private int block;
+
+    PostingCursor(PostingList postings, float weight) {
+        this.postings = postings;
+        this.weight = weight;
+    }
+
+    int document() {
+        return position < postings.size() ? postings.document(position) : NO_MORE_DOCS;
+    }
+
+    float score() {
+        return weight * postings.impact(position);
+    }
+
+    float upperBound() {
+        return weight * postings.maxImpact();
+    }
+
+    /**
+     * Move the block pointer, without decoding postings, to the block that may contain the target
+     *
+     * @return false if no block is left
+     */
+    boolean shallowAdvance(int target) {
+        block = postings.advanceBlock(block, target);
+        return block < postings.blockCount();
+    }
+
+    int blockLastDocument() {
+        return postings.blockLastDocument(block);
+    }
+
+    float blockUpperBound() {
+        return weight * postings.blockMaxImpact(block);
+    }
+
+    void next() {
+        position++;
+    }
+
+    /**
+     * Move to the first document at or after the target
+     */
+    void advance(int target) {
+        position = postings.advance(position, target);
+    }
+}
@@ -0,0 +1,159 @@
+package ch.martinelli.jooqmcp.search;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable postings of one term: ascending document ordinals with the precomputed score
+ * contribution (impact) of the term in each document. Upper bounds of the impacts are kept for the
+ * whole list and per block of {@value #BLOCK_SIZE} postings, so the evaluator can skip blocks that
+ * cannot reach the top results.
+ */
+final class PostingList {
+
+    static final int BLOCK_SIZE = 16;
+
+    private final int[] documents;
+    private final float[] impacts;
+    private final float maxImpact;
+
+    // Per block: last document, maximum impact
+    private final int[] blockLastDocuments;
+    private final float[] blockMaxImpacts;
+
+    PostingList(int[] documents, float[] impacts) {
+        this.documents = documents;
+        this.impacts = impacts;
+        int blocks = (documents.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        this.blockLastDocuments = new int[blocks];
+        this.blockMaxImpacts = new float[blocks];
+        float listMaxImpact = 0f;
+        for (int i = 0; i < documents.length; i++) {
+            int block = i / BLOCK_SIZE;
+            blockLastDocuments[block] = documents[i];
+            blockMaxImpacts[block] = Math.max(blockMaxImpacts[block], impacts[i]);
+            listMaxImpact = Math.max(listMaxImpact, impacts[i]);
+        }
+        this.maxImpact = listMaxImpact;
+    }
+
+    int size() { return documents.length; }
+    int document(int index) { return documents[index]; }
+    float impact(int index) { return impacts[index]; }
+    float maxImpact() { return maxImpact; }
+    int[] documents() { return documents; }
+
+    int blockCount() { return blockLastDocuments.length; }
+    int blockLastDocument(int block) { return blockLastDocuments[block]; }
+    float blockMaxImpact(int block) { return blockMaxImpacts[block]; }
+
+    /**
+     * First block at or after {@code from} whose last document is at least {@code target}
+     */
+    int advanceBlock(int from, int target) {
+        int block = from;
+        while (block < blockLastDocuments.length && blockLastDocuments[block] < target) {
+            block++;
+        }
+        return block;
+    }
+
+    /**
+     * Smallest index at or after {@code from} whose document is at least {@code target}
+     */
+    int advance(int from, int target) {
+        return advance(documents, documents.length, from, target);
+    }
+
+    /**
+     * Smallest index at or after {@code from} whose document is at least {@code target}, found by
+     * galloping ahead in doubling steps and binary searching the last step
+     */
+    static int advance(int[] documents, int size, int from, int target) {
+        if (from >= size || documents[from] >= target) {
+            return from;
+        }
+        int step = 1;
+        int low = from;
+        int high = from + 1;
+        while (high < size && documents[high] < target) {
+            low = high;
+            step <<= 1;
+            high = from + step;
+        }
+        high = Math.min(high, size);
+        // documents[low] < target, documents[high] >= target or high == size
+        while (low + 1 < high) {
+            int mid = (low + high) >>> 1;
+            if (documents[mid] < target) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Documents in both sorted arrays; walks the shorter one and gallops through the longer one,
+     * so the cost depends on the smaller input
+     */
+    static int[] intersect(int[] a, int[] b) {
+        if (a.length > b.length) {
+            return intersect(b, a);
+        }
+        int[] result = new int[a.length];
+        int count = 0;
+        int position = 0;
+        for (int document : a) {
+            position = advance(b, b.length, position, document);
+            if (position == b.length) {
+                break;
+            }
+            if (b[position] == document) {
+                result[count++] = document;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Documents of {@code a} that are not in {@code b}
+     */
+    static int[] difference(int[] a, int[] b) {
+        int[] result = new int[a.length];
+        int count = 0;
+        int position = 0;
+        for (int document : a) {
+            position = advance(b, b.length, position, document);
+            if (position == b.length || b[position] != document) {
+                result[count++] = document;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Documents in any of the sorted arrays
+     */
+    static int[] union(List<int[]> lists) {
+        int total = 0;
+        for (int[] list : lists) {
+            total += list.length;
+        }
+        int[] merged = new int[total];
+        int offset = 0;
+        for (int[] list : lists) {
+            System.arraycopy(list, 0, merged, offset, list.length);
+            offset += list.length;
+        }
+        Arrays.sort(merged);
+        int count = 0;
+        for (int i = 0; i < merged.length; i++) {
+            if (count == 0 || merged[count - 1] != merged[i]) {
+                merged[count++] = merged[i];
+            }
+        }
+        return Arrays.copyOf(merged, count);
+    }
+}
@@ -0,0 +1,183 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
+import ch.martinelli.jooqmcp.util.TextProcessor;
+
+import java.util.*;
+
+/**
+ * Precomputed "related sections" lists. Every section gets a MinHash signature over its word shingles,
+ * signatures are bucketed with banded locality sensitive hashing, and the most similar candidates from
+ * shared buckets are stored per section ordinal. Lookups are plain array reads.
+ */
+public class RelatedSections {
+
+    private static final int SHINGLE_SIZE = 3;
+    private static final int SIGNATURE_SIZE = 64;
+    private static final int BANDS = 32;
+    private static final int ROWS_PER_BAND = SIGNATURE_SIZE / BANDS;
+    private static final int MAX_BUCKET_SIZE = 200;
+    private static final double MIN_SIMILARITY = 0.05;
+    private static final int DEFAULT_RELATED = 5;
+
+    private final int[][] related;
+    private final float[][] similarities;
+
+    /**
+     * A related section ordinal with its estimated Jaccard similarity
+     */
+    public record Related(int ordinal, double similarity) {}
+
+    public RelatedSections(List<DocumentationSection> sections) {
+        this(sections, DEFAULT_RELATED);
+    }
+
+    public RelatedSections(List<DocumentationSection> sections, int maxRelated) {
+        int size = sections.size();
+        int[] signatures = new int[size * SIGNATURE_SIZE];
+        long[] seeds = new long[SIGNATURE_SIZE];
+        Random random = new Random(17L);
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            seeds[i] = random.nextLong() | 1L;
+        }
+
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            computeSignature(shingles(sections.get(ordinal)), seeds, signatures, ordinal * SIGNATURE_SIZE);
+        }
+
+        // Band -> bucket -> section ordinals
+        Map<Long, List<Integer>> buckets = new HashMap<>();
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (isEmptySignature(signatures, ordinal)) {
+                continue;
+            }
+            for (int band = 0; band < BANDS; band++) {
+                buckets.computeIfAbsent(bandKey(signatures, ordinal, band), k -> new ArrayList<>()).add(ordinal);
+            }
+        }
+
+        this.related = new int[size][];
+        this.similarities = new float[size][];
+        List<Set<Integer>> candidateSets = collectCandidates(buckets, size);
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            List<Related> ranked = new ArrayList<>();
+            for (int candidate : candidateSets.get(ordinal)) {
+                double similarity = estimateSimilarity(signatures, ordinal, candidate);
+                if (similarity >= MIN_SIMILARITY) {
+                    ranked.add(new Related(candidate, similarity));
+                }
+            }
+            ranked.sort(Comparator.comparingDouble(Related::similarity).reversed()
+                .thenComparingInt(Related::ordinal));
+
+            int count = Math.min(maxRelated, ranked.size());
+            related[ordinal] = new int[count];
+            similarities[ordinal] = new float[count];
+            for (int i = 0; i < count; i++) {
+                related[ordinal][i] = ranked.get(i).ordinal();
+                similarities[ordinal][i] = (float) ranked.get(i).similarity();
+            }
+        }
+    }
+
+    /**
+     * Related sections of a section ordinal, most similar first
+     */
+    public List<Related> relatedTo(int ordinal) {
+        List<Related> result = new ArrayList<>(related[ordinal].length);
+        for (int i = 0; i < related[ordinal].length; i++) {
+            result.add(new Related(related[ordinal][i], similarities[ordinal][i]));
+        }
+        return result;
+    }
+
+    private static List<Set<Integer>> collectCandidates(Map<Long, List<Integer>> buckets, int size) {
+        List<Set<Integer>> candidates = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            candidates.add(new HashSet<>());
+        }
+        for (List<Integer> bucket : buckets.values()) {
+            // Huge buckets come from shared boilerplate and say nothing about relatedness
+            if (bucket.size() < 2 || bucket.size() > MAX_BUCKET_SIZE) {
+                continue;
+            }
+            for (int a : bucket) {
+                for (int b : bucket) {
+                    if (a != b) {
+                        candidates.get(a).add(b);
+                    }
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private static Set<Long> shingles(DocumentationSection section) {
+        List<String> tokens = TextProcessor.removeStopWords(
+            TextProcessor.tokenize(section.getTitle() + " " + section.getContent()));
+        Set<Long> shingles = new HashSet<>();
+        if (tokens.size() < SHINGLE_SIZE) {
+            for (String token : tokens) {
+                shingles.add(mix(token.hashCode()));
+            }
+            return shingles;
+        }
+        for (int i = 0; i + SHINGLE_SIZE <= tokens.size(); i++) {
+            long hash = 1125899906842597L;
+            for (int j = i; j < i + SHINGLE_SIZE; j++) {
+                hash = 31 * hash + tokens.get(j).hashCode();
+            }
+            shingles.add(mix(hash));
+        }
+        return shingles;
+    }
+
+    private static void computeSignature(Set<Long> shingles, long[] seeds, int[] signatures, int offset) {
+        Arrays.fill(signatures, offset, offset + SIGNATURE_SIZE, Integer.MAX_VALUE);
+        for (long shingle : shingles) {
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                int value = (int) (mix(shingle * seeds[i]) >>> 33);
+                if (value < signatures[offset + i]) {
+                    signatures[offset + i] = value;
+                }
+            }
+        }
+    }
+
+    private static boolean isEmptySignature(int[] signatures, int ordinal) {
+        return signatures[ordinal * SIGNATURE_SIZE] == Integer.MAX_VALUE;
+    }
+
+    private static long bandKey(int[] signatures, int ordinal, int band) {
+        long key = band;
+        int offset = ordinal * SIGNATURE_SIZE + band * ROWS_PER_BAND;
+        for (int i = 0; i < ROWS_PER_BAND; i++) {
+            key = key * 1_000_003L + signatures[offset + i];
+        }
+        return mix(key);
+    }
+
+    private static double estimateSimilarity(int[] signatures, int a, int b) {
+        int equal = 0;
+        int offsetA = a * SIGNATURE_SIZE;
+        int offsetB = b * SIGNATURE_SIZE;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            if (signatures[offsetA + i] == signatures[offsetB + i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIGNATURE_SIZE;
+    }
+
+    /**
+     * 64-bit finalizer from MurmurHash3
+     */
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,131 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.search.PassageIndex.Passage;
+import ch.martinelli.jooqmcp.search.PassageIndex.ScoredPassage;
+import ch.martinelli.jooqmcp.util.TextProcessor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Packs search responses from passages within a byte budget. Passages of all results are taken
+ * greedily by score while the rendered response still fits, so the budget goes to the best paragraphs
+ * wherever they are instead of to the start of every section. Overlapping passages of one section are
+ * merged into a single excerpt; results are listed by their best packed passage.
+ */
+public final class ResponsePacker {
+
+    /**
+     * A ranked result: its title, breadcrumb, candidate passages and the terms to highlight
+     */
+    public record Source(String title, String section, List<ScoredPassage> passages, Set<String> highlightTerms) {}
+
+    private record Excerpt(int start, String text, boolean last) {
+
+        int end() {
+            return start + text.length();
+        }
+    }
+
+    private ResponsePacker() {
+    }
+
+    /**
+     * Render the header and the best passages that fit into the budget
+     */
+    public static String pack(String header, List<Source> sources, int budgetBytes) {
+        List<int[]> candidates = new ArrayList<>();
+        for (int source = 0; source < sources.size(); source++) {
+            for (int passage = 0; passage < sources.get(source).passages().size(); passage++) {
+                candidates.add(new int[]{source, passage});
+            }
+        }
+        // Best passage first, ties in result order
+        candidates.sort(Comparator.<int[]>comparingDouble(c -> -score(sources, c)).thenComparingInt(c -> c[0]));
+
+        Map<Integer, List<Excerpt>> excerpts = new HashMap<>();
+        Map<Integer, Double> bestScores = new HashMap<>();
+        String packed = render(header, sources, excerpts, bestScores);
+        for (int[] candidate : candidates) {
+            Map<Integer, List<Excerpt>> tentative = new HashMap<>(excerpts);
+            tentative.put(candidate[0], merge(tentative.getOrDefault(candidate[0], List.of()),
+                sources.get(candidate[0]).passages().get(candidate[1]).passage()));
+            Map<Integer, Double> tentativeScores = new HashMap<>(bestScores);
+            tentativeScores.merge(candidate[0], score(sources, candidate), Math::max);
+
+            String rendered = render(header, sources, tentative, tentativeScores);
+            // A smaller passage further down may still fit, so keep going
+            if (utf8Length(rendered) <= budgetBytes) {
+                excerpts = tentative;
+                bestScores = tentativeScores;
+                packed = rendered;
+            }
+        }
+        return packed;
+    }
+
+    private static double score(List<Source> sources, int[] candidate) {
+        return sources.get(candidate[0]).passages().get(candidate[1]).score();
+    }
+
+    /**
+     * Add a passage to the excerpts of a section, joining it with the excerpts it overlaps
+     */
+    private static List<Excerpt> merge(List<Excerpt> excerpts, Passage passage) {
+        Excerpt added = new Excerpt(passage.start(), passage.text(), passage.last());
+        List<Excerpt> result = new ArrayList<>();
+        for (Excerpt excerpt : excerpts) {
+            if (excerpt.end() < added.start() || added.end() < excerpt.start()) {
+                result.add(excerpt);
+            } else {
+                added = join(excerpt, added);
+            }
+        }
+        result.add(added);
+        result.sort(Comparator.comparingInt(Excerpt::start));
+        return result;
+    }
+
+    private static Excerpt join(Excerpt a, Excerpt b) {
+        Excerpt first = a.start() <= b.start() ? a : b;
+        Excerpt second = first == a ? b : a;
+        if (second.end() <= first.end()) {
+            return first;
+        }
+        return new Excerpt(first.start(), first.text() + second.text().substring(first.end() - second.start()),
+            second.last());
+    }
+
+    private static String render(String header, List<Source> sources, Map<Integer, List<Excerpt>> excerpts,
+                                 Map<Integer, Double> bestScores) {
+        StringBuilder response = new StringBuilder(header);
+        List<Integer> order = new ArrayList<>(excerpts.keySet());
+        order.sort(Comparator.<Integer>comparingDouble(source -> -bestScores.get(source)).thenComparingInt(source -> source));
+        int number = 1;
+        for (int source : order) {
+            Source result = sources.get(source);
+            response.append(number++).append(". **").append(result.title()).append("**\n");
+            for (Excerpt excerpt : excerpts.get(source)) {
+                response.append("   ");
+                if (excerpt.start() > 0) {
+                    response.append("...");
+                }
+                response.append(TextProcessor.highlightTerms(excerpt.text(), result.highlightTerms()));
+                if (!excerpt.last()) {
+                    response.append("...");
+                }
+                response.append("\n");
+            }
+            response.append("   Section: ").append(result.section()).append("\n\n");
+        }
+        int omitted = sources.size() - order.size();
+        if (omitted > 0 && !order.isEmpty()) {
+            response.append(String.format("[%d more matching sections not shown - try more specific search terms]\n", omitted));
+        }
+        return response.toString();
+    }
+
+    private static int utf8Length(String text) {
+        return text.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
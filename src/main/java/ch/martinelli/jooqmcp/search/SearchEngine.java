@@ -0,0 +1,74 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.search.InvertedIndex.IndexedDocument;
+import ch.martinelli.jooqmcp.search.InvertedIndex.PostingVisitor;
+import ch.martinelli.jooqmcp.search.InvertedIndex.SearchMatch;
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Full-text search over documentation sections. Documents are addressed by their insertion ordinal;
+ * the term statistics are exposed for the components built on top of the lexical index, such as the
+ * semantic index and the head term cache. Implementations are safe for concurrent searches once built.
+ * The built-in {@link ShardedIndex} is the default, {@link LuceneSearchEngine} an alternative.
+ */
+public interface SearchEngine extends AutoCloseable {
+
+    default void addDocument(DocumentationSection section) {
+        addDocument(section, 0f);
+    }
+
+    /**
+     * Add a document with a query independent score in [0, 1] added to its score for every match
+     */
+    void addDocument(DocumentationSection section, float staticScore);
+
+    /**
+     * Make added documents searchable
+     */
+    void build();
+
+    default List<SearchMatch> search(String query, int maxResults) {
+        return search(query, maxResults, Deadline.NONE);
+    }
+
+    /**
+     * Best matches for a keyword or structured query, near-duplicates collapsed, within a time budget
+     */
+    List<SearchMatch> search(String query, int maxResults, Deadline deadline);
+
+    /**
+     * Indexed documents by ordinal
+     */
+    List<IndexedDocument> getDocuments();
+
+    /**
+     * Visit every (term, document ordinal, frequency) posting
+     */
+    void forEachPosting(PostingVisitor visitor);
+
+    /**
+     * Number of documents containing the term
+     */
+    int getDocumentFrequency(String term);
+
+    /**
+     * Terms with the highest document frequency, most frequent first
+     */
+    List<String> mostFrequentTerms(int count);
+
+    int getTotalDocuments();
+
+    Map<String, Object> getStatistics();
+
+    /**
+     * Release per-document data that is rebuilt on demand
+     */
+    void releaseDerivedData();
+
+    @Override
+    default void close() {
+    }
+}
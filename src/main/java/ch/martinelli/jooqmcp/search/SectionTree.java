@@ -0,0 +1,108 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable section hierarchy of the manual stored as int arrays indexed by section ordinal.
+ * Navigation costs O(1) per step, listing children O(children).
+ */
+public class SectionTree {
+
+    public static final int NONE = -1;
+
+    private final int[] parent;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[] childCount;
+    private final int[] depth;
+    private final int[] roots;
+
+    public SectionTree(List<DocumentationSection> sections) {
+        int size = sections.size();
+        this.parent = new int[size];
+        this.firstChild = new int[size];
+        this.nextSibling = new int[size];
+        this.childCount = new int[size];
+        this.depth = new int[size];
+        Arrays.fill(parent, NONE);
+        Arrays.fill(firstChild, NONE);
+        Arrays.fill(nextSibling, NONE);
+
+        int[] lastChild = new int[size];
+        Arrays.fill(lastChild, NONE);
+        int[] stack = new int[size];
+        int stackSize = 0;
+        int rootCount = 0;
+        int lastRoot = NONE;
+
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            int level = sections.get(ordinal).getLevel();
+            while (stackSize > 0 && sections.get(stack[stackSize - 1]).getLevel() >= level) {
+                stackSize--;
+            }
+
+            int parentOrdinal = stackSize > 0 ? stack[stackSize - 1] : NONE;
+            parent[ordinal] = parentOrdinal;
+            depth[ordinal] = stackSize;
+            if (parentOrdinal == NONE) {
+                if (lastRoot != NONE) {
+                    nextSibling[lastRoot] = ordinal;
+                }
+                lastRoot = ordinal;
+                rootCount++;
+            } else {
+                if (lastChild[parentOrdinal] == NONE) {
+                    firstChild[parentOrdinal] = ordinal;
+                } else {
+                    nextSibling[lastChild[parentOrdinal]] = ordinal;
+                }
+                lastChild[parentOrdinal] = ordinal;
+                childCount[parentOrdinal]++;
+            }
+            stack[stackSize++] = ordinal;
+        }
+
+        this.roots = new int[rootCount];
+        for (int ordinal = 0, i = 0; ordinal < size; ordinal++) {
+            if (parent[ordinal] == NONE) {
+                roots[i++] = ordinal;
+            }
+        }
+    }
+
+    public int parent(int ordinal) { return parent[ordinal]; }
+    public int firstChild(int ordinal) { return firstChild[ordinal]; }
+    public int nextSibling(int ordinal) { return nextSibling[ordinal]; }
+    public int childCount(int ordinal) { return childCount[ordinal]; }
+    public int depth(int ordinal) { return depth[ordinal]; }
+    public int size() { return parent.length; }
+
+    /**
+     * Top-level sections in document order
+     */
+    public int[] roots() {
+        return roots.clone();
+    }
+
+    /**
+     * Direct children of a section in document order
+     */
+    public int[] children(int ordinal) {
+        int[] children = new int[childCount[ordinal]];
+        int i = 0;
+        for (int child = firstChild[ordinal]; child != NONE; child = nextSibling[child]) {
+            children[i++] = child;
+        }
+        return children;
+    }
+
+    /**
+     * Sections sharing the parent of the given section, including itself
+     */
+    public int[] siblings(int ordinal) {
+        return parent[ordinal] == NONE ? roots() : children(parent[ordinal]);
+    }
+}
@@ -0,0 +1,349 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.search.InvertedIndex.IndexedDocument;
+import ch.martinelli.jooqmcp.util.TextProcessor;
+
+import java.util.*;
+
+/**
+ * Offline semantic retrieval using latent semantic analysis. The TF-IDF term-document matrix of the
+ * inverted index is reduced with a randomized truncated SVD, so terms that co-occur in the manual end up
+ * close to each other even if a query shares no word with a section. Section vectors are searched with
+ * an HNSW graph. Everything is computed locally at index time.
+ */
+public class SemanticIndex {
+
+    private static final int DEFAULT_DIMENSIONS = 64;
+    private static final int OVERSAMPLING = 10;
+    private static final int POWER_ITERATIONS = 2;
+    private static final int EF_SEARCH = 64;
+    private static final double MAX_DOCUMENT_FREQUENCY_RATIO = 0.5;
+
+    private final List<IndexedDocument> documents;
+    private final Map<String, Integer> vocabulary;
+    private final double[] idf;
+    private final float[] termVectors;
+    private final int dimensions;
+    private final HnswIndex hnsw;
+
+    /**
+     * A document with its cosine similarity to the query
+     */
+    public record SemanticMatch(IndexedDocument document, double similarity) {}
+
+    public SemanticIndex(SearchEngine index) {
+        this(index, DEFAULT_DIMENSIONS);
+    }
+
+    public SemanticIndex(SearchEngine index, int targetDimensions) {
+        this.documents = index.getDocuments();
+        int documentCount = documents.size();
+
+        // Terms occurring in a single section carry no co-occurrence signal, very common ones no meaning
+        this.vocabulary = new HashMap<>();
+        List<Double> idfValues = new ArrayList<>();
+        List<List<int[]>> rows = new ArrayList<>(documentCount);
+        for (int i = 0; i < documentCount; i++) {
+            rows.add(new ArrayList<>());
+        }
+        int maxDf = Math.max(2, (int) (documentCount * MAX_DOCUMENT_FREQUENCY_RATIO));
+        index.forEachPosting((term, row, frequency) -> {
+            int df = index.getDocumentFrequency(term);
+            if (df < 2 || df > maxDf) {
+                return;
+            }
+            Integer column = vocabulary.get(term);
+            if (column == null) {
+                column = vocabulary.size();
+                vocabulary.put(term, column);
+                idfValues.add(Math.log((double) documentCount / df));
+            }
+            rows.get(row).add(new int[]{column, frequency});
+        });
+        this.idf = idfValues.stream().mapToDouble(Double::doubleValue).toArray();
+
+        SparseMatrix matrix = SparseMatrix.of(rows, idf);
+        int rank = Math.min(targetDimensions, Math.min(documentCount, vocabulary.size()) - 1);
+        if (rank < 1) {
+            this.dimensions = 0;
+            this.termVectors = new float[0];
+            this.hnsw = new HnswIndex(new float[0], 0);
+            return;
+        }
+
+        double[][] termBasis = truncatedSvd(matrix, vocabulary.size(), rank);
+        this.dimensions = termBasis[0].length;
+        this.termVectors = new float[vocabulary.size() * dimensions];
+        for (int term = 0; term < vocabulary.size(); term++) {
+            for (int d = 0; d < dimensions; d++) {
+                termVectors[term * dimensions + d] = (float) termBasis[term][d];
+            }
+        }
+
+        float[] documentVectors = new float[documentCount * dimensions];
+        for (int row = 0; row < documentCount; row++) {
+            float[] vector = new float[dimensions];
+            for (int p = matrix.rowStart[row]; p < matrix.rowStart[row + 1]; p++) {
+                addScaled(vector, matrix.columns[p], matrix.values[p]);
+            }
+            normalize(vector);
+            System.arraycopy(vector, 0, documentVectors, row * dimensions, dimensions);
+        }
+        this.hnsw = new HnswIndex(documentVectors, dimensions);
+    }
+
+    /**
+     * Semantically closest documents for a free-text query, most similar first
+     */
+    public List<SemanticMatch> search(String query, int maxResults) {
+        if (dimensions == 0 || query == null || query.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        float[] vector = new float[dimensions];
+        boolean known = false;
+        for (String term : TextProcessor.processText(query)) {
+            Integer column = vocabulary.get(term);
+            if (column != null) {
+                addScaled(vector, column, idf[column]);
+                known = true;
+            }
+        }
+        if (!known || !normalize(vector)) {
+            return Collections.emptyList();
+        }
+
+        List<SemanticMatch> matches = new ArrayList<>();
+        for (HnswIndex.Neighbor neighbor : hnsw.search(vector, maxResults, EF_SEARCH)) {
+            if (neighbor.similarity() > 0) {
+                matches.add(new SemanticMatch(documents.get(neighbor.id()), neighbor.similarity()));
+            }
+        }
+        return matches;
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("semanticDimensions", dimensions);
+        stats.put("semanticVocabulary", vocabulary.size());
+        return stats;
+    }
+
+    private void addScaled(float[] vector, int term, double weight) {
+        int offset = term * dimensions;
+        for (int d = 0; d < dimensions; d++) {
+            vector[d] += (float) (weight * termVectors[offset + d]);
+        }
+    }
+
+    private static boolean normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm == 0) {
+            return false;
+        }
+        float inverse = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= inverse;
+        }
+        return true;
+    }
+
+    /**
+     * Randomized range finder followed by an exact eigen decomposition of the small projected matrix.
+     * Returns the right singular vectors V (terms x rank), so documents and queries are projected as x V.
+     */
+    private static double[][] truncatedSvd(SparseMatrix a, int columns, int rank) {
+        int width = Math.min(rank + OVERSAMPLING, Math.min(a.rows(), columns));
+        Random random = new Random(42L);
+
+        double[][] omega = new double[columns][width];
+        for (double[] row : omega) {
+            for (int j = 0; j < width; j++) {
+                row[j] = random.nextGaussian();
+            }
+        }
+
+        double[][] q = a.multiply(omega, width);
+        orthonormalize(q, width);
+        for (int i = 0; i < POWER_ITERATIONS; i++) {
+            double[][] z = a.transposeMultiply(q, columns, width);
+            orthonormalize(z, width);
+            q = a.multiply(z, width);
+            orthonormalize(q, width);
+        }
+
+        // B^T = A^T Q (columns x width), C = B B^T (width x width)
+        double[][] bt = a.transposeMultiply(q, columns, width);
+        double[][] c = new double[width][width];
+        for (double[] row : bt) {
+            for (int i = 0; i < width; i++) {
+                if (row[i] == 0) continue;
+                for (int j = i; j < width; j++) {
+                    c[i][j] += row[i] * row[j];
+                }
+            }
+        }
+        for (int i = 0; i < width; i++) {
+            for (int j = 0; j < i; j++) {
+                c[i][j] = c[j][i];
+            }
+        }
+
+        double[] eigenvalues = new double[width];
+        double[][] eigenvectors = jacobiEigen(c, eigenvalues);
+        Integer[] order = new Integer[width];
+        for (int i = 0; i < width; i++) order[i] = i;
+        Arrays.sort(order, (x, y) -> Double.compare(eigenvalues[y], eigenvalues[x]));
+
+        int kept = 0;
+        while (kept < rank && eigenvalues[order[kept]] > 1e-9) {
+            kept++;
+        }
+        kept = Math.max(kept, 1);
+
+        // V = B^T W / sigma
+        double[][] v = new double[columns][kept];
+        for (int term = 0; term < columns; term++) {
+            for (int k = 0; k < kept; k++) {
+                int e = order[k];
+                double sigma = Math.sqrt(Math.max(eigenvalues[e], 1e-12));
+                double sum = 0;
+                for (int i = 0; i < width; i++) {
+                    sum += bt[term][i] * eigenvectors[i][e];
+                }
+                v[term][k] = sum / sigma;
+            }
+        }
+        return v;
+    }
+
+    /**
+     * Modified Gram-Schmidt over the columns of a row-major matrix
+     */
+    private static void orthonormalize(double[][] m, int width) {
+        for (int j = 0; j < width; j++) {
+            for (int k = 0; k < j; k++) {
+                double dot = 0;
+                for (double[] row : m) dot += row[j] * row[k];
+                for (double[] row : m) row[j] -= dot * row[k];
+            }
+            double norm = 0;
+            for (double[] row : m) norm += row[j] * row[j];
+            norm = Math.sqrt(norm);
+            for (double[] row : m) row[j] = norm > 1e-12 ? row[j] / norm : 0;
+        }
+    }
+
+    /**
+     * Cyclic Jacobi eigen decomposition of a small symmetric matrix; eigenvectors are the columns
+     */
+    private static double[][] jacobiEigen(double[][] input, double[] eigenvalues) {
+        int n = input.length;
+        double[][] a = new double[n][];
+        for (int i = 0; i < n; i++) a[i] = input[i].clone();
+        double[][] v = new double[n][n];
+        for (int i = 0; i < n; i++) v[i][i] = 1;
+
+        for (int sweep = 0; sweep < 100; sweep++) {
+            double offDiagonal = 0;
+            for (int p = 0; p < n; p++) {
+                for (int r = p + 1; r < n; r++) offDiagonal += a[p][r] * a[p][r];
+            }
+            if (offDiagonal < 1e-18) break;
+
+            for (int p = 0; p < n; p++) {
+                for (int r = p + 1; r < n; r++) {
+                    if (Math.abs(a[p][r]) < 1e-15) continue;
+                    double theta = (a[r][r] - a[p][p]) / (2 * a[p][r]);
+                    double t = Math.signum(theta) / (Math.abs(theta) + Math.sqrt(theta * theta + 1));
+                    if (theta == 0) t = 1;
+                    double cos = 1 / Math.sqrt(t * t + 1);
+                    double sin = t * cos;
+                    for (int k = 0; k < n; k++) {
+                        double akp = a[k][p], akr = a[k][r];
+                        a[k][p] = cos * akp - sin * akr;
+                        a[k][r] = sin * akp + cos * akr;
+                    }
+                    for (int k = 0; k < n; k++) {
+                        double apk = a[p][k], ark = a[r][k];
+                        a[p][k] = cos * apk - sin * ark;
+                        a[r][k] = sin * apk + cos * ark;
+                    }
+                    for (int k = 0; k < n; k++) {
+                        double vkp = v[k][p], vkr = v[k][r];
+                        v[k][p] = cos * vkp - sin * vkr;
+                        v[k][r] = sin * vkp + cos * vkr;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) eigenvalues[i] = a[i][i];
+        return v;
+    }
+
+    /**
+     * Row-normalized TF-IDF matrix in compressed sparse row layout
+     */
+    private record SparseMatrix(int[] rowStart, int[] columns, float[] values) {
+
+        static SparseMatrix of(List<List<int[]>> rows, double[] idf) {
+            int nonZero = rows.stream().mapToInt(List::size).sum();
+            int[] rowStart = new int[rows.size() + 1];
+            int[] columns = new int[nonZero];
+            float[] values = new float[nonZero];
+            int p = 0;
+            for (int row = 0; row < rows.size(); row++) {
+                rowStart[row] = p;
+                double norm = 0;
+                int start = p;
+                for (int[] entry : rows.get(row)) {
+                    double weight = (1 + Math.log(entry[1])) * idf[entry[0]];
+                    columns[p] = entry[0];
+                    values[p] = (float) weight;
+                    norm += weight * weight;
+                    p++;
+                }
+                if (norm > 0) {
+                    double inverse = 1 / Math.sqrt(norm);
+                    for (int i = start; i < p; i++) values[i] *= (float) inverse;
+                }
+            }
+            rowStart[rows.size()] = p;
+            return new SparseMatrix(rowStart, columns, values);
+        }
+
+        int rows() {
+            return rowStart.length - 1;
+        }
+
+        /** A x M for a dense M (columns x width) */
+        double[][] multiply(double[][] m, int width) {
+            double[][] result = new double[rows()][width];
+            for (int row = 0; row < rows(); row++) {
+                double[] target = result[row];
+                for (int p = rowStart[row]; p < rowStart[row + 1]; p++) {
+                    double[] source = m[columns[p]];
+                    float value = values[p];
+                    for (int j = 0; j < width; j++) target[j] += value * source[j];
+                }
+            }
+            return result;
+        }
+
+        /** A^T x M for a dense M (rows x width) */
+        double[][] transposeMultiply(double[][] m, int columnCount, int width) {
+            double[][] result = new double[columnCount][width];
+            for (int row = 0; row < rows(); row++) {
+                double[] source = m[row];
+                for (int p = rowStart[row]; p < rowStart[row + 1]; p++) {
+                    double[] target = result[columns[p]];
+                    float value = values[p];
+                    for (int j = 0; j < width; j++) target[j] += value * source[j];
+                }
+            }
+            return result;
+        }
+    }
+}
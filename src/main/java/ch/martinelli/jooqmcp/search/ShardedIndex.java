@@ -0,0 +1,282 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.search.InvertedIndex.IndexedDocument;
+import ch.martinelli.jooqmcp.search.InvertedIndex.ScoredDocument;
+import ch.martinelli.jooqmcp.search.InvertedIndex.SearchMatch;
+import ch.martinelli.jooqmcp.search.InvertedIndex.SearchQuery;
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
+import ch.martinelli.jooqmcp.util.SynonymGraph;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Inverted index partitioned into document shards that are searched in parallel. Documents are
+ * assigned round robin, so the global ordinal of local document {@code i} in shard {@code s} is
+ * {@code i * shards + s}. Every shard is compiled with collection wide document frequencies and average
+ * field lengths, and the per-shard top-k lists are merged before near-duplicates are collapsed, which
+ * yields the same results and scores as a single {@link InvertedIndex} over all documents.
+ */
+public class ShardedIndex implements SearchEngine {
+
+    private final InvertedIndex[] shards;
+    private final SynonymGraph synonyms;
+    private final ExecutorService executor;
+    private int totalDocuments;
+    private volatile boolean built;
+
+    /**
+     * @param shardCount number of shards, or 0 for one per available processor
+     */
+    public ShardedIndex(int shardCount) {
+        this(shardCount, SynonymGraph.defaultGraph());
+    }
+
+    /**
+     * @param shardCount number of shards, or 0 for one per available processor
+     * @param synonyms   synonyms to expand query terms with
+     */
+    public ShardedIndex(int shardCount, SynonymGraph synonyms) {
+        this.synonyms = synonyms;
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        this.shards = new InvertedIndex[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new InvertedIndex(synonyms);
+        }
+        this.executor = count > 1 ? Executors.newFixedThreadPool(count, new ShardThreadFactory()) : null;
+    }
+
+    public synchronized void addDocument(DocumentationSection section) {
+        addDocument(section, 0f);
+    }
+
+    /**
+     * Add a document with a query independent score in [0, 1]
+     */
+    public synchronized void addDocument(DocumentationSection section, float staticScore) {
+        shards[totalDocuments % shards.length].addDocument(section, staticScore);
+        totalDocuments++;
+        built = false;
+    }
+
+    /**
+     * Compile all shards with the global document frequencies
+     */
+    public synchronized void build() {
+        if (built) {
+            return;
+        }
+        Map<String, Integer> documentFrequencies = new HashMap<>();
+        long[] fieldLengthTotals = shards[0].fieldLengthTotals();
+        for (int s = 0; s < shards.length; s++) {
+            shards[s].forEachDocumentFrequency((term, df) -> documentFrequencies.merge(term, df, Integer::sum));
+            if (s > 0) {
+                long[] shardTotals = shards[s].fieldLengthTotals();
+                for (int field = 0; field < fieldLengthTotals.length; field++) {
+                    fieldLengthTotals[field] += shardTotals[field];
+                }
+            }
+        }
+        float[] averageFieldLengths = new float[fieldLengthTotals.length];
+        for (int field = 0; field < averageFieldLengths.length; field++) {
+            averageFieldLengths[field] = totalDocuments > 0 ? (float) fieldLengthTotals[field] / totalDocuments : 0f;
+        }
+        List<Callable<Void>> tasks = new ArrayList<>(shards.length);
+        for (InvertedIndex shard : shards) {
+            tasks.add(() -> {
+                shard.build(totalDocuments, term -> documentFrequencies.getOrDefault(term, 0), averageFieldLengths);
+                return null;
+            });
+        }
+        invokeAll(tasks);
+        built = true;
+    }
+
+    /**
+     * Search all shards in parallel and merge their results
+     */
+    public List<SearchMatch> search(String query, int maxResults) {
+        return search(query, maxResults, Deadline.NONE);
+    }
+
+    /**
+     * Search all shards in parallel within a time budget shared by the shards
+     */
+    public List<SearchMatch> search(String query, int maxResults, Deadline deadline) {
+        if (query == null || query.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        build();
+        SearchQuery parsedQuery = InvertedIndex.parseQuery(query, synonyms);
+        int k = maxResults * InvertedIndex.DUPLICATE_SLACK;
+
+        List<Callable<List<ScoredDocument>>> tasks = new ArrayList<>(shards.length);
+        for (int s = 0; s < shards.length; s++) {
+            InvertedIndex shard = shards[s];
+            int shardNumber = s;
+            tasks.add(() -> toGlobal(shard.rank(parsedQuery, k, deadline), shardNumber));
+        }
+
+        List<ScoredDocument> merged = new ArrayList<>();
+        for (List<ScoredDocument> shardResult : invokeAll(tasks)) {
+            merged.addAll(shardResult);
+        }
+        // Same order as a single index: score, then document order
+        merged.sort(Comparator.comparingDouble(ScoredDocument::score).reversed()
+                .thenComparingInt(ScoredDocument::ordinal));
+        if (merged.size() > k) {
+            merged = merged.subList(0, k);
+        }
+        return InvertedIndex.collectDistinct(merged, parsedQuery, maxResults);
+    }
+
+    private List<ScoredDocument> toGlobal(List<ScoredDocument> ranked, int shard) {
+        List<ScoredDocument> global = new ArrayList<>(ranked.size());
+        for (ScoredDocument document : ranked) {
+            global.add(new ScoredDocument(globalOrdinal(document.ordinal(), shard), document.document(), document.score()));
+        }
+        return global;
+    }
+
+    private int globalOrdinal(int localOrdinal, int shard) {
+        return localOrdinal * shards.length + shard;
+    }
+
+    /**
+     * Run tasks on the shard pool, or inline when there is a single shard
+     */
+    private <T> List<T> invokeAll(List<Callable<T>> tasks) {
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            if (executor == null) {
+                for (Callable<T> task : tasks) {
+                    results.add(task.call());
+                }
+                return results;
+            }
+            for (Future<T> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while searching index shards", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Searching index shard failed", e.getCause());
+        } catch (Exception e) {
+            throw new IllegalStateException("Searching index shard failed", e);
+        }
+    }
+
+    /**
+     * Visit every posting with global document ordinals
+     */
+    public void forEachPosting(InvertedIndex.PostingVisitor visitor) {
+        for (int s = 0; s < shards.length; s++) {
+            int shardNumber = s;
+            shards[s].forEachPosting((term, document, frequency) ->
+                    visitor.visit(term, globalOrdinal(document, shardNumber), frequency));
+        }
+    }
+
+    public int getDocumentFrequency(String term) {
+        int df = 0;
+        for (InvertedIndex shard : shards) {
+            df += shard.getDocumentFrequency(term);
+        }
+        return df;
+    }
+
+    /**
+     * Terms with the highest document frequency, most frequent first
+     */
+    public List<String> mostFrequentTerms(int count) {
+        Map<String, Integer> documentFrequencies = new HashMap<>();
+        for (InvertedIndex shard : shards) {
+            shard.forEachDocumentFrequency((term, df) -> documentFrequencies.merge(term, df, Integer::sum));
+        }
+        return documentFrequencies.entrySet().stream()
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .limit(count)
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    /**
+     * Indexed documents by global ordinal
+     */
+    public List<IndexedDocument> getDocuments() {
+        List<List<IndexedDocument>> shardDocuments = new ArrayList<>(shards.length);
+        for (InvertedIndex shard : shards) {
+            shardDocuments.add(shard.getDocuments());
+        }
+        int total = getTotalDocuments();
+        List<IndexedDocument> documents = new ArrayList<>(total);
+        for (int ordinal = 0; ordinal < total; ordinal++) {
+            documents.add(shardDocuments.get(ordinal % shards.length).get(ordinal / shards.length));
+        }
+        return documents;
+    }
+
+    /**
+     * Release the lazily built per-document data in all shards
+     */
+    public void releaseDerivedData() {
+        for (InvertedIndex shard : shards) {
+            shard.releaseDerivedData();
+        }
+    }
+
+    public synchronized int getTotalDocuments() {
+        return totalDocuments;
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Statistics over all shards
+     */
+    public Map<String, Object> getStatistics() {
+        Set<String> terms = new HashSet<>();
+        Set<String> phrases = new HashSet<>();
+        long scoredDocuments = 0;
+        double totalLength = 0;
+        for (InvertedIndex shard : shards) {
+            shard.forEachDocumentFrequency((term, df) -> terms.add(term));
+            phrases.addAll(shard.getIndexedPhrases());
+            scoredDocuments += shard.getScoredDocuments();
+            Map<String, Object> shardStats = shard.getStatistics();
+            totalLength += (double) shardStats.get("averageDocumentLength") * (int) shardStats.get("totalDocuments");
+        }
+        int total = getTotalDocuments();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalDocuments", total);
+        stats.put("totalTerms", terms.size());
+        stats.put("totalPhrases", phrases.size());
+        stats.put("averageDocumentLength", total > 0 ? totalLength / total : 0.0);
+        stats.put("scoredDocuments", scoredDocuments);
+        stats.put("shards", shards.length);
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class ShardThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "index-shard-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
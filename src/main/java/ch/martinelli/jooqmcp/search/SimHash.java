@@ -0,0 +1,50 @@
+package ch.martinelli.jooqmcp.search;
+
+import java.util.Map;
+
+/**
+ * 64-bit SimHash fingerprints for near-duplicate detection. Documents whose fingerprints differ
+ * in only a few bits share most of their weighted vocabulary.
+ */
+public final class SimHash {
+
+    /**
+     * Maximum Hamming distance at which two fingerprints count as near-duplicates
+     */
+    public static final int NEAR_DUPLICATE_DISTANCE = 3;
+
+    private SimHash() {
+    }
+
+    /**
+     * Fingerprint of a bag of tokens weighted by their frequency
+     */
+    public static long fingerprint(Map<String, Integer> weightedTokens) {
+        if (weightedTokens.isEmpty()) {
+            return 0L;
+        }
+        long[] weights = new long[64];
+        for (Map.Entry<String, Integer> entry : weightedTokens.entrySet()) {
+            long hash = RelatedSections.mix(entry.getKey().hashCode() * 0x9e3779b97f4a7c15L);
+            int weight = entry.getValue();
+            for (int bit = 0; bit < 64; bit++) {
+                weights[bit] += ((hash >>> bit) & 1L) != 0 ? weight : -weight;
+            }
+        }
+        long fingerprint = 0L;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    public static boolean isNearDuplicate(long a, long b) {
+        return distance(a, b) <= NEAR_DUPLICATE_DISTANCE;
+    }
+}
@@ -0,0 +1,276 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
+import ch.martinelli.jooqmcp.util.TextProcessor;
+
+import java.util.*;
+
+/**
+ * Precomputed index over section titles and breadcrumbs for fast topic resolution.
+ * Sections are addressed by their ordinal in document order.
+ */
+public class TitleIndex {
+
+    private static final int TITLE_WEIGHT = 2;
+    private static final int BREADCRUMB_WEIGHT = 1;
+    private static final double MIN_TRIGRAM_SIMILARITY = 0.5;
+    private static final int[] EMPTY = new int[0];
+
+    private final List<DocumentationSection> sections;
+
+    // Lower-cased title / breadcrumb -> ordinals, preferred section first
+    private final Map<String, int[]> exactTitles;
+    private final Map<String, int[]> exactBreadcrumbs;
+
+    // Token -> ordinals of sections having the token in title / breadcrumb
+    private final Map<String, int[]> titleTokens;
+    private final Map<String, int[]> breadcrumbTokens;
+
+    // Title trigram -> ordinals, used for typo tolerant lookups
+    private final Map<String, int[]> titleTrigrams;
+    private final int[] trigramCounts;
+    private final int[] titleTokenCounts;
+
+    public TitleIndex(List<DocumentationSection> sections) {
+        this.sections = List.copyOf(sections);
+        int size = this.sections.size();
+
+        Map<String, List<Integer>> titles = new HashMap<>();
+        Map<String, List<Integer>> breadcrumbs = new HashMap<>();
+        Map<String, List<Integer>> titleTokenLists = new HashMap<>();
+        Map<String, List<Integer>> breadcrumbTokenLists = new HashMap<>();
+        Map<String, List<Integer>> trigramLists = new HashMap<>();
+        this.trigramCounts = new int[size];
+        this.titleTokenCounts = new int[size];
+
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            DocumentationSection section = this.sections.get(ordinal);
+            String lowerTitle = section.getTitle().toLowerCase().trim();
+            String lowerBreadcrumb = section.getBreadcrumb().toLowerCase().trim();
+
+            titles.computeIfAbsent(lowerTitle, k -> new ArrayList<>()).add(ordinal);
+            breadcrumbs.computeIfAbsent(lowerBreadcrumb, k -> new ArrayList<>()).add(ordinal);
+            String tail = breadcrumbTail(lowerBreadcrumb);
+            if (!tail.equals(lowerBreadcrumb)) {
+                breadcrumbs.computeIfAbsent(tail, k -> new ArrayList<>()).add(ordinal);
+            }
+
+            List<String> tokens = TextProcessor.processText(section.getTitle());
+            titleTokenCounts[ordinal] = tokens.size();
+            for (String token : tokens) {
+                titleTokenLists.computeIfAbsent(token, k -> new ArrayList<>()).add(ordinal);
+            }
+            for (String token : TextProcessor.processText(section.getBreadcrumb())) {
+                breadcrumbTokenLists.computeIfAbsent(token, k -> new ArrayList<>()).add(ordinal);
+            }
+
+            Set<String> trigrams = trigrams(lowerTitle);
+            trigramCounts[ordinal] = trigrams.size();
+            for (String trigram : trigrams) {
+                trigramLists.computeIfAbsent(trigram, k -> new ArrayList<>()).add(ordinal);
+            }
+        }
+
+        Comparator<Integer> preferred = Comparator
+                .<Integer>comparingInt(ordinal -> this.sections.get(ordinal).getLevel())
+                .thenComparingInt(ordinal -> ordinal);
+        this.exactTitles = compile(titles, preferred);
+        this.exactBreadcrumbs = compile(breadcrumbs, preferred);
+        this.titleTokens = compile(titleTokenLists, null);
+        this.breadcrumbTokens = compile(breadcrumbTokenLists, null);
+        this.titleTrigrams = compile(trigramLists, null);
+    }
+
+    /**
+     * Resolve a topic to the best matching section, or null if neither title nor breadcrumb match
+     */
+    public DocumentationSection lookup(String topic) {
+        int ordinal = resolve(topic);
+        return ordinal >= 0 ? sections.get(ordinal) : null;
+    }
+
+    /**
+     * Resolve a topic to the ordinal of the best matching section, or -1
+     */
+    public int resolve(String topic) {
+        if (topic == null || topic.trim().isEmpty()) {
+            return -1;
+        }
+        String normalized = topic.toLowerCase().trim();
+
+        int[] exact = exactTitles.get(normalized);
+        if (exact != null) {
+            return exact[0];
+        }
+        exact = exactBreadcrumbs.get(normalized.replaceAll("\\s*>\\s*", " > "));
+        if (exact != null) {
+            return exact[0];
+        }
+
+        int ordinal = resolveByTokens(normalized);
+        return ordinal >= 0 ? ordinal : resolveByTrigrams(normalized);
+    }
+
+    /**
+     * All sections sharing the given title, preferred section first
+     */
+    public List<DocumentationSection> sectionsWithTitle(String title) {
+        int[] ordinals = exactTitles.get(title.toLowerCase().trim());
+        if (ordinals == null) {
+            return Collections.emptyList();
+        }
+        List<DocumentationSection> result = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            result.add(sections.get(ordinal));
+        }
+        return result;
+    }
+
+    /**
+     * Sections whose title and breadcrumb together contain every token of the topic
+     */
+    public BitSet matchingSections(String topic) {
+        BitSet matching = new BitSet(sections.size());
+        List<String> tokens = TextProcessor.processText(topic);
+        if (tokens.isEmpty()) {
+            return matching;
+        }
+        for (int ordinal : breadcrumbTokens.getOrDefault(tokens.get(0), EMPTY)) {
+            matching.set(ordinal);
+        }
+        for (int i = 1; i < tokens.size() && !matching.isEmpty(); i++) {
+            BitSet tokenSections = new BitSet(sections.size());
+            for (int ordinal : breadcrumbTokens.getOrDefault(tokens.get(i), EMPTY)) {
+                tokenSections.set(ordinal);
+            }
+            matching.and(tokenSections);
+        }
+        return matching;
+    }
+
+    public int size() {
+        return sections.size();
+    }
+
+    /**
+     * Token lookup: every query token must occur in the title or breadcrumb. Title hits weigh more,
+     * ties go to the more focused title, the higher-level section and then document order.
+     */
+    private int resolveByTokens(String normalized) {
+        List<String> tokens = TextProcessor.processText(normalized);
+        if (tokens.isEmpty()) {
+            return -1;
+        }
+
+        int[] scores = new int[sections.size()];
+        int[] coverage = new int[sections.size()];
+        for (String token : tokens) {
+            int[] inTitle = titleTokens.getOrDefault(token, EMPTY);
+            int[] inBreadcrumb = breadcrumbTokens.getOrDefault(token, EMPTY);
+            for (int ordinal : inBreadcrumb) {
+                scores[ordinal] += BREADCRUMB_WEIGHT;
+                coverage[ordinal]++;
+            }
+            for (int ordinal : inTitle) {
+                scores[ordinal] += TITLE_WEIGHT;
+            }
+        }
+
+        int best = -1;
+        for (int ordinal : candidates(tokens)) {
+            if (coverage[ordinal] < tokens.size()) {
+                continue;
+            }
+            if (best < 0 || isBetter(ordinal, best, scores)) {
+                best = ordinal;
+            }
+        }
+        return best;
+    }
+
+    private int[] candidates(List<String> tokens) {
+        // The breadcrumb contains the title, so the postings of the rarest token bound the candidates
+        int[] smallest = null;
+        for (String token : tokens) {
+            int[] postings = breadcrumbTokens.getOrDefault(token, EMPTY);
+            if (smallest == null || postings.length < smallest.length) {
+                smallest = postings;
+            }
+        }
+        return smallest != null ? smallest : EMPTY;
+    }
+
+    private boolean isBetter(int candidate, int current, int[] scores) {
+        if (scores[candidate] != scores[current]) {
+            return scores[candidate] > scores[current];
+        }
+        if (titleTokenCounts[candidate] != titleTokenCounts[current]) {
+            return titleTokenCounts[candidate] < titleTokenCounts[current];
+        }
+        int candidateLevel = sections.get(candidate).getLevel();
+        int currentLevel = sections.get(current).getLevel();
+        if (candidateLevel != currentLevel) {
+            return candidateLevel < currentLevel;
+        }
+        return candidate < current;
+    }
+
+    /**
+     * Dice similarity over title trigrams for misspelled topics
+     */
+    private int resolveByTrigrams(String normalized) {
+        Set<String> queryTrigrams = trigrams(normalized);
+        if (queryTrigrams.isEmpty()) {
+            return -1;
+        }
+
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            for (int ordinal : titleTrigrams.getOrDefault(trigram, EMPTY)) {
+                shared.merge(ordinal, 1, Integer::sum);
+            }
+        }
+
+        int best = -1;
+        double bestSimilarity = MIN_TRIGRAM_SIMILARITY;
+        for (Map.Entry<Integer, Integer> entry : shared.entrySet()) {
+            int ordinal = entry.getKey();
+            double similarity = 2.0 * entry.getValue() / (queryTrigrams.size() + trigramCounts[ordinal]);
+            if (similarity > bestSimilarity || (similarity == bestSimilarity && best >= 0 && ordinal < best)) {
+                best = ordinal;
+                bestSimilarity = similarity;
+            }
+        }
+        return best;
+    }
+
+    private static String breadcrumbTail(String breadcrumb) {
+        int last = breadcrumb.lastIndexOf(" > ");
+        if (last < 0) {
+            return breadcrumb;
+        }
+        int previous = breadcrumb.lastIndexOf(" > ", last - 1);
+        return previous < 0 ? breadcrumb : breadcrumb.substring(previous + 3);
+    }
+
+    static Set<String> trigrams(String text) {
+        String padded = " " + text.replaceAll("\\s+", " ") + " ";
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static Map<String, int[]> compile(Map<String, List<Integer>> lists, Comparator<Integer> order) {
+        Map<String, int[]> compiled = new HashMap<>(lists.size() * 2);
+        for (Map.Entry<String, List<Integer>> entry : lists.entrySet()) {
+            List<Integer> ordinals = entry.getValue();
+            if (order != null) {
+                ordinals.sort(order);
+            }
+            compiled.put(entry.getKey(), ordinals.stream().mapToInt(Integer::intValue).distinct().toArray());
+        }
+        return compiled;
+    }
+}
@@ -0,0 +1,211 @@
+package ch.martinelli.jooqmcp.search;
+
+import java.util.*;
+
+/**
+ * Top-k disjunctive query evaluation with block-max WAND dynamic pruning (Broder et al., Ding and Suel).
+ * Cursors are kept ordered by their current document; a document is only fully scored once the summed
+ * upper bounds of the cursors up to it, plus the bound of query level extras, can beat the current k-th
+ * best score. Everything behind that pivot is skipped with
+ * {@link PostingCursor#advance(int)}, and whole blocks are skipped when their block maxima fall short.
+ */
+final class WandEvaluator {
+
+    /**
+     * Final score of a document given the summed term contributions, at most the term score plus the
+     * extra bound
+     */
+    @FunctionalInterface
+    interface DocumentScorer {
+        float score(int document, float termScore);
+    }
+
+    record Hit(int document, float score) {}
+
+    // Iterations between deadline checks, a power of two
+    private static final int DEADLINE_CHECK_INTERVAL = 256;
+
+    private static final Comparator<Hit> WORST_FIRST = Comparator.comparingDouble(Hit::score)
+            .thenComparing(Comparator.comparingInt(Hit::document).reversed());
+
+    private WandEvaluator() {
+    }
+
+    /**
+     * @param cursors    one cursor per query term
+     * @param extraBound upper bound of everything the scorer adds on top of the term contributions
+     * @param filter     documents allowed in the result, or null for all
+     * @param k          number of hits to keep
+     * @param prune      false to score every candidate, used as reference for measurements
+     * @param deadline   evaluation stops with the hits found so far once it expired
+     * @return hits ordered by descending score, ties in document order, and the number of documents scored
+     */
+    static Result topK(List<PostingCursor> cursors, float extraBound, DocumentScorer scorer,
+                       BitSet filter, int k, boolean prune, Deadline deadline) {
+        PostingCursor[] active = cursors.stream()
+                .filter(cursor -> cursor.document() != PostingCursor.NO_MORE_DOCS)
+                .toArray(PostingCursor[]::new);
+        // Cursors on the same document stay in query order, so term scores are summed deterministically
+        int[] order = new int[active.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        PriorityQueue<Hit> heap = new PriorityQueue<>(k + 1, WORST_FIRST);
+        float threshold = 0f;
+        int scored = 0;
+        int iterations = 0;
+
+        while (true) {
+            if ((++iterations & (DEADLINE_CHECK_INTERVAL - 1)) == 0 && deadline.expired()) {
+                break;
+            }
+            sortByDocument(active, order);
+
+            int pivot = findPivot(active, extraBound, threshold, prune);
+            if (pivot < 0) {
+                break;
+            }
+            int pivotDocument = active[pivot].document();
+            while (pivot + 1 < active.length && active[pivot + 1].document() == pivotDocument) {
+                pivot++;
+            }
+
+            if (prune && heap.size() == k) {
+                int skipTarget = blockSkipTarget(active, pivot, pivotDocument, extraBound, threshold);
+                if (skipTarget > pivotDocument) {
+                    for (int i = 0; i <= pivot; i++) {
+                        active[i].advance(skipTarget);
+                    }
+                    continue;
+                }
+            }
+
+            if (active[0].document() == pivotDocument) {
+                float termScore = 0f;
+                for (PostingCursor cursor : active) {
+                    if (cursor.document() != pivotDocument) {
+                        break;
+                    }
+                    termScore += cursor.score();
+                    cursor.next();
+                }
+                if (filter != null && !filter.get(pivotDocument)) {
+                    continue;
+                }
+                scored++;
+                float score = scorer.score(pivotDocument, termScore);
+                if (score > 0 && offer(heap, k, pivotDocument, score)) {
+                    threshold = heap.peek().score();
+                }
+            } else {
+                // No document before the pivot can enter the top k
+                for (int i = 0; i < pivot; i++) {
+                    active[i].advance(pivotDocument);
+                }
+            }
+        }
+
+        return new Result(sorted(heap), scored);
+    }
+
+    /**
+     * Top-k over a fixed, sorted candidate list such as the matches of a boolean query. The cursors
+     * only contribute scores and are advanced to each candidate, so the cost follows the candidates.
+     */
+    static Result scoreCandidates(int[] candidates, List<PostingCursor> cursors, DocumentScorer scorer, int k,
+                                  Deadline deadline) {
+        PriorityQueue<Hit> heap = new PriorityQueue<>(k + 1, WORST_FIRST);
+        int scored = 0;
+        for (int document : candidates) {
+            if ((++scored & (DEADLINE_CHECK_INTERVAL - 1)) == 0 && deadline.expired()) {
+                scored--;
+                break;
+            }
+            float termScore = 0f;
+            for (PostingCursor cursor : cursors) {
+                cursor.advance(document);
+                if (cursor.document() == document) {
+                    termScore += cursor.score();
+                }
+            }
+            offer(heap, k, document, scorer.score(document, termScore));
+        }
+        return new Result(sorted(heap), scored);
+    }
+
+    record Result(List<Hit> hits, int scoredDocuments) {}
+
+    /**
+     * @return true if the heap is full afterwards, so its head is the current threshold
+     */
+    private static boolean offer(PriorityQueue<Hit> heap, int k, int document, float score) {
+        if (heap.size() < k || score > heap.peek().score()) {
+            heap.add(new Hit(document, score));
+            if (heap.size() > k) {
+                heap.poll();
+            }
+            return heap.size() == k;
+        }
+        return false;
+    }
+
+    private static List<Hit> sorted(PriorityQueue<Hit> heap) {
+        List<Hit> hits = new ArrayList<>(heap);
+        hits.sort(WORST_FIRST.reversed());
+        return hits;
+    }
+
+    private static int findPivot(PostingCursor[] cursors, float extraBound, float threshold, boolean prune) {
+        float termBound = extraBound;
+        for (int i = 0; i < cursors.length; i++) {
+            if (cursors[i].document() == PostingCursor.NO_MORE_DOCS) {
+                return -1;
+            }
+            termBound += cursors[i].upperBound();
+            if (!prune || termBound > threshold) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Documents from the pivot up to the end of the shortest current block can only occur in the blocks
+     * the pivot cursors are in. If the block maxima cannot beat the threshold, returns the first document
+     * after that range, otherwise the pivot document itself.
+     */
+    private static int blockSkipTarget(PostingCursor[] cursors, int pivot, int pivotDocument,
+                                       float extraBound, float threshold) {
+        float termBound = extraBound;
+        long skipTarget = pivot + 1 < cursors.length ? cursors[pivot + 1].document() : PostingCursor.NO_MORE_DOCS;
+        for (int i = 0; i <= pivot; i++) {
+            PostingCursor cursor = cursors[i];
+            if (!cursor.shallowAdvance(pivotDocument)) {
+                continue;
+            }
+            termBound += cursor.blockUpperBound();
+            skipTarget = Math.min(skipTarget, cursor.blockLastDocument() + 1L);
+        }
+        return termBound > threshold ? pivotDocument : (int) skipTarget;
+    }
+
+    /**
+     * Insertion sort by document, then query order; cursors are nearly ordered after each step
+     */
+    private static void sortByDocument(PostingCursor[] cursors, int[] order) {
+        for (int i = 1; i < cursors.length; i++) {
+            PostingCursor cursor = cursors[i];
+            int position = order[i];
+            int document = cursor.document();
+            int j = i - 1;
+            while (j >= 0 && (cursors[j].document() > document
+                    || cursors[j].document() == document && order[j] > position)) {
+                cursors[j + 1] = cursors[j];
+                order[j + 1] = order[j];
+                j--;
+            }
+            cursors[j + 1] = cursor;
+            order[j + 1] = position;
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package ch.martinelli.jooqmcp.service;
 
+import ch.martinelli.jooqmcp.querylog.QueryLog;
+import ch.martinelli.jooqmcp.search.Deadline;
+import ch.martinelli.jooqmcp.search.ResponsePacker;
 import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,50 +16,72 @@ import java.util.stream.Collectors;
 public class JooqDocumentationService {
     
     private static final Logger logger = LoggerFactory.getLogger(JooqDocumentationService.class);
+    private static final String NOT_READY_MESSAGE = "The jOOQ documentation is still being indexed. Please try again in a few seconds.";
     private final LocalJooqDocumentationService localDocumentationService;
+    private final QueryLog queryLog;
+    private final Environment environment;
 
-    public JooqDocumentationService(LocalJooqDocumentationService localDocumentationService) {
+    public JooqDocumentationService(LocalJooqDocumentationService localDocumentationService, QueryLog queryLog,
+                                    Environment environment) {
         this.localDocumentationService = localDocumentationService;
+        this.queryLog = queryLog;
+        this.environment = environment;
     }
 
-    @Tool(description = "Search jOOQ documentation for specific topics, features, or SQL operations. Returns relevant documentation sections.")
+    /**
+     * Deadline from the tool's {@code jooq.tools.<tool>.budget-ms}, or the default {@code jooq.tools.budget-ms}
+     */
+    private Deadline deadline(String tool) {
+        long defaultBudget = environment.getProperty("jooq.tools.budget-ms", Long.class, 0L);
+        return Deadline.afterMillis(environment.getProperty("jooq.tools." + tool + ".budget-ms", Long.class, defaultBudget));
+    }
+
+    /**
+     * Response size from the tool's {@code jooq.tools.<tool>.response-bytes}, or the default {@code jooq.tools.response-bytes}
+     */
+    private int responseBytes(String tool) {
+        int defaultBytes = environment.getProperty("jooq.tools.response-bytes", Integer.class, 3000);
+        return environment.getProperty("jooq.tools." + tool + ".response-bytes", Integer.class, defaultBytes);
+    }
+
+    @Tool(description = "Search jOOQ documentation for specific topics, features, or SQL operations. Returns relevant documentation sections. "
+        + "Field scopes title:, breadcrumb:, content:, code:, -term or parentheses enable AND, OR, NOT between clauses "
+        + "(e.g. title:merge AND code:onConflict -oracle); other queries are plain keywords.")
     public String searchDocumentation(String query) {
-        logger.info("Searching jOOQ documentation for: {}", query);
+        long start = System.nanoTime();
+        logger.debug("Searching jOOQ documentation for: {}", query);
         
         if (query == null || query.trim().isEmpty()) {
             return "Please provide a search query to search the jOOQ documentation.";
         }
         
+        if (!localDocumentationService.awaitReady()) {
+            return NOT_READY_MESSAGE;
+        }
+        
         try {
-            List<LocalJooqDocumentationService.SearchResult> results = localDocumentationService.searchDocumentation(query);
+            boolean cacheHit = localDocumentationService.isCachedQuery(query);
+            LocalJooqDocumentationService.SearchResults searchResults =
+                localDocumentationService.searchDocumentation(query, deadline("searchDocumentation"));
+            List<LocalJooqDocumentationService.SearchResult> results = searchResults.results();
+            queryLog.record("searchDocumentation", query, start, results.size(), cacheHit);
             
             if (results.isEmpty()) {
                 return String.format("No results found for '%s' in jOOQ documentation. Try different keywords.", query);
             }
             
-            StringBuilder response = new StringBuilder();
-            response.append(String.format("Found %d results for '%s':\n\n", results.size(), query));
-            
-            for (int i = 0; i < Math.min(3, results.size()); i++) {
-                LocalJooqDocumentationService.SearchResult result = results.get(i);
-                response.append(String.format("%d. **%s**\n", i + 1, result.getTitle()));
-                
-                // Limit content size to prevent buffer overflow
-                String content = result.getContent();
-                if (content.length() > 300) {
-                    content = content.substring(0, 300) + "...";
-                }
-                response.append(String.format("   %s\n", content));
-                response.append(String.format("   Section: %s\n\n", result.getSection()));
-                
-                // Prevent response from getting too large
-                if (response.length() > 2000) {
-                    response.append("[Additional results truncated - try more specific search terms]\n");
-                    break;
-                }
+            StringBuilder header = new StringBuilder();
+            header.append(String.format("Found %d results for '%s':\n\n", results.size(), query));
+            if (searchResults.partial()) {
+                header.append("[Partial results - the search time budget ran out, try more specific search terms]\n\n");
             }
             
-            return response.toString();
+            // Fill the response with the best passages across all results rather than a fixed cut per result
+            List<ResponsePacker.Source> sources = results.stream()
+                .map(result -> new ResponsePacker.Source(result.getTitle(), result.getSection(),
+                    result.getPassages(), result.getMatchedTerms()))
+                .toList();
+            return ResponsePacker.pack(header.toString(), sources, responseBytes("searchDocumentation"));
         } catch (Exception e) {
             logger.error("Error searching documentation", e);
             return "Error searching jOOQ documentation. Please try again later.";
@@ -64,14 +90,21 @@ public class JooqDocumentationService {
 
     @Tool(description = "Get SQL query building examples for a specific topic (e.g., SELECT, INSERT, UPDATE, DELETE, JOIN, subqueries)")
     public String getSqlExamples(String topic) {
-        logger.info("Getting SQL examples for topic: {}", topic);
+        long start = System.nanoTime();
+        logger.debug("Getting SQL examples for topic: {}", topic);
         
         if (topic == null || topic.trim().isEmpty()) {
             return "Please specify a SQL topic (e.g., SELECT, INSERT, UPDATE, DELETE, JOIN).";
         }
         
+        if (!localDocumentationService.awaitReady()) {
+            return NOT_READY_MESSAGE;
+        }
+        
         try {
             List<LocalJooqDocumentationService.CodeExample> examples = localDocumentationService.getCodeExamples(topic);
+            // Examples are read from the index, there is no result cache to hit
+            queryLog.record("getSqlExamples", topic, start, examples.size(), false);
             
             if (examples.isEmpty()) {
                 return String.format("No SQL examples found for '%s'. Try different keywords like SELECT, INSERT, UPDATE, DELETE, JOIN.", topic);
@@ -121,10 +154,17 @@ public class JooqDocumentationService {
 
     @Tool(description = "Get jOOQ code generation guide and configuration examples")
     public String getCodeGenerationGuide() {
-        logger.info("Fetching jOOQ code generation guide");
+        long start = System.nanoTime();
+        logger.debug("Fetching jOOQ code generation guide");
+        
+        if (!localDocumentationService.awaitReady()) {
+            return NOT_READY_MESSAGE;
+        }
         
         try {
-            String content = localDocumentationService.getDocumentationContent("code generation");
+            boolean cacheHit = localDocumentationService.isCachedResponse(LocalJooqDocumentationService.CONTENT_NAMESPACE, "code generation");
+            String content = localDocumentationService.getDocumentationContent("code generation", deadline("getCodeGenerationGuide"));
+            queryLog.record("getCodeGenerationGuide", "", start, resultCount(content), cacheHit);
             // Ensure content doesn't exceed safe limits
             if (content.length() > 3000) {
                 content = """
@@ -139,22 +179,23 @@ public class JooqDocumentationService {
         }
     }
 
-    @Tool(description = "Get database-specific support information and SQL dialect details for a specific database (e.g., MySQL, PostgreSQL, Oracle, SQL Server)")
+    @Tool(description = "Get database-specific support information and SQL dialect details for a specific database (e.g., MySQL, PostgreSQL, Oracle, SQL Server). Also compares dialects for a feature, e.g. 'PostgreSQL vs Oracle for MERGE'")
     public String getDatabaseSupport(String database) {
-        logger.info("Getting database support information for: {}", database);
+        long start = System.nanoTime();
+        logger.debug("Getting database support information for: {}", database);
         
         if (database == null || database.trim().isEmpty()) {
             return "Please specify a database name (e.g., MySQL, PostgreSQL, Oracle, SQL Server).";
         }
         
+        if (!localDocumentationService.awaitReady()) {
+            return NOT_READY_MESSAGE;
+        }
+        
         try {
-            String searchTerm = database + " dialect";
-            String content = localDocumentationService.getDocumentationContent(searchTerm);
-            
-            if (content.startsWith("No documentation found")) {
-                // Try alternative search terms
-                content = localDocumentationService.getDocumentationContent(database);
-            }
+            boolean cacheHit = localDocumentationService.isCachedResponse(LocalJooqDocumentationService.DATABASE_NAMESPACE, database);
+            String content = localDocumentationService.getDatabaseSupport(database);
+            queryLog.record("getDatabaseSupport", database, start, resultCount(content), cacheHit);
             
             // Ensure content doesn't exceed safe limits
             if (content.length() > 3000) {
@@ -173,20 +214,29 @@ public class JooqDocumentationService {
 
     @Tool(description = "Get jOOQ Query DSL reference for specific query types (e.g., SELECT, INSERT, UPDATE, DELETE, MERGE)")
     public String getQueryDslReference(String queryType) {
-        logger.info("Getting Query DSL reference for: {}", queryType);
+        long start = System.nanoTime();
+        logger.debug("Getting Query DSL reference for: {}", queryType);
         
         if (queryType == null || queryType.trim().isEmpty()) {
             return "Please specify a query type (e.g., SELECT, INSERT, UPDATE, DELETE, MERGE).";
         }
         
+        if (!localDocumentationService.awaitReady()) {
+            return NOT_READY_MESSAGE;
+        }
+        
         try {
+            Deadline deadline = deadline("getQueryDslReference");
             String searchTerm = queryType + " statement";
-            String content = localDocumentationService.getDocumentationContent(searchTerm);
+            boolean cacheHit = localDocumentationService.isCachedResponse(LocalJooqDocumentationService.CONTENT_NAMESPACE, searchTerm);
+            String content = localDocumentationService.getDocumentationContent(searchTerm, deadline);
             
             if (content.startsWith("No documentation found")) {
                 // Try alternative search terms
-                content = localDocumentationService.getDocumentationContent(queryType);
+                cacheHit = cacheHit && localDocumentationService.isCachedResponse(LocalJooqDocumentationService.CONTENT_NAMESPACE, queryType);
+                content = localDocumentationService.getDocumentationContent(queryType, deadline);
             }
+            queryLog.record("getQueryDslReference", queryType, start, resultCount(content), cacheHit);
             
             // Ensure content doesn't exceed safe limits
             if (content.length() > 3000) {
@@ -202,14 +252,21 @@ public class JooqDocumentationService {
 
     @Tool(description = "Get information about jOOQ's advanced features like transactions, stored procedures, or batch operations")
     public String getAdvancedFeatures(String feature) {
-        logger.info("Getting advanced feature documentation for: {}", feature);
+        long start = System.nanoTime();
+        logger.debug("Getting advanced feature documentation for: {}", feature);
         
         if (feature == null || feature.trim().isEmpty()) {
             return "Please specify an advanced feature (e.g., transactions, stored procedures, batch operations).";
         }
         
+        if (!localDocumentationService.awaitReady()) {
+            return NOT_READY_MESSAGE;
+        }
+        
         try {
-            String content = localDocumentationService.getDocumentationContent(feature);
+            boolean cacheHit = localDocumentationService.isCachedResponse(LocalJooqDocumentationService.CONTENT_NAMESPACE, feature);
+            String content = localDocumentationService.getDocumentationContent(feature, deadline("getAdvancedFeatures"));
+            queryLog.record("getAdvancedFeatures", feature, start, resultCount(content), cacheHit);
             
             // Ensure content doesn't exceed safe limits
             if (content.length() > 3000) {
@@ -222,4 +279,79 @@ public class JooqDocumentationService {
             return String.format("Error fetching documentation for '%s'. Common advanced features include: transactions, stored procedures, batch operations, streaming, reactive execution.", feature);
         }
     }
-}
\ No newline at end of file
+
+    @Tool(description = "Get the outline of a jOOQ manual chapter or section (e.g., 'SQL building', 'The SELECT statement'), listing its parent, subsections and sibling sections. Leave empty for the top-level chapters.")
+    public String getSectionTree(String section) {
+        long start = System.nanoTime();
+        logger.debug("Getting section tree for: {}", section);
+        
+        if (!localDocumentationService.awaitReady()) {
+            return NOT_READY_MESSAGE;
+        }
+        
+        try {
+            boolean cacheHit = localDocumentationService.isCachedResponse(LocalJooqDocumentationService.OUTLINE_NAMESPACE, section);
+            String outline = localDocumentationService.getSectionOutline(section);
+            queryLog.record("getSectionTree", section, start, resultCount(outline), cacheHit);
+            return outline;
+        } catch (Exception e) {
+            logger.error("Error fetching section tree", e);
+            return String.format("Error fetching the outline for '%s'. Leave the section empty to list the top-level chapters.", section);
+        }
+    }
+
+    @Tool(description = "Get jOOQ manual sections related to a topic or section title, to explore neighbouring material without new searches")
+    public String getRelatedSections(String topic) {
+        long start = System.nanoTime();
+        logger.debug("Getting related sections for: {}", topic);
+        
+        if (topic == null || topic.trim().isEmpty()) {
+            return "Please specify a topic or section title (e.g., The SELECT statement, transactions).";
+        }
+        
+        if (!localDocumentationService.awaitReady()) {
+            return NOT_READY_MESSAGE;
+        }
+        
+        try {
+            boolean cacheHit = localDocumentationService.isCachedResponse(LocalJooqDocumentationService.RELATED_NAMESPACE, topic);
+            String related = localDocumentationService.getRelatedSections(topic);
+            queryLog.record("getRelatedSections", topic, start, resultCount(related), cacheHit);
+            return related;
+        } catch (Exception e) {
+            logger.error("Error fetching related sections", e);
+            return String.format("Error fetching related sections for '%s'. Please try a different topic.", topic);
+        }
+    }
+
+    @Tool(description = "Get the cross-references of a jOOQ manual section: the sections it links to and the sections linking to it. Accepts a section title, anchor id (e.g., 'the-select-statement') or topic.")
+    public String getSectionReferences(String section) {
+        long start = System.nanoTime();
+        logger.debug("Getting section references for: {}", section);
+        
+        if (section == null || section.trim().isEmpty()) {
+            return "Please specify a section title or anchor id (e.g., The SELECT statement, the-where-clause).";
+        }
+        
+        if (!localDocumentationService.awaitReady()) {
+            return NOT_READY_MESSAGE;
+        }
+        
+        try {
+            boolean cacheHit = localDocumentationService.isCachedResponse(LocalJooqDocumentationService.REFERENCES_NAMESPACE, section);
+            String references = localDocumentationService.getSectionReferences(section);
+            queryLog.record("getSectionReferences", section, start, resultCount(references), cacheHit);
+            return references;
+        } catch (Exception e) {
+            logger.error("Error fetching section references", e);
+            return String.format("Error fetching references for '%s'. Please try a section title.", section);
+        }
+    }
+
+    /**
+     * 1 for a documentation answer, 0 for a "nothing found" message
+     */
+    private static int resultCount(String content) {
+        return content.startsWith("No ") ? 0 : 1;
+    }
+}
@@ -1,11 +1,41 @@
 package ch.martinelli.jooqmcp.service;
 
+import ch.martinelli.jooqmcp.cache.DiskResultCache;
+import ch.martinelli.jooqmcp.cache.SingleFlight;
+import ch.martinelli.jooqmcp.memory.MemoryPressure;
+import ch.martinelli.jooqmcp.memory.MemoryPressureListener;
+import ch.martinelli.jooqmcp.querylog.QueryLogAnalyzer;
+import ch.martinelli.jooqmcp.search.BooleanQuery;
+import ch.martinelli.jooqmcp.search.Deadline;
+import ch.martinelli.jooqmcp.search.DialectSupportMatrix;
+import ch.martinelli.jooqmcp.search.DialectSupportMatrix.Dialect;
+import ch.martinelli.jooqmcp.search.HeadTerms;
 import ch.martinelli.jooqmcp.search.InvertedIndex;
+import ch.martinelli.jooqmcp.search.LinkGraph;
+import ch.martinelli.jooqmcp.search.LuceneSearchEngine;
+import ch.martinelli.jooqmcp.search.PassageIndex;
+import ch.martinelli.jooqmcp.search.PassageIndex.Passage;
+import ch.martinelli.jooqmcp.search.PassageIndex.ScoredPassage;
+import ch.martinelli.jooqmcp.search.RelatedSections;
+import ch.martinelli.jooqmcp.search.SearchEngine;
+import ch.martinelli.jooqmcp.search.SectionTree;
+import ch.martinelli.jooqmcp.search.SemanticIndex;
+import ch.martinelli.jooqmcp.search.ShardedIndex;
+import ch.martinelli.jooqmcp.search.SimHash;
+import ch.martinelli.jooqmcp.search.TitleIndex;
+import ch.martinelli.jooqmcp.util.SynonymGraph;
 import ch.martinelli.jooqmcp.util.TextProcessor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
 import org.jsoup.select.Elements;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,25 +43,110 @@ import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Component
-public class LocalJooqDocumentationService {
+public class LocalJooqDocumentationService implements MemoryPressureListener {
 
     private static final Logger logger = LoggerFactory.getLogger(LocalJooqDocumentationService.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private final DiskResultCache diskCache;
+    // Identical concurrent searches missing the cache are ranked once
+    private final SingleFlight<SearchResults> searchFlight;
     
     @Value("classpath:docs/manual-single-page.html")
     private Resource documentationFile;
     
-    private final Map<String, DocumentationSection> sectionsByTitle = new ConcurrentHashMap<>();
+    @Value("${jooq.documentation.search.shards:0}")
+    private int searchShards;
+    
+    @Value("${jooq.documentation.search.engine:builtin}")
+    private String searchEngine;
+    
+    @Value("${jooq.documentation.search.lucene.directory:}")
+    private String luceneDirectory;
+    
+    @Value("${jooq.documentation.search.synonyms:classpath:synonyms.txt}")
+    private Resource synonymsFile;
+    
+    @Value("${jooq.documentation.startup.max-wait-ms:10000}")
+    private long startupMaxWaitMillis;
+    
+    @Value("${jooq.documentation.warmup.queries:}")
+    private List<String> warmupQueries;
+    
+    @Value("${jooq.documentation.warmup.query-log-queries:50}")
+    private int warmupQueryLogQueries;
+    
+    @Value("${jooq.documentation.warmup.iterations:20}")
+    private int warmupIterations;
+    
+    @Value("${jooq.documentation.warmup.max-ms:15000}")
+    private long warmupMaxMillis;
+    
+    @Value("${jooq.query-log.directory:${java.io.tmpdir}/jooq-mcp}")
+    private String queryLogDirectory;
+    
+    public enum IndexState { LOADING, WARMING_UP, READY, FAILED }
+    
+    // Disk cache namespaces
+    private static final String SEARCH_NAMESPACE = "search";
+    public static final String CONTENT_NAMESPACE = "content";
+    public static final String DATABASE_NAMESPACE = "database";
+    public static final String RELATED_NAMESPACE = "related";
+    public static final String OUTLINE_NAMESPACE = "outline";
+    public static final String REFERENCES_NAMESPACE = "references";
+    
+    // Completed once the documentation is indexed and the warm-up has run
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+    private volatile IndexState state = IndexState.LOADING;
+    
+    private final List<DocumentationSection> sections = new ArrayList<>();
+    private final Map<DocumentationSection, Integer> sectionOrdinals = new IdentityHashMap<>();
+    private TitleIndex titleIndex;
+    private SectionTree sectionTree;
+    private DialectSupportMatrix dialectMatrix;
+    private RelatedSections relatedSections;
+    private LinkGraph linkGraph;
+    // Element id -> ordinal of the section containing the element
+    private final Map<String, Integer> anchorOrdinals = new HashMap<>();
     private final Map<String, List<CodeExample>> codeExamplesByTopic = new ConcurrentHashMap<>();
-    private final InvertedIndex searchIndex = new InvertedIndex();
+    private volatile SearchEngine searchIndex;
+    private SemanticIndex semanticIndex;
+    private volatile PassageIndex passageIndex;
     private final Map<String, List<SearchResult>> searchCache = new ConcurrentHashMap<>();
+    // Ranked results for the most common single-term queries, computed once at startup
+    private volatile Map<String, List<SearchResult>> headTermResults = Map.of();
+    private static final int HEAD_TERMS = 64;
+    private static final int SURFACE_FORMS_PER_HEAD_TERM = 2;
     private static final int MAX_CACHE_SIZE = 50;
+    private volatile MemoryPressure memoryPressure = MemoryPressure.NORMAL;
     private static final int MAX_CONTENT_LENGTH = 5000;
+    // Reciprocal rank fusion of lexical and semantic result lists
+    private static final int RRF_RANK_OFFSET = 60;
+    private static final double SEMANTIC_WEIGHT = 0.5;
+    // Passages ranked per search, attached to the result sections they belong to
+    private static final int PASSAGE_CANDIDATES = 40;
+    // References listed per direction by the references tool
+    private static final int MAX_REFERENCES = 25;
+    private static final Set<String> DIALECT_REQUEST_FILLER = Set.of(
+        "vs", "versus", "compare", "comparison", "for", "and", "or", "with", "which", "what", "does",
+        "do", "support", "supports", "supported", "feature", "features", "dialect", "dialects", "database", "sql"
+    );
 
     public static class DocumentationSection {
         private final String id;
@@ -80,17 +195,24 @@ public class LocalJooqDocumentationService {
         private final String section;
         private final double relevanceScore;
         private final Set<String> matchedTerms;
+        private final List<ScoredPassage> passages;
 
         public SearchResult(String title, String content, String section, double relevanceScore) {
             this(title, content, section, relevanceScore, Collections.emptySet());
         }
         
         public SearchResult(String title, String content, String section, double relevanceScore, Set<String> matchedTerms) {
+            this(title, content, section, relevanceScore, matchedTerms, Collections.emptyList());
+        }
+        
+        public SearchResult(String title, String content, String section, double relevanceScore, Set<String> matchedTerms,
+                            List<ScoredPassage> passages) {
             this.title = title;
             this.content = content;
             this.section = section;
             this.relevanceScore = relevanceScore;
             this.matchedTerms = matchedTerms != null ? matchedTerms : Collections.emptySet();
+            this.passages = passages != null ? passages : Collections.emptyList();
         }
 
         public String getTitle() { return title; }
@@ -98,36 +220,161 @@ public class LocalJooqDocumentationService {
         public String getSection() { return section; }
         public double getRelevanceScore() { return relevanceScore; }
         public Set<String> getMatchedTerms() { return matchedTerms; }
+        /**
+         * Matching passages of the section, best first, to pack responses from
+         */
+        public List<ScoredPassage> getPassages() { return passages; }
+    }
+
+    /**
+     * Search results, partial if the time budget ran out before all stages completed
+     */
+    public record SearchResults(List<SearchResult> results, boolean partial) {}
+
+    /**
+     * Search result as persisted in the disk cache
+     */
+    private record PersistedResult(String title, String content, String section, double relevanceScore,
+                                   Set<String> matchedTerms, List<ScoredPassage> passages) {}
+
+    public LocalJooqDocumentationService(DiskResultCache diskCache, MeterRegistry meterRegistry) {
+        this.diskCache = diskCache;
+        this.searchFlight = new SingleFlight<>("searchDocumentation", meterRegistry);
     }
 
+    /**
+     * Index the documentation in the background, so the context and the health endpoint are up
+     * immediately. Readiness is reported through {@link #getState()} until {@link #awaitReady()} succeeds.
+     */
     @PostConstruct
     public void initialize() {
+        Thread indexer = new Thread(() -> {
+            try {
+                loadDocumentation();
+                state = IndexState.WARMING_UP;
+                warmUp();
+                state = IndexState.READY;
+                ready.complete(null);
+            } catch (Throwable t) {
+                // Errors as well, e.g. running out of memory, or tool calls would wait for a load that never ends
+                logger.error("Failed to index the documentation", t);
+                state = IndexState.FAILED;
+                ready.completeExceptionally(t);
+            }
+        }, "documentation-indexer");
+        indexer.setDaemon(true);
+        indexer.start();
+    }
+    
+    private void loadDocumentation() {
         try {
             logger.info("Loading jOOQ documentation from local HTML file...");
             long startTime = System.currentTimeMillis();
             
-            Document fullDocument = Jsoup.parse(documentationFile.getInputStream(), "UTF-8", "");
+            byte[] manual = documentationFile.getInputStream().readAllBytes();
+            byte[] synonymRules = synonymsFile.exists() ? synonymsFile.getInputStream().readAllBytes() : new byte[0];
+            SynonymGraph synonyms = SynonymGraph.load(new ByteArrayInputStream(synonymRules));
+            Document fullDocument = Jsoup.parse(new ByteArrayInputStream(manual), "UTF-8", "");
             parseDocumentSections(fullDocument);
-            buildInvertedIndex();
+            titleIndex = new TitleIndex(sections);
+            sectionTree = new SectionTree(sections);
+            dialectMatrix = new DialectSupportMatrix(sections);
+            relatedSections = new RelatedSections(sections);
+            buildInvertedIndex(synonyms);
+            semanticIndex = new SemanticIndex(searchIndex);
+            passageIndex = new PassageIndex(sections, synonyms);
+            precomputeHeadTermResults();
+            // Cached results depend on the synonyms as much as on the manual
+            diskCache.open(contentHash(manual, synonymRules));
             
             // Clear the document to free memory after parsing
             fullDocument = null;
             System.gc();
             
             long loadTime = System.currentTimeMillis() - startTime;
-            Map<String, Object> indexStats = searchIndex.getStatistics();
+            Map<String, Object> indexStats = new HashMap<>(searchIndex.getStatistics());
+            indexStats.putAll(semanticIndex.getStatistics());
+            indexStats.put("passages", passageIndex.getPassageCount());
+            indexStats.put("crossReferences", linkGraph.getEdgeCount());
+            indexStats.put("headTermQueries", headTermResults.size());
             logger.info("Documentation loaded successfully in {}ms. Found {} sections with {} code examples. Index stats: {}", 
-                loadTime, sectionsByTitle.size(), codeExamplesByTopic.values().stream().mapToInt(List::size).sum(), indexStats);
+                loadTime, sections.size(), codeExamplesByTopic.values().stream().mapToInt(List::size).sum(), indexStats);
             
         } catch (IOException e) {
             logger.error("Failed to load documentation file", e);
             throw new RuntimeException("Cannot initialize documentation service", e);
         }
     }
+    
+    /**
+     * Replay representative queries so the search path is JIT compiled before traffic arrives: the
+     * most frequent searches of the query log from previous runs plus the configured warm-up queries.
+     * Results are not cached.
+     */
+    private void warmUp() {
+        Set<String> queries = new LinkedHashSet<>();
+        try {
+            queries.addAll(QueryLogAnalyzer.topArguments(Path.of(queryLogDirectory), "searchDocumentation", warmupQueryLogQueries));
+        } catch (IOException e) {
+            logger.warn("Cannot read warm-up queries from the query log: {}", e.getMessage());
+        }
+        warmupQueries.stream().map(String::trim).filter(query -> !query.isEmpty()).forEach(queries::add);
+        if (queries.isEmpty() || warmupIterations <= 0) {
+            return;
+        }
+        
+        long startTime = System.currentTimeMillis();
+        long deadline = startTime + warmupMaxMillis;
+        int replayed = 0;
+        for (int i = 0; i < warmupIterations && System.currentTimeMillis() < deadline; i++) {
+            for (String query : queries) {
+                rankResults(normalizeQuery(query), Deadline.NONE);
+                resolveSection(query, Deadline.NONE);
+                replayed++;
+            }
+        }
+        logger.info("Warmed up with {} query replays of {} distinct queries in {}ms", 
+            replayed, queries.size(), System.currentTimeMillis() - startTime);
+    }
+    
+    public IndexState getState() {
+        return state;
+    }
+    
+    public boolean isReady() {
+        return state == IndexState.READY;
+    }
+    
+    /**
+     * Wait a bounded time for the documentation to be indexed
+     *
+     * @return whether the documentation is ready, false if indexing failed or is still running
+     */
+    public boolean awaitReady() {
+        if (ready.isDone()) {
+            return !ready.isCompletedExceptionally();
+        }
+        try {
+            ready.get(startupMaxWaitMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+    
+    private void requireReady() {
+        if (!awaitReady()) {
+            throw new IllegalStateException("The documentation index is not ready (" + state + ")");
+        }
+    }
 
     private void parseDocumentSections(Document fullDocument) {
         Elements headers = fullDocument.select("h1, h2, h3, h4, h5, h6");
         List<String> breadcrumbStack = new ArrayList<>();
+        Map<Element, Integer> headerOrdinals = new IdentityHashMap<>();
         
         for (Element header : headers) {
             int level = Integer.parseInt(header.tagName().substring(1));
@@ -150,8 +397,71 @@ public class LocalJooqDocumentationService {
             // Extract code examples from this section
             extractCodeExamples(header, section);
             
-            sectionsByTitle.put(title.toLowerCase(), section);
+            headerOrdinals.put(header, sections.size());
+            sectionOrdinals.put(section, sections.size());
+            sections.add(section);
         }
+        indexAnchors(fullDocument, headerOrdinals);
+        linkGraph = buildLinkGraph(headerOrdinals);
+    }
+    
+    /**
+     * Record the enclosing section of every element id in one pass in document order. An element
+     * belongs to the closest header before it among its own and its ancestors' siblings, so the
+     * section of each tree level is carried down to the children.
+     */
+    private void indexAnchors(Document fullDocument, Map<Element, Integer> headerOrdinals) {
+        // Section of the current position per depth, null before the first header
+        List<Integer> enclosing = new ArrayList<>();
+        NodeTraversor.traverse(new NodeVisitor() {
+            @Override
+            public void head(Node node, int depth) {
+                if (!(node instanceof Element element)) {
+                    return;
+                }
+                if (enclosing.size() <= depth) {
+                    enclosing.add(depth > 0 ? enclosing.get(depth - 1) : null);
+                }
+                Integer header = headerOrdinals.get(element);
+                if (header != null) {
+                    enclosing.set(depth, header);
+                }
+                Integer ordinal = enclosing.get(depth);
+                if (ordinal != null && !element.id().isEmpty()) {
+                    anchorOrdinals.putIfAbsent(element.id(), ordinal);
+                }
+            }
+            
+            @Override
+            public void tail(Node node, int depth) {
+                if (node instanceof Element && enclosing.size() > depth + 1) {
+                    enclosing.subList(depth + 1, enclosing.size()).clear();
+                }
+            }
+        }, fullDocument);
+    }
+    
+    /**
+     * Link graph of the {@code <a href="#...">} cross-references between sections. A link belongs to
+     * the section whose content contains it; its target is the section containing the anchor.
+     */
+    private LinkGraph buildLinkGraph(Map<Element, Integer> headerOrdinals) {
+        int[][] outbound = new int[headerOrdinals.size()][];
+        for (Map.Entry<Element, Integer> entry : headerOrdinals.entrySet()) {
+            List<Integer> targets = new ArrayList<>();
+            Element nextElement = entry.getKey().nextElementSibling();
+            while (nextElement != null && !nextElement.tagName().matches("h[1-6]")) {
+                for (Element link : nextElement.select("a[href^=#]")) {
+                    Integer target = anchorOrdinals.get(link.attr("href").substring(1));
+                    if (target != null) {
+                        targets.add(target);
+                    }
+                }
+                nextElement = nextElement.nextElementSibling();
+            }
+            outbound[entry.getValue()] = targets.stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new LinkGraph(outbound);
     }
 
     private String extractSectionContent(Element header) {
@@ -253,44 +563,87 @@ public class LocalJooqDocumentationService {
     }
 
     
-    private void buildInvertedIndex() {
-        // Add all sections to the inverted index
-        for (DocumentationSection section : sectionsByTitle.values()) {
-            searchIndex.addDocument(section);
+    private void buildInvertedIndex(SynonymGraph synonyms) {
+        // Add all sections to the inverted index, partitioned across the search shards. Sections are
+        // added by descending link rank, so postings list the most referenced sections first.
+        searchIndex = createSearchEngine(synonyms);
+        for (int ordinal : linkGraph.impactOrder()) {
+            searchIndex.addDocument(sections.get(ordinal), linkGraph.staticScore(ordinal));
+        }
+        searchIndex.build();
+    }
+    
+    /**
+     * Search engine selected by {@code jooq.documentation.search.engine}
+     */
+    private SearchEngine createSearchEngine(SynonymGraph synonyms) {
+        return switch (searchEngine.trim().toLowerCase()) {
+            case "builtin" -> new ShardedIndex(searchShards, synonyms);
+            // A shared default directory would be rewritten by every instance on the host
+            case "lucene" -> luceneDirectory.isBlank()
+                ? new LuceneSearchEngine(synonyms)
+                : new LuceneSearchEngine(Path.of(luceneDirectory), synonyms);
+            default -> throw new IllegalStateException("Unknown search engine '" + searchEngine + "', expected builtin or lucene");
+        };
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (searchIndex != null) {
+            searchIndex.close();
         }
     }
 
     public List<SearchResult> searchDocumentation(String query) {
+        return searchDocumentation(query, Deadline.NONE).results();
+    }
+    
+    /**
+     * Search within a time budget. Once the deadline expires the remaining stages are cut short and the
+     * best results found so far are returned as partial; partial results are not cached.
+     */
+    public SearchResults searchDocumentation(String query, Deadline deadline) {
         if (query == null || query.trim().isEmpty()) {
-            return Collections.emptyList();
+            return new SearchResults(Collections.emptyList(), false);
         }
+        requireReady();
         
-        String normalizedQuery = query.toLowerCase().trim();
+        String normalizedQuery = normalizeQuery(query);
+        
+        // Head terms are answered from the precomputed lists without scoring
+        List<SearchResult> headTermResult = headTermResults.get(normalizedQuery);
+        if (headTermResult != null) {
+            return new SearchResults(headTermResult, false);
+        }
         
         // Check cache first
         List<SearchResult> cachedResults = searchCache.get(normalizedQuery);
         if (cachedResults != null) {
-            return cachedResults;
+            return new SearchResults(cachedResults, false);
         }
         
-        // Use advanced search with inverted index
-        List<InvertedIndex.SearchMatch> matches = searchIndex.search(query, 10);
-        
-        List<SearchResult> results = matches.stream()
-            .map(match -> {
-                DocumentationSection section = match.getDocument().getSection();
-                String snippet = createEnhancedSnippet(section.getContent(), normalizedQuery, match.getMatchedTerms());
-                return new SearchResult(section.getTitle(), snippet, section.getBreadcrumb(), 
-                                     match.getScore(), match.getMatchedTerms());
-            })
-            .toList();
+        // Results cut short by another caller's budget are only shared with callers out of time themselves
+        return searchFlight.execute(normalizedQuery, () -> searchAndCache(normalizedQuery, deadline),
+            shared -> !shared.partial() || deadline.expired());
+    }
+    
+    private SearchResults searchAndCache(String normalizedQuery, Deadline deadline) {
+        // Then the results persisted by a previous run
+        List<SearchResult> results = persistedResults(normalizedQuery);
+        if (results == null) {
+            results = rankResults(normalizedQuery, deadline);
+            if (deadline.isExhausted()) {
+                return new SearchResults(results, true);
+            }
+            persistResults(normalizedQuery, results);
+        }
         
         // Cache results for frequently searched terms
         if (!results.isEmpty()) {
             searchCache.put(normalizedQuery, results);
             
-            // Limit cache size more aggressively
-            if (searchCache.size() > MAX_CACHE_SIZE) {
+            // Limit cache size more aggressively, the limit halves with every memory pressure level
+            if (searchCache.size() > cacheLimit()) {
                 // Remove half of the cache entries when limit is reached
                 Iterator<String> iterator = searchCache.keySet().iterator();
                 int toRemove = searchCache.size() / 2;
@@ -302,45 +655,254 @@ public class LocalJooqDocumentationService {
             }
         }
         
-        return results;
+        return new SearchResults(results, false);
     }
 
-    private List<DocumentationSection> searchSections(String query, int limit) {
-        String lowerQuery = query.toLowerCase();
+    private int cacheLimit() {
+        return MAX_CACHE_SIZE >> memoryPressure.ordinal();
+    }
+    
+    /**
+     * Give memory back: shrink the search cache to the reduced limit and release the per-document
+     * token and phrase sets under elevated pressure, drop the whole search cache when critical
+     */
+    @Override
+    public void onMemoryPressure(MemoryPressure pressure) {
+        memoryPressure = pressure;
+        if (pressure == MemoryPressure.NORMAL) {
+            return;
+        }
+        if (pressure == MemoryPressure.CRITICAL) {
+            searchCache.clear();
+        } else {
+            Iterator<String> iterator = searchCache.keySet().iterator();
+            int toRemove = searchCache.size() - cacheLimit();
+            while (iterator.hasNext() && toRemove > 0) {
+                iterator.next();
+                iterator.remove();
+                toRemove--;
+            }
+        }
+        SearchEngine index = searchIndex;
+        if (index != null) {
+            index.releaseDerivedData();
+        }
+        PassageIndex passages = passageIndex;
+        if (passages != null) {
+            passages.releaseDerivedData();
+        }
+    }
+    
+    /**
+     * Whether a search would be answered from the precomputed head term lists or the search cache
+     */
+    public boolean isCachedQuery(String query) {
+        if (query == null || query.trim().isEmpty() || !isReady()) {
+            return false;
+        }
+        String normalizedQuery = normalizeQuery(query);
+        return headTermResults.containsKey(normalizedQuery) || searchCache.containsKey(normalizedQuery)
+            || diskCache.contains(SEARCH_NAMESPACE, normalizedQuery);
+    }
+    
+    /**
+     * Whether a rendered tool response for the request is stored in the disk cache
+     */
+    public boolean isCachedResponse(String namespace, String key) {
+        return isReady() && diskCache.contains(namespace, key == null ? "" : key.trim());
+    }
+    
+    private List<SearchResult> persistedResults(String normalizedQuery) {
+        String json = diskCache.get(SEARCH_NAMESPACE, normalizedQuery);
+        if (json == null) {
+            return null;
+        }
+        try {
+            List<PersistedResult> persisted = objectMapper.readValue(json, new TypeReference<List<PersistedResult>>() {});
+            return persisted.stream()
+                .map(result -> new SearchResult(result.title(), result.content(), result.section(),
+                    result.relevanceScore(), result.matchedTerms(), result.passages()))
+                .toList();
+        } catch (JsonProcessingException e) {
+            logger.warn("Ignoring unreadable cached results for '{}': {}", normalizedQuery, e.getMessage());
+            return null;
+        }
+    }
+    
+    private void persistResults(String normalizedQuery, List<SearchResult> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        List<PersistedResult> persisted = results.stream()
+            .map(result -> new PersistedResult(result.getTitle(), result.getContent(), result.getSection(),
+                result.getRelevanceScore(), result.getMatchedTerms(), result.getPassages()))
+            .toList();
+        try {
+            diskCache.put(SEARCH_NAMESPACE, normalizedQuery, objectMapper.writeValueAsString(persisted));
+        } catch (JsonProcessingException e) {
+            logger.warn("Cannot persist results for '{}': {}", normalizedQuery, e.getMessage());
+        }
+    }
+    
+    /**
+     * Rendered response from the disk cache, or rendered and persisted for the next run
+     */
+    private String cachedResponse(String namespace, String key, Supplier<String> renderer) {
+        return cachedResponse(namespace, key, Deadline.NONE, renderer);
+    }
+    
+    private String cachedResponse(String namespace, String key, Deadline deadline, Supplier<String> renderer) {
+        String normalizedKey = key == null ? "" : key.trim();
+        String cached = diskCache.get(namespace, normalizedKey);
+        if (cached != null) {
+            return cached;
+        }
+        String response = renderer.get();
+        // A response rendered after the deadline may be worse than the complete one
+        if (!deadline.isExhausted()) {
+            diskCache.put(namespace, normalizedKey, response);
+        }
+        return response;
+    }
+    
+    /**
+     * Short hex digest of the manual and the synonyms, part of the disk cache key
+     */
+    private static String contentHash(byte[]... contents) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (byte[] content : contents) {
+                digest.update(content);
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    static String normalizeQuery(String query) {
+        // Operators are case sensitive, so structured queries are not lower cased
+        return BooleanQuery.isStructured(query) ? query.trim() : query.toLowerCase().trim();
+    }
+    
+    /**
+     * Combine keyword search on the inverted index with semantic search, then attach the best matching
+     * passages of every result section
+     */
+    private List<SearchResult> rankResults(String normalizedQuery, Deadline deadline) {
+        List<HybridMatch> matches = hybridSearch(normalizedQuery, 10, deadline);
+        
+        // Out of time, fall back to the start of each section instead of ranking passages
+        Map<Integer, List<ScoredPassage>> passagesBySection = new HashMap<>();
+        if (!deadline.expired()) {
+            for (ScoredPassage passage : passageIndex.search(normalizedQuery, PASSAGE_CANDIDATES, deadline)) {
+                passagesBySection.computeIfAbsent(passage.passage().section(), k -> new ArrayList<>()).add(passage);
+            }
+        }
         
-        return sectionsByTitle.values().stream()
-            .filter(section -> 
-                section.getTitle().toLowerCase().contains(lowerQuery) ||
-                section.getContent().toLowerCase().contains(lowerQuery) ||
-                section.getBreadcrumb().toLowerCase().contains(lowerQuery))
-            .sorted((s1, s2) -> {
-                boolean s1TitleMatch = s1.getTitle().toLowerCase().contains(lowerQuery);
-                boolean s2TitleMatch = s2.getTitle().toLowerCase().contains(lowerQuery);
-                if (s1TitleMatch != s2TitleMatch) {
-                    return s1TitleMatch ? -1 : 1;
+        return matches.stream()
+            .map(match -> {
+                DocumentationSection section = match.document().getSection();
+                int ordinal = sectionOrdinals.get(section);
+                List<ScoredPassage> passages = passagesBySection.get(ordinal);
+                if (passages == null) {
+                    passages = fallbackPassage(ordinal, normalizedQuery, match.matchedTerms(), deadline);
                 }
-                return Integer.compare(s1.getLevel(), s2.getLevel());
+                String snippet = passages.isEmpty() ? "" : snippet(passages.get(0).passage(), match.matchedTerms());
+                return new SearchResult(section.getTitle(), snippet, section.getBreadcrumb(), 
+                                     match.score(), match.matchedTerms(), passages);
             })
-            .limit(limit)
             .toList();
     }
-
-    private String createEnhancedSnippet(String content, String query, Set<String> matchedTerms) {
-        if (content.length() <= 300) {
-            return TextProcessor.highlightTerms(content, matchedTerms);
+    
+    /**
+     * The passage around the densest cluster of matched terms for sections found without a matching
+     * passage, e.g. by semantic search, or the first passage once the deadline expired
+     */
+    private List<ScoredPassage> fallbackPassage(int ordinal, String query, Set<String> matchedTerms, Deadline deadline) {
+        List<Passage> passages = passageIndex.passagesOf(ordinal);
+        if (passages.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Passage chosen = passages.get(0);
+        if (!deadline.expired()) {
+            String content = sections.get(ordinal).getContent();
+            int position = findBestSnippetPosition(content.toLowerCase(), query, matchedTerms);
+            for (Passage passage : passages) {
+                if (passage.start() <= position && position < passage.end()) {
+                    chosen = passage;
+                    break;
+                }
+            }
+        }
+        return List.of(new ScoredPassage(chosen, 0.0, matchedTerms));
+    }
+    
+    /**
+     * Rank the surface forms of the highest document frequency terms once, so the bulk of single-term
+     * traffic is a map lookup
+     */
+    private void precomputeHeadTermResults() {
+        Map<String, List<SearchResult>> results = new HashMap<>();
+        for (String form : HeadTerms.surfaceForms(searchIndex, sections, HEAD_TERMS, SURFACE_FORMS_PER_HEAD_TERM)) {
+            results.put(form, rankResults(form, Deadline.NONE));
+        }
+        headTermResults = Map.copyOf(results);
+    }
+    
+    record HybridMatch(InvertedIndex.IndexedDocument document, double score, Set<String> matchedTerms) {}
+    
+    private List<HybridMatch> hybridSearch(String query, int maxResults, Deadline deadline) {
+        List<InvertedIndex.SearchMatch> lexical = searchIndex.search(query, maxResults, deadline);
+        // Semantic neighbours would ignore operators, exclusions and field scopes
+        List<SemanticIndex.SemanticMatch> semantic = BooleanQuery.isStructured(query) || deadline.expired()
+            ? Collections.emptyList()
+            : semanticIndex.search(query, maxResults);
+        return fuse(lexical, semantic, maxResults);
+    }
+    
+    /**
+     * Reciprocal rank fusion of the keyword and the semantic ranking. Sections found by both rank first,
+     * semantic-only hits fill in paraphrased queries that share no keyword with the manual.
+     */
+    static List<HybridMatch> fuse(List<InvertedIndex.SearchMatch> lexical, List<SemanticIndex.SemanticMatch> semantic,
+                                  int maxResults) {
+        Map<InvertedIndex.IndexedDocument, HybridMatch> fused = new LinkedHashMap<>();
+        for (int rank = 0; rank < lexical.size(); rank++) {
+            InvertedIndex.SearchMatch match = lexical.get(rank);
+            fused.put(match.getDocument(), new HybridMatch(match.getDocument(), 
+                1.0 / (RRF_RANK_OFFSET + rank + 1), match.getMatchedTerms()));
+        }
+        for (int rank = 0; rank < semantic.size(); rank++) {
+            InvertedIndex.IndexedDocument document = semantic.get(rank).document();
+            double score = SEMANTIC_WEIGHT / (RRF_RANK_OFFSET + rank + 1);
+            fused.merge(document, new HybridMatch(document, score, Collections.emptySet()),
+                (existing, added) -> new HybridMatch(document, existing.score() + added.score(), existing.matchedTerms()));
         }
         
-        // Find the best position to create snippet around
-        int bestPosition = findBestSnippetPosition(content.toLowerCase(), query, matchedTerms);
-        
-        int start = Math.max(0, bestPosition - 100);
-        int end = Math.min(content.length(), bestPosition + 200);
-        
-        String snippet = content.substring(start, end);
-        if (start > 0) snippet = "..." + snippet;
-        if (end < content.length()) snippet = snippet + "...";
-        
-        return TextProcessor.highlightTerms(snippet, matchedTerms);
+        // Semantic hits may repeat content already covered by a keyword hit
+        List<HybridMatch> ranked = fused.values().stream()
+            .sorted(Comparator.comparingDouble(HybridMatch::score).reversed())
+            .toList();
+        List<HybridMatch> distinct = new ArrayList<>(maxResults);
+        for (HybridMatch match : ranked) {
+            if (distinct.size() >= maxResults) {
+                break;
+            }
+            boolean duplicate = distinct.stream().anyMatch(accepted ->
+                SimHash.isNearDuplicate(accepted.document().getSimHash(), match.document().getSimHash()));
+            if (!duplicate) {
+                distinct.add(match);
+            }
+        }
+        return distinct;
+    }
+
+    private static String snippet(Passage passage, Set<String> matchedTerms) {
+        String snippet = TextProcessor.highlightTerms(passage.text(), matchedTerms);
+        if (passage.start() > 0) snippet = "..." + snippet;
+        if (!passage.last()) snippet = snippet + "...";
+        return snippet;
     }
     
     private int findBestSnippetPosition(String content, String query, Set<String> matchedTerms) {
@@ -377,24 +939,347 @@ public class LocalJooqDocumentationService {
     }
 
     public List<CodeExample> getCodeExamples(String topic) {
+        requireReady();
         String normalizedTopic = topic.toLowerCase().trim();
         return codeExamplesByTopic.getOrDefault(normalizedTopic, Collections.emptyList());
     }
 
     public String getDocumentationContent(String topic) {
-        // Try exact title match first
-        DocumentationSection section = sectionsByTitle.get(topic.toLowerCase());
+        return getDocumentationContent(topic, Deadline.NONE);
+    }
+    
+    /**
+     * Documentation of the section resolved from the topic, the full-text fallback limited by the deadline
+     */
+    public String getDocumentationContent(String topic, Deadline deadline) {
+        requireReady();
+        return cachedResponse(CONTENT_NAMESPACE, topic, deadline, () -> renderDocumentationContent(topic, deadline));
+    }
+    
+    private String renderDocumentationContent(String topic, Deadline deadline) {
+        DocumentationSection section = resolveSection(topic, deadline);
         if (section != null) {
             return formatSection(section);
         }
         
-        // Try searching
-        List<DocumentationSection> results = searchSections(topic, 1);
-        if (!results.isEmpty()) {
-            return formatSection(results.get(0));
+        return "No documentation found for topic: " + topic;
+    }
+    
+    /**
+     * Resolve a topic against precomputed titles and breadcrumbs, falling back to the full-text index
+     */
+    private DocumentationSection resolveSection(String topic) {
+        return resolveSection(topic, Deadline.NONE);
+    }
+    
+    private DocumentationSection resolveSection(String topic, Deadline deadline) {
+        DocumentationSection section = titleIndex.lookup(topic);
+        if (section != null) {
+            return section;
         }
         
-        return "No documentation found for topic: " + topic;
+        List<InvertedIndex.SearchMatch> matches = searchIndex.search(topic, 1, deadline);
+        return matches.isEmpty() ? null : matches.get(0).getDocument().getSection();
+    }
+
+    /**
+     * Answer dialect support questions from the precomputed dialect matrix, e.g. "MariaDB" or
+     * "PostgreSQL vs Oracle for MERGE". Requests naming no known dialect fall back to a topic lookup.
+     */
+    public String getDatabaseSupport(String request) {
+        requireReady();
+        return cachedResponse(DATABASE_NAMESPACE, request, () -> renderDatabaseSupport(request));
+    }
+    
+    private String renderDatabaseSupport(String request) {
+        DialectSupportMatrix.ParsedRequest parsed = DialectSupportMatrix.parse(request);
+        if (parsed.dialects().isEmpty()) {
+            return getDocumentationContent(request);
+        }
+        
+        String feature = parsed.remainder().stream()
+            .filter(word -> !DIALECT_REQUEST_FILLER.contains(word))
+            .collect(Collectors.joining(" "));
+        
+        StringBuilder response = new StringBuilder();
+        if (feature.isEmpty()) {
+            if (parsed.dialects().size() == 1) {
+                appendDialectOverview(response, parsed.dialects().get(0));
+            } else {
+                appendDialectComparison(response, parsed.dialects(), null, null);
+            }
+        } else {
+            BitSet featureSections = titleIndex.matchingSections(feature);
+            if (featureSections.isEmpty()) {
+                response.append(String.format("No manual sections found for '%s'.\n\n", feature));
+                appendDialectComparison(response, parsed.dialects(), null, null);
+            } else {
+                appendDialectComparison(response, parsed.dialects(), feature, featureSections);
+            }
+        }
+        
+        String result = response.toString();
+        if (result.length() > 3000) {
+            result = result.substring(0, 3000) + "\n\n[Response truncated due to size limits]";
+        }
+        return result;
+    }
+    
+    private void appendDialectOverview(StringBuilder response, Dialect dialect) {
+        BitSet mentioning = dialectMatrix.sectionsMentioning(dialect);
+        BitSet dedicated = dialectMatrix.sectionsDedicatedTo(dialect);
+        
+        response.append("# ").append(dialect.displayName()).append(" Support\n\n");
+        response.append("**SQLDialect:** ").append(dialect.name()).append("\n");
+        response.append(String.format("Mentioned in %d of %d manual sections.\n\n",
+            mentioning.cardinality(), dialectMatrix.sectionCount()));
+        
+        if (!dedicated.isEmpty()) {
+            DocumentationSection main = sections.get(dedicated.nextSetBit(0));
+            response.append("## ").append(main.getTitle()).append("\n\n");
+            response.append("**Section:** ").append(main.getBreadcrumb()).append("\n\n");
+            String content = main.getContent();
+            if (content.length() > 800) {
+                content = content.substring(0, 800) + "...";
+            }
+            response.append(content).append("\n\n");
+            
+            if (dedicated.cardinality() > 1) {
+                response.append("## Sections about ").append(dialect.displayName()).append("\n\n");
+                appendSectionList(response, dedicated, 5);
+            }
+        }
+        
+        mentioning.andNot(dedicated);
+        if (!mentioning.isEmpty()) {
+            response.append("## Features mentioning ").append(dialect.displayName()).append("\n\n");
+            appendSectionList(response, mentioning, 15);
+        }
+    }
+    
+    private void appendDialectComparison(StringBuilder response, List<Dialect> dialects, String feature, BitSet featureSections) {
+        String names = dialects.stream().map(Dialect::displayName).collect(Collectors.joining(" vs "));
+        response.append("# ").append(feature != null ? feature.toUpperCase() + ": " : "").append(names).append("\n\n");
+        if (featureSections != null) {
+            response.append(String.format("%d manual sections cover '%s'.\n\n", featureSections.cardinality(), feature));
+        }
+        
+        List<BitSet> perDialect = new ArrayList<>();
+        BitSet common = null;
+        for (Dialect dialect : dialects) {
+            BitSet mentioning = dialectMatrix.sectionsMentioning(dialect);
+            if (featureSections != null) {
+                mentioning.and(featureSections);
+            }
+            perDialect.add(mentioning);
+            if (common == null) {
+                common = (BitSet) mentioning.clone();
+            } else {
+                common.and(mentioning);
+            }
+        }
+        
+        for (int i = 0; i < dialects.size(); i++) {
+            response.append(String.format("**%s** (%s): %d sections\n", dialects.get(i).displayName(),
+                dialects.get(i).name(), perDialect.get(i).cardinality()));
+        }
+        response.append("\n");
+        
+        if (dialects.size() > 1) {
+            response.append("## Mentioned for all\n\n");
+            if (common.isEmpty()) {
+                response.append("No shared sections.\n");
+            } else {
+                appendSectionList(response, common, 8);
+            }
+            response.append("\n");
+        }
+        
+        for (int i = 0; i < dialects.size(); i++) {
+            BitSet only = (BitSet) perDialect.get(i).clone();
+            if (dialects.size() > 1) {
+                for (int j = 0; j < dialects.size(); j++) {
+                    if (j != i) {
+                        only.andNot(perDialect.get(j));
+                    }
+                }
+            }
+            if (!only.isEmpty()) {
+                response.append(dialects.size() > 1 ? "## Only " : "## ").append(dialects.get(i).displayName()).append("\n\n");
+                appendSectionList(response, only, 8);
+                response.append("\n");
+            }
+        }
+    }
+    
+    private void appendSectionList(StringBuilder response, BitSet ordinals, int limit) {
+        int listed = 0;
+        for (int ordinal = ordinals.nextSetBit(0); ordinal >= 0 && listed < limit; ordinal = ordinals.nextSetBit(ordinal + 1)) {
+            DocumentationSection section = sections.get(ordinal);
+            response.append("- ").append(section.getTitle()).append(" (").append(section.getBreadcrumb()).append(")\n");
+            listed++;
+        }
+        int remaining = ordinals.cardinality() - listed;
+        if (remaining > 0) {
+            response.append(String.format("- ... and %d more\n", remaining));
+        }
+    }
+
+    /**
+     * Sections sharing the most content with the section resolved from the topic
+     */
+    public String getRelatedSections(String topic) {
+        requireReady();
+        return cachedResponse(RELATED_NAMESPACE, topic, () -> renderRelatedSections(topic));
+    }
+    
+    private String renderRelatedSections(String topic) {
+        DocumentationSection section = resolveSection(topic);
+        if (section == null) {
+            return "No documentation found for topic: " + topic;
+        }
+        
+        StringBuilder response = new StringBuilder();
+        response.append("# Related to ").append(section.getTitle()).append("\n\n");
+        response.append("**Section:** ").append(section.getBreadcrumb()).append("\n\n");
+        
+        List<RelatedSections.Related> related = relatedSections.relatedTo(sectionOrdinals.get(section));
+        if (related.isEmpty()) {
+            response.append("No closely related sections found.\n");
+            return response.toString();
+        }
+        for (RelatedSections.Related entry : related) {
+            DocumentationSection relatedSection = sections.get(entry.ordinal());
+            response.append(String.format("- **%s** (%.0f%% similar)\n  Section: %s\n",
+                relatedSection.getTitle(), entry.similarity() * 100, relatedSection.getBreadcrumb()));
+        }
+        return response.toString();
+    }
+
+    /**
+     * Sections a section links to and sections linking to it, from the manual's cross-references.
+     * The section is given by its anchor id, title or a topic.
+     */
+    public String getSectionReferences(String topic) {
+        requireReady();
+        return cachedResponse(REFERENCES_NAMESPACE, topic, () -> renderSectionReferences(topic));
+    }
+    
+    private String renderSectionReferences(String topic) {
+        String anchor = topic.trim().startsWith("#") ? topic.trim().substring(1) : topic.trim();
+        Integer ordinal = anchorOrdinals.get(anchor);
+        if (ordinal == null) {
+            DocumentationSection section = resolveSection(topic);
+            if (section == null) {
+                return "No documentation found for topic: " + topic;
+            }
+            ordinal = sectionOrdinals.get(section);
+        }
+        DocumentationSection section = sections.get(ordinal);
+        
+        StringBuilder response = new StringBuilder();
+        response.append("# References of ").append(section.getTitle()).append("\n\n");
+        response.append("**Section:** ").append(section.getBreadcrumb()).append("\n\n");
+        appendReferences(response, "Links to", linkGraph.outbound(ordinal));
+        appendReferences(response, "Referenced from", linkGraph.inbound(ordinal));
+        return response.toString();
+    }
+    
+    private void appendReferences(StringBuilder response, String heading, int[] ordinals) {
+        response.append("## ").append(heading).append(" (").append(ordinals.length).append(")\n\n");
+        if (ordinals.length == 0) {
+            response.append("No cross-references.\n\n");
+            return;
+        }
+        for (int i = 0; i < Math.min(MAX_REFERENCES, ordinals.length); i++) {
+            DocumentationSection reference = sections.get(ordinals[i]);
+            response.append(String.format("- **%s** (#%s)\n  Section: %s\n",
+                reference.getTitle(), reference.getId(), reference.getBreadcrumb()));
+        }
+        if (ordinals.length > MAX_REFERENCES) {
+            response.append(String.format("[%d more references not shown]\n", ordinals.length - MAX_REFERENCES));
+        }
+        response.append("\n");
+    }
+
+    /**
+     * Outline of a section's subtree, or of the top-level chapters for an empty topic
+     */
+    public String getSectionOutline(String topic) {
+        requireReady();
+        return cachedResponse(OUTLINE_NAMESPACE, topic, () -> renderSectionOutline(topic));
+    }
+    
+    private String renderSectionOutline(String topic) {
+        StringBuilder outline = new StringBuilder();
+        
+        if (topic == null || topic.trim().isEmpty()) {
+            outline.append("# jOOQ Manual Outline\n\n");
+            appendOutline(outline, sectionTree.roots(), 0, 2);
+            return truncateOutline(outline);
+        }
+        
+        int ordinal = titleIndex.resolve(topic);
+        if (ordinal < 0) {
+            return "No documentation found for topic: " + topic;
+        }
+        
+        DocumentationSection section = sections.get(ordinal);
+        outline.append("# ").append(section.getTitle()).append("\n\n");
+        outline.append("**Section:** ").append(section.getBreadcrumb()).append("\n\n");
+        
+        int parent = sectionTree.parent(ordinal);
+        if (parent != SectionTree.NONE) {
+            outline.append("**Parent:** ").append(sections.get(parent).getTitle()).append("\n\n");
+        }
+        
+        if (sectionTree.childCount(ordinal) == 0) {
+            outline.append("This section has no subsections.\n\n");
+        } else {
+            outline.append("## Subsections\n\n");
+            appendOutline(outline, sectionTree.children(ordinal), 0, 2);
+            outline.append("\n");
+        }
+        
+        int[] siblings = sectionTree.siblings(ordinal);
+        if (siblings.length > 1) {
+            outline.append("## Sibling Sections\n\n");
+            for (int sibling : siblings) {
+                if (sibling != ordinal) {
+                    outline.append("- ").append(sections.get(sibling).getTitle()).append("\n");
+                }
+            }
+        }
+        
+        return truncateOutline(outline);
+    }
+    
+    private void appendOutline(StringBuilder outline, int[] ordinals, int indent, int depth) {
+        for (int ordinal : ordinals) {
+            outline.append(" ".repeat(indent)).append("- ").append(sections.get(ordinal).getTitle());
+            int children = sectionTree.childCount(ordinal);
+            if (children > 0) {
+                outline.append(" (").append(children).append(children == 1 ? " subsection)" : " subsections)");
+            }
+            outline.append("\n");
+            
+            if (depth > 1 && children > 0) {
+                appendOutline(outline, sectionTree.children(ordinal), indent + 2, depth - 1);
+            }
+            
+            // Stop if response getting too large
+            if (outline.length() > 2800) {
+                return;
+            }
+        }
+    }
+    
+    private String truncateOutline(StringBuilder outline) {
+        String result = outline.toString();
+        if (result.length() > 3000) {
+            result = result.substring(0, 3000) + "\n\n[Outline truncated due to size limits]";
+        }
+        return result;
     }
 
     private String formatSection(DocumentationSection section) {
@@ -402,10 +1287,16 @@ public class LocalJooqDocumentationService {
         formatted.append("# ").append(section.getTitle()).append("\n\n");
         formatted.append("**Section:** ").append(section.getBreadcrumb()).append("\n\n");
         
-        // Limit content to prevent buffer overflow
+        // Limit content to prevent buffer overflow, ending with a complete passage where possible
         String content = section.getContent();
         if (content.length() > 1500) {
-            content = content.substring(0, 1500) + "...\n\n[Content truncated for size limits]";
+            int end = 0;
+            for (Passage passage : passageIndex.passagesOf(sectionOrdinals.get(section))) {
+                if (passage.end() <= 1500) {
+                    end = Math.max(end, passage.end());
+                }
+            }
+            content = content.substring(0, end > 0 ? end : 1500) + "...\n\n[Content truncated for size limits]";
         }
         formatted.append(content).append("\n\n");
         
@@ -445,6 +1336,16 @@ public class LocalJooqDocumentationService {
             }
         }
         
+        List<RelatedSections.Related> related = relatedSections.relatedTo(sectionOrdinals.get(section));
+        if (!related.isEmpty()) {
+            formatted.append("**See also:** ");
+            for (int i = 0; i < Math.min(3, related.size()); i++) {
+                if (i > 0) formatted.append("; ");
+                formatted.append(sections.get(related.get(i).ordinal()).getBreadcrumb());
+            }
+            formatted.append("\n");
+        }
+        
         // Final safety check - ensure total response doesn't exceed limit
         String result = formatted.toString();
         if (result.length() > 3000) {
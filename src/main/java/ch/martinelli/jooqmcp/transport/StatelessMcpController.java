@@ -0,0 +1,204 @@
+package ch.martinelli.jooqmcp.transport;
+
+import ch.martinelli.jooqmcp.config.AdmissionToolCallback;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Stateless streamable HTTP transport: every JSON-RPC message is POSTed to {@code /mcp} and answered
+ * in the response body, without a session id or a server-to-client stream. The tools are pure
+ * functions of the read-only index, so any instance can answer any request and instances can be
+ * added or stopped behind a plain load balancer. The SSE transport stays available for clients that
+ * need it.
+ * <p>
+ * Supports {@code initialize}, {@code ping}, {@code tools/list} and {@code tools/call}; notifications
+ * and responses are acknowledged with 202. Admission control keys clients by their address here; the
+ * {@code Fly-Client-IP} header is only trusted when running as a fly app, behind fly's proxy, since
+ * any caller could set it otherwise.
+ */
+@RestController
+@ConditionalOnProperty(name = "jooq.mcp.stateless.enabled", havingValue = "true", matchIfMissing = true)
+public class StatelessMcpController {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatelessMcpController.class);
+
+    static final String LATEST_PROTOCOL_VERSION = "2025-03-26";
+    private static final Set<String> PROTOCOL_VERSIONS = Set.of("2024-11-05", "2025-03-26", "2025-06-18");
+    private static final int PARSE_ERROR = -32700;
+    private static final int INVALID_REQUEST = -32600;
+    private static final int METHOD_NOT_FOUND = -32601;
+    private static final int INVALID_PARAMS = -32602;
+
+    private final Map<String, ToolCallback> tools = new LinkedHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final String serverName;
+    private final String serverVersion;
+    private final boolean behindFlyProxy;
+
+    public StatelessMcpController(@Qualifier("jooqDocumentationTools") List<ToolCallback> toolCallbacks,
+                                  ObjectMapper objectMapper,
+                                  @Value("${spring.ai.mcp.server.name:jooq-mcp}") String serverName,
+                                  @Value("${spring.ai.mcp.server.version:1.0.0}") String serverVersion,
+                                  @Value("${jooq.mcp.stateless.fly-app:}") String flyApp) {
+        for (ToolCallback callback : toolCallbacks) {
+            tools.put(callback.getToolDefinition().name(), callback);
+        }
+        this.objectMapper = objectMapper;
+        this.serverName = serverName;
+        this.serverVersion = serverVersion;
+        this.behindFlyProxy = !flyApp.isBlank();
+    }
+
+    @PostMapping(path = "${jooq.mcp.stateless.endpoint:/mcp}", consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<JsonNode> handle(@RequestBody String body, HttpServletRequest request) {
+        JsonNode message;
+        try {
+            message = objectMapper.readTree(body);
+        } catch (JsonProcessingException e) {
+            return ResponseEntity.ok(error(null, PARSE_ERROR, "Parse error"));
+        }
+        String client = clientAddress(request);
+
+        if (message.isArray()) {
+            ArrayNode responses = objectMapper.createArrayNode();
+            for (JsonNode element : message) {
+                JsonNode response = dispatch(element, client);
+                if (response != null) {
+                    responses.add(response);
+                }
+            }
+            return responses.isEmpty() ? ResponseEntity.accepted().build() : ResponseEntity.ok(responses);
+        }
+        JsonNode response = dispatch(message, client);
+        return response == null ? ResponseEntity.accepted().build() : ResponseEntity.ok(response);
+    }
+
+    /**
+     * No server-initiated stream and no sessions to terminate
+     */
+    @RequestMapping(path = "${jooq.mcp.stateless.endpoint:/mcp}", method = {RequestMethod.GET, RequestMethod.DELETE})
+    public ResponseEntity<Void> unsupported() {
+        return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED).build();
+    }
+
+    /**
+     * @return the response, or null for notifications and responses
+     */
+    private JsonNode dispatch(JsonNode message, String client) {
+        if (!message.isObject() || !message.hasNonNull("method")) {
+            return message.has("id") && (message.has("result") || message.has("error"))
+                ? null
+                : error(message.get("id"), INVALID_REQUEST, "Invalid request");
+        }
+        JsonNode id = message.get("id");
+        if (id == null || id.isNull()) {
+            // Notification, e.g. notifications/initialized
+            return null;
+        }
+        JsonNode params = message.path("params");
+        return switch (message.get("method").asText()) {
+            case "initialize" -> result(id, initialize(params));
+            case "ping" -> result(id, objectMapper.createObjectNode());
+            case "tools/list" -> result(id, listTools());
+            case "tools/call" -> callTool(id, params, client);
+            default -> error(id, METHOD_NOT_FOUND, "Method not found: " + message.get("method").asText());
+        };
+    }
+
+    private ObjectNode initialize(JsonNode params) {
+        String requested = params.path("protocolVersion").asText();
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("protocolVersion", PROTOCOL_VERSIONS.contains(requested) ? requested : LATEST_PROTOCOL_VERSION);
+        result.putObject("capabilities").putObject("tools").put("listChanged", false);
+        result.putObject("serverInfo").put("name", serverName).put("version", serverVersion);
+        return result;
+    }
+
+    private ObjectNode listTools() {
+        ObjectNode result = objectMapper.createObjectNode();
+        ArrayNode list = result.putArray("tools");
+        for (ToolCallback callback : tools.values()) {
+            ObjectNode tool = list.addObject();
+            tool.put("name", callback.getToolDefinition().name());
+            tool.put("description", callback.getToolDefinition().description());
+            try {
+                tool.set("inputSchema", objectMapper.readTree(callback.getToolDefinition().inputSchema()));
+            } catch (JsonProcessingException e) {
+                tool.putObject("inputSchema").put("type", "object");
+            }
+        }
+        return result;
+    }
+
+    private JsonNode callTool(JsonNode id, JsonNode params, String client) {
+        ToolCallback callback = tools.get(params.path("name").asText());
+        if (callback == null) {
+            return error(id, INVALID_PARAMS, "Unknown tool: " + params.path("name").asText());
+        }
+        JsonNode arguments = params.path("arguments");
+        String input = arguments.isObject() ? arguments.toString() : "{}";
+        ToolContext context = new ToolContext(Map.of(AdmissionToolCallback.CLIENT_KEY, client));
+
+        ObjectNode result = objectMapper.createObjectNode();
+        String text;
+        boolean isError = false;
+        try {
+            text = callback.call(input, context);
+        } catch (RuntimeException e) {
+            logger.debug("Tool {} failed: {}", callback.getToolDefinition().name(), e.getMessage());
+            text = e.getMessage() != null ? e.getMessage() : "Tool execution failed";
+            isError = true;
+        }
+        result.putArray("content").addObject().put("type", "text").put("text", text);
+        result.put("isError", isError);
+        return result(id, result);
+    }
+
+    /**
+     * The original client behind fly's proxy, otherwise the remote address
+     */
+    String clientAddress(HttpServletRequest request) {
+        String flyClient = behindFlyProxy ? request.getHeader("Fly-Client-IP") : null;
+        if (flyClient != null && !flyClient.isBlank()) {
+            return "address-" + flyClient.trim();
+        }
+        return "address-" + request.getRemoteAddr();
+    }
+
+    private ObjectNode result(JsonNode id, JsonNode result) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", id);
+        response.set("result", result);
+        return response;
+    }
+
+    private ObjectNode error(JsonNode id, int code, String message) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", id);
+        response.putObject("error").put("code", code).put("message", message);
+        return response;
+    }
+}
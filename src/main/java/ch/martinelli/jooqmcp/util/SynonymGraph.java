@@ -0,0 +1,158 @@
+package ch.martinelli.jooqmcp.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Weighted synonym graph compiled once from a rule file. Every rule links a head term with its
+ * synonyms in both directions, each edge carrying the weight at which the expansion is scored relative
+ * to the original term:
+ * <pre>
+ *   # head: synonym[^weight], ...
+ *   select: query, find^0.4, get^0.2
+ * </pre>
+ * Synonyms of the same head are not linked to each other, so a generic word like "get" only reaches
+ * "select" instead of everything "select" reaches. Terms are stemmed like indexed text and compiled
+ * into term ids with a flat expansion table per id.
+ */
+public final class SynonymGraph {
+
+    public static final String DEFAULT_RESOURCE = "synonyms.txt";
+    static final float DEFAULT_WEIGHT = 0.5f;
+
+    private static volatile SynonymGraph defaultGraph;
+
+    /**
+     * A term a query term expands to, with its score discount
+     */
+    public record Expansion(String term, float weight) {}
+
+    private final Map<String, Integer> termIds;
+    // Expansions of term id i are at offsets[i] until offsets[i + 1]
+    private final int[] offsets;
+    private final int[] targets;
+    private final float[] weights;
+    private final String[] terms;
+
+    private SynonymGraph(Map<String, Map<String, Float>> edges) {
+        this.termIds = new HashMap<>(edges.size() * 2);
+        this.terms = edges.keySet().toArray(String[]::new);
+        for (int id = 0; id < terms.length; id++) {
+            termIds.put(terms[id], id);
+        }
+        int edgeCount = edges.values().stream().mapToInt(Map::size).sum();
+        this.offsets = new int[terms.length + 1];
+        this.targets = new int[edgeCount];
+        this.weights = new float[edgeCount];
+        int position = 0;
+        for (int id = 0; id < terms.length; id++) {
+            offsets[id] = position;
+            for (Map.Entry<String, Float> edge : edges.get(terms[id]).entrySet()) {
+                targets[position] = termIds.get(edge.getKey());
+                weights[position] = edge.getValue();
+                position++;
+            }
+        }
+        offsets[terms.length] = position;
+    }
+
+    /**
+     * Graph from the synonyms file on the classpath, or an empty graph if there is none
+     */
+    public static SynonymGraph defaultGraph() {
+        SynonymGraph graph = defaultGraph;
+        if (graph == null) {
+            InputStream input = SynonymGraph.class.getClassLoader().getResourceAsStream(DEFAULT_RESOURCE);
+            graph = input != null ? load(input) : parse(List.of());
+            defaultGraph = graph;
+        }
+        return graph;
+    }
+
+    /**
+     * Compile the rules read from the stream, which is closed afterwards
+     */
+    public static SynonymGraph load(InputStream input) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            return parse(reader.lines().toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read synonyms", e);
+        }
+    }
+
+    /**
+     * Compile rule lines; blank lines and lines starting with {@code #} are ignored
+     */
+    public static SynonymGraph parse(List<String> lines) {
+        // Insertion ordered, so term ids and expansion order are deterministic
+        Map<String, Map<String, Float>> edges = new LinkedHashMap<>();
+        for (String line : lines) {
+            String rule = line.strip();
+            int colon = rule.indexOf(':');
+            if (rule.isEmpty() || rule.startsWith("#") || colon < 0) {
+                continue;
+            }
+            String head = normalize(rule.substring(0, colon));
+            if (head == null) {
+                continue;
+            }
+            for (String entry : rule.substring(colon + 1).split(",")) {
+                String synonym = entry.strip();
+                float weight = DEFAULT_WEIGHT;
+                int caret = synonym.indexOf('^');
+                if (caret >= 0) {
+                    weight = Float.parseFloat(synonym.substring(caret + 1).strip());
+                    synonym = synonym.substring(0, caret);
+                }
+                String term = normalize(synonym);
+                if (term == null || term.equals(head) || weight <= 0) {
+                    continue;
+                }
+                addEdge(edges, head, term, weight);
+                addEdge(edges, term, head, weight);
+            }
+        }
+        return new SynonymGraph(edges);
+    }
+
+    private static void addEdge(Map<String, Map<String, Float>> edges, String from, String to, float weight) {
+        edges.computeIfAbsent(from, k -> new LinkedHashMap<>()).merge(to, Math.min(weight, 1f), Math::max);
+        edges.computeIfAbsent(to, k -> new LinkedHashMap<>());
+    }
+
+    /**
+     * Stem of a single word, null for empty text, stop words and multi-word entries
+     */
+    private static String normalize(String word) {
+        List<String> tokens = TextProcessor.processText(word);
+        return tokens.size() == 1 ? tokens.getFirst() : null;
+    }
+
+    /**
+     * Weighted expansions of a stemmed query term, not including the term itself
+     */
+    public List<Expansion> expand(String term) {
+        Integer id = termIds.get(term);
+        if (id == null) {
+            return List.of();
+        }
+        List<Expansion> expansions = new ArrayList<>(offsets[id + 1] - offsets[id]);
+        for (int edge = offsets[id]; edge < offsets[id + 1]; edge++) {
+            expansions.add(new Expansion(terms[targets[edge]], weights[edge]));
+        }
+        return expansions;
+    }
+
+    public int getTermCount() {
+        return terms.length;
+    }
+
+    public int getEdgeCount() {
+        return targets.length;
+    }
+}
@@ -21,20 +21,6 @@ public class TextProcessor {
     private static final Pattern WORD_PATTERN = Pattern.compile("\\b\\w+\\b");
     private static final Pattern CAMEL_CASE_PATTERN = Pattern.compile("(?<!^)(?=[A-Z][a-z])");
     
-    // jOOQ-specific synonyms
-    private static final Map<String, Set<String>> JOOQ_SYNONYMS = Map.of(
-        "select", Set.of("query", "find", "search", "retrieve", "get"),
-        "insert", Set.of("add", "create", "save", "store"),
-        "update", Set.of("modify", "change", "edit", "alter"),
-        "delete", Set.of("remove", "drop", "destroy"),
-        "join", Set.of("combine", "merge", "link", "connect"),
-        "where", Set.of("filter", "condition", "criteria"),
-        "table", Set.of("relation", "entity"),
-        "record", Set.of("row", "tuple", "entry"),
-        "field", Set.of("column", "attribute", "property"),
-        "dsl", Set.of("api", "builder", "fluent")
-    );
-    
     /**
      * Tokenize text into individual words, handling camelCase and removing punctuation
      */
@@ -116,7 +102,7 @@ public class TextProcessor {
     }
     
     /**
-     * Expand query terms with synonyms
+     * Expand a query term with its synonyms from the default {@link SynonymGraph}, without weights
      */
     public static Set<String> expandWithSynonyms(String term) {
         Set<String> expanded = new HashSet<>();
@@ -124,15 +110,8 @@ public class TextProcessor {
         
         String stemmedTerm = stem(term);
         expanded.add(stemmedTerm);
-        
-        // Add jOOQ-specific synonyms
-        for (Map.Entry<String, Set<String>> entry : JOOQ_SYNONYMS.entrySet()) {
-            if (entry.getKey().equals(term) || entry.getKey().equals(stemmedTerm)) {
-                expanded.addAll(entry.getValue());
-            } else if (entry.getValue().contains(term) || entry.getValue().contains(stemmedTerm)) {
-                expanded.add(entry.getKey());
-                expanded.addAll(entry.getValue());
-            }
+        for (SynonymGraph.Expansion expansion : SynonymGraph.defaultGraph().expand(stemmedTerm)) {
+            expanded.add(expansion.term());
         }
         
         return expanded;
@@ -0,0 +1,57 @@
+package ch.martinelli.jooqmcp.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControllerTest {
+
+    @Test
+    void testClientRateIsLimitedPerClient() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdmissionController controller = new AdmissionController(true, 0.001, 3, 10, 0, 0, registry);
+
+        for (int i = 0; i < 3; i++) {
+            controller.admit("runaway").close();
+        }
+        assertThrows(AdmissionRejectedException.class, () -> controller.admit("runaway"));
+        // Other clients keep their own budget
+        controller.admit("polite").close();
+
+        assertEquals(1.0, registry.get("jooq.admission.rejected").tag("reason", "rate").counter().count());
+        assertEquals(4.0, registry.get("jooq.admission.admitted").counter().count());
+    }
+
+    @Test
+    void testCallsBeyondConcurrencyAndQueueAreShed() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdmissionController controller = new AdmissionController(true, 1000, 1000, 2, 1, 10, registry);
+
+        List<AdmissionController.Permit> held = new ArrayList<>();
+        held.add(controller.admit("a"));
+        held.add(controller.admit("b"));
+        assertEquals(2, controller.getInFlight());
+
+        // Waits in the queue, times out
+        assertThrows(AdmissionRejectedException.class, () -> controller.admit("c"));
+        assertEquals(1.0, registry.get("jooq.admission.queued").counter().count());
+        assertEquals(1.0, registry.get("jooq.admission.rejected").tag("reason", "capacity").counter().count());
+
+        held.forEach(AdmissionController.Permit::close);
+        assertEquals(0, controller.getInFlight());
+        controller.admit("c").close();
+    }
+
+    @Test
+    void testDisabledAdmitsEverything() {
+        AdmissionController controller = new AdmissionController(false, 0.001, 1, 1, 0, 0, new SimpleMeterRegistry());
+        for (int i = 0; i < 10; i++) {
+            controller.admit("client");
+        }
+        assertEquals(0, controller.getInFlight());
+    }
+}
@@ -0,0 +1,57 @@
+package ch.martinelli.jooqmcp.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadsTest {
+
+    @Test
+    void testSaturatedBulkheadDoesNotBlockOtherBulkheads() throws Exception {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("jooq.bulkhead.default", "lookup")
+            .withProperty("jooq.bulkhead.tool.searchDocumentation", "search")
+            .withProperty("jooq.bulkhead.search.threads", "1")
+            .withProperty("jooq.bulkhead.search.queue-size", "0");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Bulkheads bulkheads = new Bulkheads(environment, registry);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> heavy = callers.submit(() -> bulkheads.execute("searchDocumentation", () -> {
+                running.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return "search";
+            }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            assertArrayEquals(new int[] {1, 0}, bulkheads.saturation("search"));
+
+            assertThrows(AdmissionRejectedException.class, () -> bulkheads.execute("searchDocumentation", () -> "second"));
+            assertEquals("guide", bulkheads.execute("getCodeGenerationGuide", () -> "guide"));
+            assertEquals(1.0, registry.get("jooq.bulkhead.rejected").tag("bulkhead", "search").counter().count());
+
+            release.countDown();
+            assertEquals("search", heavy.get(5, TimeUnit.SECONDS));
+        } finally {
+            callers.shutdownNow();
+            bulkheads.shutdown();
+        }
+    }
+
+    @Test
+    void testExceptionsArePropagated() {
+        Bulkheads bulkheads = new Bulkheads(new MockEnvironment(), new SimpleMeterRegistry());
+        try {
+            assertThrows(IllegalArgumentException.class, () -> bulkheads.execute("getSectionTree", () -> {
+                throw new IllegalArgumentException("bad topic");
+            }));
+        } finally {
+            bulkheads.shutdown();
+        }
+    }
+}
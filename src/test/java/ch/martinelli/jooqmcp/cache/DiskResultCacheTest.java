@@ -0,0 +1,66 @@
+package ch.martinelli.jooqmcp.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiskResultCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testEntriesSurviveReopening() {
+        DiskResultCache cache = new DiskResultCache(true, directory.toString(), "image-1", 1 << 16);
+        cache.open("abc");
+        cache.put("search", "select", "[\"select results\"]");
+        cache.put("content", "Merge", "# MERGE");
+        assertEquals("# MERGE", cache.get("content", "Merge"));
+        assertNull(cache.get("search", "Merge"));
+        cache.close();
+
+        DiskResultCache reopened = new DiskResultCache(true, directory.toString(), "image-1", 1 << 16);
+        reopened.open("abc");
+        assertEquals(2, reopened.size());
+        assertEquals("[\"select results\"]", reopened.get("search", "select"));
+        assertTrue(reopened.contains("content", "Merge"));
+        reopened.put("search", "join", "joins");
+        assertEquals("joins", reopened.get("search", "join"));
+        reopened.close();
+    }
+
+    @Test
+    void testOtherContentStartsEmptyAndRemovesStaleFiles() throws Exception {
+        DiskResultCache cache = new DiskResultCache(true, directory.toString(), "image-1", 1 << 16);
+        cache.open("abc");
+        cache.put("search", "select", "old");
+        cache.close();
+
+        DiskResultCache changed = new DiskResultCache(true, directory.toString(), "image-1", 1 << 16);
+        changed.open("def");
+        assertNull(changed.get("search", "select"));
+        changed.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testFullFileAndMissingGenerationAreIgnored() {
+        DiskResultCache small = new DiskResultCache(true, directory.toString(), "image-1", 64);
+        small.open("abc");
+        small.put("search", "select", "x".repeat(100));
+        assertNull(small.get("search", "select"));
+        small.close();
+
+        DiskResultCache disabled = new DiskResultCache(true, directory.toString(), "", 1 << 16);
+        disabled.open("abc");
+        disabled.put("search", "select", "results");
+        assertNull(disabled.get("search", "select"));
+    }
+}
@@ -0,0 +1,102 @@
+package ch.martinelli.jooqmcp.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void testConcurrentCallsShareOneComputation() throws Exception {
+        SingleFlight<String> singleFlight = new SingleFlight<>("test", new SimpleMeterRegistry());
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            Future<String> first = executor.submit(() -> singleFlight.execute("join", () -> {
+                computations.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "result";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            List<Future<String>> followers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                followers.add(executor.submit(() -> singleFlight.execute("join", () -> {
+                    computations.incrementAndGet();
+                    return "recomputed";
+                })));
+            }
+            while (singleFlight.getCoalesced() < 4) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertEquals("result", first.get(5, TimeUnit.SECONDS));
+            for (Future<String> follower : followers) {
+                assertEquals("result", follower.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, computations.get());
+            assertEquals(1, singleFlight.getExecutions());
+
+            // Nothing is kept after the computation finished
+            assertEquals("again", singleFlight.execute("join", () -> "again"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailureIsSharedAndNotKept() {
+        SingleFlight<String> singleFlight = new SingleFlight<>("test", new SimpleMeterRegistry());
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("merge", () -> {
+            throw new IllegalStateException("failed");
+        }));
+        assertEquals("ok", singleFlight.execute("merge", () -> "ok"));
+    }
+
+    @Test
+    void testUnusableSharedResultIsRecomputed() throws Exception {
+        SingleFlight<String> singleFlight = new SingleFlight<>("test", new SimpleMeterRegistry());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> singleFlight.execute("join", () -> {
+                started.countDown();
+                await(release);
+                return "partial";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Future<String> follower = executor.submit(() ->
+                singleFlight.execute("join", () -> "complete", shared -> !shared.equals("partial")));
+            while (singleFlight.getCoalesced() < 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertEquals("partial", first.get(5, TimeUnit.SECONDS));
+            assertEquals("complete", follower.get(5, TimeUnit.SECONDS));
+            assertEquals(2, singleFlight.getExecutions());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ch.martinelli.jooqmcp.config;
+
+import io.modelcontextprotocol.server.McpAsyncServerExchange;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionToolCallbackTest {
+
+    @Test
+    void testSessionsOfTheSameClientGetTheirOwnKey() {
+        McpSchema.Implementation first = new McpSchema.Implementation("claude-desktop", "1.0");
+        McpSchema.Implementation second = new McpSchema.Implementation("claude-desktop", "1.0");
+
+        String firstKey = AdmissionToolCallback.clientKey(context(first));
+        // The SDK wraps every call of a session in a new exchange
+        assertEquals(firstKey, AdmissionToolCallback.clientKey(context(first)));
+        assertNotEquals(firstKey, AdmissionToolCallback.clientKey(context(second)));
+    }
+
+    @Test
+    void testTransportClientKeyWins() {
+        ToolContext context = new ToolContext(Map.of(AdmissionToolCallback.CLIENT_KEY, "address-10.0.0.1"));
+
+        assertEquals("address-10.0.0.1", AdmissionToolCallback.clientKey(context));
+        assertEquals("anonymous", AdmissionToolCallback.clientKey(null));
+    }
+
+    private static ToolContext context(McpSchema.Implementation clientInfo) {
+        McpSyncServerExchange exchange = new McpSyncServerExchange(new McpAsyncServerExchange(null, null, clientInfo));
+        return new ToolContext(Map.of(McpToolUtils.TOOL_CONTEXT_MCP_EXCHANGE_KEY, exchange));
+    }
+}
@@ -0,0 +1,29 @@
+package ch.martinelli.jooqmcp.memory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryGovernorTest {
+
+    @Test
+    void testListenersAreNotifiedWhenPressureChanges() {
+        List<MemoryPressure> notified = new ArrayList<>();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MemoryGovernor governor = new MemoryGovernor(List.of(notified::add), registry, 0.70, 0.85, false);
+        governor.update(0.50);
+        governor.update(0.75);
+        governor.update(0.80);
+        assertEquals(MemoryPressure.ELEVATED, governor.getPressure());
+        assertEquals(1.0, registry.get("jooq.memory.pressure").gauge().value());
+
+        governor.update(0.90);
+        governor.update(0.40);
+        assertEquals(List.of(MemoryPressure.ELEVATED, MemoryPressure.CRITICAL, MemoryPressure.NORMAL), notified);
+        assertEquals(0.0, registry.get("jooq.memory.pressure").gauge().value());
+    }
+}
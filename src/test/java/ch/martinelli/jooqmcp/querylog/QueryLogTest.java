@@ -0,0 +1,79 @@
+package ch.martinelli.jooqmcp.querylog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testEntriesAreWrittenAndAnalyzed() throws IOException {
+        QueryLog queryLog = new QueryLog(true, directory.toString(), 1_000_000, 5, 64);
+        long start = System.nanoTime();
+        queryLog.record("searchDocumentation", "  Select   Rows ", start, 10, false);
+        queryLog.record("searchDocumentation", "select rows", start, 10, true);
+        queryLog.record("searchDocumentation", "transactions", start, 4, false);
+        queryLog.record("getSqlExamples", "JOIN", start, 3, false);
+        queryLog.close();
+
+        List<String> lines = Files.readAllLines(directory.resolve("query-log.jsonl"));
+        assertEquals(4, lines.size());
+        assertTrue(lines.get(0).contains("\"arguments\":\"select rows\""), lines.get(0));
+
+        List<QueryLogAnalyzer.WarmupQuery> top = QueryLogAnalyzer.topQueries(directory, 2);
+        assertEquals(new QueryLogAnalyzer.WarmupQuery("searchDocumentation", "select rows", 2), top.get(0));
+        assertEquals(List.of("select rows", "transactions"),
+            QueryLogAnalyzer.topArguments(directory, "searchDocumentation", 10));
+    }
+
+    @Test
+    void testStructuredQueriesKeepTheirOperators() {
+        assertEquals("title:merge AND NOT oracle", QueryLog.normalize("  title:merge   AND NOT oracle "));
+        assertEquals("not exists", QueryLog.normalize("NOT  EXISTS"));
+    }
+
+    @Test
+    void testLogIsRolledBySize() throws IOException {
+        QueryLog queryLog = new QueryLog(true, directory.toString(), 300, 2, 64);
+        for (int i = 0; i < 40; i++) {
+            queryLog.record("searchDocumentation", "query " + i, System.nanoTime(), 1, false);
+        }
+        queryLog.close();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            List<String> names = files.map(path -> path.getFileName().toString()).toList();
+            assertEquals(2, names.size(), names.toString());
+            assertTrue(names.stream().allMatch(name -> name.startsWith("query-log")), names.toString());
+        }
+        assertEquals(0, queryLog.getDroppedEntries());
+        List<String> retained = QueryLogAnalyzer.topArguments(directory, "searchDocumentation", 100);
+        assertTrue(retained.contains("query 39"), retained.toString());
+        assertFalse(retained.contains("query 0"), retained.toString());
+    }
+
+    @Test
+    void testRollOverCountsEncodedBytes() throws IOException {
+        // About 250 characters but 400 bytes per line, so every line fills a file on its own
+        QueryLog queryLog = new QueryLog(true, directory.toString(), 300, 10, 64);
+        for (int i = 0; i < 4; i++) {
+            queryLog.record("searchDocumentation", "\u00e4".repeat(150) + i, System.nanoTime(), 1, false);
+        }
+        queryLog.close();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                assertEquals(1, Files.readAllLines(file).size(), file.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.search.BooleanQuery.And;
+import ch.martinelli.jooqmcp.search.BooleanQuery.Field;
+import ch.martinelli.jooqmcp.search.BooleanQuery.Not;
+import ch.martinelli.jooqmcp.search.BooleanQuery.Or;
+import ch.martinelli.jooqmcp.search.BooleanQuery.Term;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BooleanQueryTest {
+
+    @Test
+    void testDetectsStructuredQueries() {
+        assertTrue(BooleanQuery.isStructured("title:merge AND code:onConflict"));
+        assertTrue(BooleanQuery.isStructured("upsert -oracle"));
+        assertTrue(BooleanQuery.isStructured("(merge OR upsert) window"));
+        assertFalse(BooleanQuery.isStructured("merge OR upsert"));
+        assertFalse(BooleanQuery.isStructured("select and update rows"));
+        assertFalse(BooleanQuery.isStructured("count(*) over"));
+        assertFalse(BooleanQuery.isStructured("multi-set"));
+        assertFalse(BooleanQuery.isStructured("\"title: AND\""));
+    }
+
+    @Test
+    void testParsesFieldScopesAndExclusions() {
+        BooleanQuery.Node node = BooleanQuery.parse("title:merge AND code:onConflict -oracle");
+
+        assertEquals(new And(List.of(
+            new Term(Field.TITLE, List.of("merge")),
+            new Term(Field.CODE, List.of("conflict")),
+            new Not(new Term(Field.ANY, List.of("oracle"))))), node);
+    }
+
+    @Test
+    void testParsesGroupingAndPrecedence() {
+        BooleanQuery.Node node = BooleanQuery.parse("(merge OR upsert) window NOT breadcrumb:\"kotlin extensions\"");
+
+        assertEquals(new And(List.of(
+            new Or(List.of(new Term(Field.ANY, List.of("merge")), new Term(Field.ANY, List.of("upsert")))),
+            new Term(Field.ANY, List.of("window")),
+            new Not(new Term(Field.BREADCRUMB, List.of("kotlin", "extension"))))), node);
+        assertEquals(List.of("merge", "upsert", "window"), List.copyOf(BooleanQuery.positiveTokens(node)));
+    }
+
+    @Test
+    void testSqlKeywordsAreNotOperatorsByThemselves() {
+        assertFalse(BooleanQuery.isStructured("NOT EXISTS"));
+        assertFalse(BooleanQuery.isStructured("IS NOT NULL"));
+        assertFalse(BooleanQuery.isStructured("CREATE OR REPLACE"));
+        assertFalse(BooleanQuery.isStructured("SELECT AND WHERE"));
+    }
+
+    @Test
+    void testOperatorsOnlyBetweenClauses() {
+        // Leading NOT and trailing AND have no clause on one side and are plain words
+        assertEquals(new And(List.of(
+                new Term(Field.TITLE, List.of("predicate")),
+                new Term(Field.ANY, List.of("not")),
+                new Term(Field.ANY, List.of("exist")))),
+            BooleanQuery.parse("title:predicate (NOT EXISTS)"));
+        assertEquals(new Term(Field.TITLE, List.of("merge")), BooleanQuery.parse("title:merge AND"));
+        assertEquals(new And(List.of(
+                new Term(Field.TITLE, List.of("merge")),
+                new Not(new Term(Field.ANY, List.of("oracle"))))),
+            BooleanQuery.parse("title:merge AND NOT oracle"));
+    }
+}
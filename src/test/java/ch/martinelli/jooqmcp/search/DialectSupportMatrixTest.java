@@ -0,0 +1,66 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.search.DialectSupportMatrix.Dialect;
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.CodeExample;
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DialectSupportMatrixTest {
+
+    private final DialectSupportMatrix matrix = new DialectSupportMatrix(sections());
+
+    @Test
+    void testParseRequest() {
+        DialectSupportMatrix.ParsedRequest parsed = DialectSupportMatrix.parse("PostgreSQL vs SQL Server for MERGE");
+        assertEquals(List.of("POSTGRES", "SQLSERVER"), parsed.dialects().stream().map(Dialect::name).toList());
+        assertEquals(List.of("vs", "for", "merge"), parsed.remainder());
+    }
+
+    @Test
+    void testLongestAliasWins() {
+        DialectSupportMatrix.ParsedRequest parsed = DialectSupportMatrix.parse("Aurora MySQL");
+        assertEquals(List.of("AURORA_MYSQL"), parsed.dialects().stream().map(Dialect::name).toList());
+    }
+
+    @Test
+    void testSectionsMentioningDialect() {
+        Dialect postgres = dialect("POSTGRES");
+        assertEquals(bits(1, 2), matrix.sectionsMentioning(postgres));
+        assertEquals(bits(2), matrix.sectionsDedicatedTo(postgres));
+        // Code examples count as mentions
+        assertEquals(bits(0, 1), matrix.sectionsMentioning(dialect("ORACLE")));
+    }
+
+    @Test
+    void testDocumentedDialectsOrderedByCoverage() {
+        List<String> documented = matrix.documentedDialects().stream().map(Dialect::name).toList();
+        assertEquals(List.of("ORACLE", "POSTGRES", "MARIADB"), documented);
+    }
+
+    private static Dialect dialect(String name) {
+        return DialectSupportMatrix.DIALECTS.stream().filter(d -> d.name().equals(name)).findFirst().orElseThrow();
+    }
+
+    private static BitSet bits(int... ordinals) {
+        BitSet bits = new BitSet();
+        for (int ordinal : ordinals) {
+            bits.set(ordinal);
+        }
+        return bits;
+    }
+
+    private static List<DocumentationSection> sections() {
+        DocumentationSection merge = new DocumentationSection("merge", "The MERGE statement", "MERGE is emulated where needed.", 2, "The MERGE statement");
+        merge.getCodeExamples().add(new CodeExample("create.mergeInto(BOOK).using(...); // SQLDialect.ORACLE", "", "java"));
+        return List.of(
+            merge,
+            new DocumentationSection("upsert", "ON CONFLICT", "Supported natively by PostgreSQL and Oracle.", 3, "The MERGE statement > ON CONFLICT"),
+            new DocumentationSection("pg", "PostgreSQL dialect", "Arrays and MariaDB-like features.", 2, "SQL dialects > PostgreSQL dialect")
+        );
+    }
+}
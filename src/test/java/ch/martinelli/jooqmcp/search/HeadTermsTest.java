@@ -0,0 +1,31 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeadTermsTest {
+
+    @Test
+    void testSurfaceFormsOfMostFrequentTerms() {
+        List<DocumentationSection> sections = List.of(
+            section("s1", "Selecting rows", "Select rows with a join on the selected table"),
+            section("s2", "Joins", "A join combines rows from two tables, select the columns you need"),
+            section("s3", "Select distinct", "Select distinct values, then join them"),
+            section("s4", "Transactions", "Transactions group statements"));
+        try (ShardedIndex index = new ShardedIndex(2)) {
+            sections.forEach(index::addDocument);
+
+            assertEquals(List.of("join", "select", "row"), index.mostFrequentTerms(3));
+            assertEquals(List.of("join", "joins", "select", "selected", "rows"),
+                HeadTerms.surfaceForms(index, sections, 3, 2));
+        }
+    }
+
+    private static DocumentationSection section(String id, String title, String content) {
+        return new DocumentationSection(id, title, content, 2, title);
+    }
+}
@@ -0,0 +1,88 @@
+package ch.martinelli.jooqmcp.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 32;
+    private static final int SIZE = 2000;
+
+    @Test
+    void testRecallAgainstBruteForce() {
+        Random random = new Random(7);
+        float[] vectors = new float[SIZE * DIMENSIONS];
+        for (int i = 0; i < SIZE; i++) {
+            float[] vector = randomUnitVector(random);
+            System.arraycopy(vector, 0, vectors, i * DIMENSIONS, DIMENSIONS);
+        }
+        HnswIndex index = new HnswIndex(vectors, DIMENSIONS);
+
+        int found = 0;
+        int queries = 50;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomUnitVector(random);
+            Set<Integer> expected = bruteForce(vectors, query, 10);
+            for (HnswIndex.Neighbor neighbor : index.search(query, 10, 64)) {
+                if (expected.contains(neighbor.id())) {
+                    found++;
+                }
+            }
+        }
+        double recall = (double) found / (queries * 10);
+        assertTrue(recall >= 0.9, "Recall@10 should be at least 0.9, but was " + recall);
+    }
+
+    @Test
+    void testResultsSortedBySimilarity() {
+        Random random = new Random(11);
+        float[] vectors = new float[100 * DIMENSIONS];
+        for (int i = 0; i < 100; i++) {
+            System.arraycopy(randomUnitVector(random), 0, vectors, i * DIMENSIONS, DIMENSIONS);
+        }
+        HnswIndex index = new HnswIndex(vectors, DIMENSIONS);
+
+        float[] query = Arrays.copyOfRange(vectors, 42 * DIMENSIONS, 43 * DIMENSIONS);
+        List<HnswIndex.Neighbor> neighbors = index.search(query, 5, 32);
+        assertEquals(5, neighbors.size());
+        assertEquals(42, neighbors.get(0).id());
+        for (int i = 1; i < neighbors.size(); i++) {
+            assertTrue(neighbors.get(i - 1).similarity() >= neighbors.get(i).similarity());
+        }
+    }
+
+    @Test
+    void testEmptyIndex() {
+        HnswIndex index = new HnswIndex(new float[0], DIMENSIONS);
+        assertTrue(index.search(new float[DIMENSIONS], 5, 32).isEmpty());
+    }
+
+    private static Set<Integer> bruteForce(float[] vectors, float[] query, int k) {
+        Integer[] ids = new Integer[SIZE];
+        float[] similarities = new float[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            ids[i] = i;
+            for (int d = 0; d < DIMENSIONS; d++) {
+                similarities[i] += vectors[i * DIMENSIONS + d] * query[d];
+            }
+        }
+        Arrays.sort(ids, (a, b) -> Float.compare(similarities[b], similarities[a]));
+        return new HashSet<>(Arrays.asList(ids).subList(0, k));
+    }
+
+    private static float[] randomUnitVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        double norm = 0;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            vector[d] = (float) random.nextGaussian();
+            norm += vector[d] * vector[d];
+        }
+        for (int d = 0; d < DIMENSIONS; d++) {
+            vector[d] /= (float) Math.sqrt(norm);
+        }
+        return vector;
+    }
+}
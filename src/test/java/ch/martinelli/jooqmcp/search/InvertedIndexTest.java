@@ -0,0 +1,168 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.CodeExample;
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
+import ch.martinelli.jooqmcp.util.SynonymGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvertedIndexTest {
+
+    private static final String LIMIT_CLAUSE = "The LIMIT clause restricts the number of rows returned by a query. "
+        + "jOOQ renders LIMIT and OFFSET or emulates it with window functions and ROWNUM filtering "
+        + "where the dialect has no native support for limiting result sets";
+
+    @Test
+    void testNearDuplicateResultsAreCollapsed() {
+        InvertedIndex index = new InvertedIndex();
+        index.addDocument(section("limit-mysql", "LIMIT clause", LIMIT_CLAUSE + " MySQL"));
+        index.addDocument(section("limit-postgres", "LIMIT clause", LIMIT_CLAUSE + " PostgreSQL"));
+        index.addDocument(section("fetch-first", "FETCH FIRST", "FETCH FIRST ROWS ONLY is the standard way of limiting rows in a query"));
+
+        List<InvertedIndex.SearchMatch> matches = index.search("limit rows", 10);
+
+        assertEquals(2, matches.size());
+        assertEquals(1, matches.stream().filter(m -> m.getDocument().getSection().getTitle().equals("LIMIT clause")).count());
+    }
+
+    @Test
+    void testSimHashDistance() {
+        long a = SimHash.fingerprint(Map.of("limit", 3, "offset", 2, "row", 2, "query", 1, "dialect", 1, "emulat", 1, "window", 1));
+        long b = SimHash.fingerprint(Map.of("limit", 3, "offset", 2, "row", 2, "query", 1, "dialect", 1, "emulat", 1, "window", 1, "mysql", 1));
+        long c = SimHash.fingerprint(Map.of("transaction", 3, "commit", 2, "rollback", 2, "lambda", 1));
+
+        assertEquals(0, SimHash.distance(a, a));
+        assertTrue(SimHash.distance(a, b) < SimHash.distance(a, c));
+        assertFalse(SimHash.isNearDuplicate(a, c));
+    }
+
+    @Test
+    void testDynamicPruningMatchesExhaustiveEvaluation() {
+        SyntheticCorpus corpus = new SyntheticCorpus(5_000, 7L);
+        InvertedIndex index = new InvertedIndex();
+        corpus.sections(20_000).forEach(index::addDocument);
+        List<String> queries = corpus.queries(30, 6);
+
+        List<List<String>> pruned = new ArrayList<>();
+        for (String query : queries) {
+            pruned.add(resultIds(index.search(query, 10)));
+        }
+        long prunedScored = index.getScoredDocuments();
+
+        index.setDynamicPruning(false);
+        for (int i = 0; i < queries.size(); i++) {
+            assertEquals(resultIds(index.search(queries.get(i), 10)), pruned.get(i), queries.get(i));
+        }
+        long exhaustiveScored = index.getScoredDocuments() - prunedScored;
+
+        assertTrue(prunedScored * 5 < exhaustiveScored,
+            "Scored " + prunedScored + " of " + exhaustiveScored + " candidates");
+    }
+
+    @Test
+    void testExpiredDeadlineReturnsPartialResults() throws InterruptedException {
+        SyntheticCorpus corpus = new SyntheticCorpus(5_000, 11L);
+        InvertedIndex index = new InvertedIndex();
+        corpus.sections(20_000).forEach(index::addDocument);
+        String query = corpus.queries(1, 6).getFirst();
+        index.setDynamicPruning(false);
+
+        Deadline unlimited = Deadline.NONE;
+        List<InvertedIndex.SearchMatch> complete = index.search(query, 10, unlimited);
+        long completeScored = index.getScoredDocuments();
+        assertFalse(unlimited.isExhausted());
+
+        Deadline expired = Deadline.afterMillis(1);
+        Thread.sleep(5);
+        List<InvertedIndex.SearchMatch> partial = index.search(query, 10, expired);
+        long partialScored = index.getScoredDocuments() - completeScored;
+
+        assertTrue(expired.isExhausted());
+        assertTrue(partialScored < completeScored, "Scored " + partialScored + " of " + completeScored);
+        assertTrue(partial.size() <= complete.size());
+    }
+
+    @Test
+    void testStructuredQueryWithFieldScopesAndExclusion() {
+        InvertedIndex index = new InvertedIndex();
+        DocumentationSection postgres = section("merge-postgres", "MERGE statement", "Emulating MERGE with INSERT .. ON CONFLICT in PostgreSQL");
+        postgres.getCodeExamples().add(new CodeExample("create.insertInto(BOOK).values(1, \"A\").onConflict().doNothing()", "", "java"));
+        DocumentationSection oracle = section("merge-oracle", "MERGE statement", "Native MERGE support in Oracle");
+        oracle.getCodeExamples().add(new CodeExample("create.mergeInto(BOOK).using(selectOne()).onConflict()", "", "java"));
+        index.addDocument(postgres);
+        index.addDocument(oracle);
+        index.addDocument(section("insert", "INSERT statement", "The INSERT statement, merge is covered elsewhere"));
+
+        assertEquals(List.of("merge-postgres", "merge-oracle"), resultIds(index.search("title:merge AND code:onConflict", 10)));
+        assertEquals(List.of("merge-postgres"), resultIds(index.search("title:merge AND code:onConflict -oracle", 10)));
+        assertEquals(List.of("insert"), resultIds(index.search("merge NOT title:merge", 10)));
+        assertEquals(3, index.search("title:merge OR title:insert", 10).size());
+        assertTrue(index.search("title:merge AND title:insert", 10).isEmpty());
+    }
+
+    @Test
+    void testSqlKeywordQueriesAreKeywordSearches() {
+        InvertedIndex index = new InvertedIndex();
+        index.addDocument(section("exists", "EXISTS predicate", "EXISTS and NOT EXISTS check whether a subquery returns rows"));
+        index.addDocument(section("null", "NULL predicate", "IS NULL and IS NOT NULL compare a value with NULL"));
+        index.addDocument(section("select", "SELECT statement", "Selecting rows from tables"));
+        index.addDocument(section("join", "JOIN clause", "Joining tables on a condition"));
+
+        List<String> notExists = resultIds(index.search("NOT EXISTS", 10));
+        assertEquals("exists", notExists.getFirst());
+        assertFalse(notExists.contains("join"), notExists.toString());
+        List<String> isNotNull = resultIds(index.search("IS NOT NULL", 10));
+        assertEquals("null", isNotNull.getFirst());
+        assertFalse(isNotNull.contains("join"), isNotNull.toString());
+    }
+
+    @Test
+    void testFieldWeightsRankTitleAboveContentAndFindCode() {
+        InvertedIndex index = new InvertedIndex();
+        index.addDocument(section("mentions", "Query execution",
+            "Queries are executed by the DSLContext, a savepoint may be set inside a transaction"));
+        index.addDocument(section("savepoints", "Savepoints", "Nested transactions are emulated on most dialects"));
+        DocumentationSection batch = section("batch", "Batch execution", "Several statements are sent in one round trip");
+        batch.getCodeExamples().add(new CodeExample("create.batch(inserts).execute(); // roundtrips", "", "java"));
+        index.addDocument(batch);
+
+        assertEquals(List.of("savepoints", "mentions"), resultIds(index.search("savepoint", 10)));
+        // Code blocks are a field of their own, found by plain searches as well
+        assertEquals(List.of("batch"), resultIds(index.search("roundtrips", 10)));
+    }
+
+    @Test
+    void testLongContentIsNormalizedByFieldLength() {
+        InvertedIndex index = new InvertedIndex();
+        index.addDocument(section("focused", "Fetching", "Records are mapped to POJOs by the default mapper"));
+        index.addDocument(section("long", "Fetching", "Records are mapped to POJOs by the default mapper. "
+            + "Other unrelated words fill this section about cursors lazy fetching streams and many result sets. ".repeat(10)));
+
+        assertEquals(List.of("focused", "long"), resultIds(index.search("mapper", 10)));
+    }
+
+    @Test
+    void testSynonymExpansionsAreScoredAtTheirDiscount() {
+        InvertedIndex index = new InvertedIndex(SynonymGraph.parse(List.of("delete: remove^0.5")));
+        index.addDocument(section("remove", "Remove", "Records can be removed with the remove statement"));
+        index.addDocument(section("delete", "Statements", "Rows are deleted with a DELETE statement"));
+        index.addDocument(section("insert", "Insert", "Rows are added with an INSERT statement"));
+
+        // The typed term outranks the synonym even where the synonym is in the title
+        assertEquals(List.of("delete", "remove"), resultIds(index.search("delete", 10)));
+        assertEquals(List.of("remove", "delete"), resultIds(index.search("remove", 10)));
+    }
+
+    private static List<String> resultIds(List<InvertedIndex.SearchMatch> matches) {
+        return matches.stream().map(match -> match.getDocument().getId()).toList();
+    }
+
+    private static DocumentationSection section(String id, String title, String content) {
+        return new DocumentationSection(id, title, content, 3, title);
+    }
+}
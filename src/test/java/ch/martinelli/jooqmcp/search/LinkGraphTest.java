@@ -0,0 +1,44 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LinkGraphTest {
+
+    @Test
+    void testInboundAndOutboundReferences() {
+        // 0 -> 1, 2 (2 twice); 1 -> 2, 1; 3 -> 2; 2 links nowhere
+        LinkGraph graph = new LinkGraph(new int[][]{{2, 1, 2}, {2, 1}, {}, {2, 7}});
+
+        assertArrayEquals(new int[]{1, 2}, graph.outbound(0));
+        assertArrayEquals(new int[]{2}, graph.outbound(1));
+        assertArrayEquals(new int[]{0, 1, 3}, graph.inbound(2));
+        assertArrayEquals(new int[0], graph.inbound(3));
+        assertEquals(4, graph.getEdgeCount());
+    }
+
+    @Test
+    void testPageRankFavoursReferencedSections() {
+        LinkGraph graph = new LinkGraph(new int[][]{{2, 1}, {2}, {}, {2}});
+
+        double total = IntStream.range(0, graph.size()).mapToDouble(graph::pageRank).sum();
+        assertEquals(1.0, total, 1e-6);
+        assertArrayEquals(new int[]{2, 1, 0, 3}, graph.impactOrder());
+        assertEquals(1f, graph.staticScore(2));
+        assertEquals(0f, graph.staticScore(0));
+        assertTrue(graph.staticScore(1) > 0f && graph.staticScore(1) < 1f);
+    }
+
+    @Test
+    void testStaticScoreBoostsReferencedDocuments() {
+        InvertedIndex index = new InvertedIndex();
+        index.addDocument(new DocumentationSection("plain", "LIMIT clause", "Restricting rows with LIMIT in MySQL", 3, "LIMIT clause"), 0f);
+        index.addDocument(new DocumentationSection("central", "LIMIT clause", "Paginating with LIMIT and OFFSET", 3, "LIMIT clause"), 1f);
+
+        assertEquals("central", index.search("limit", 10).getFirst().getDocument().getId());
+    }
+}
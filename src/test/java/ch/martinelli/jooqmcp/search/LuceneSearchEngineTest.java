@@ -0,0 +1,118 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.CodeExample;
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
+import ch.martinelli.jooqmcp.util.SynonymGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LuceneSearchEngineTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testTermStatisticsMatchBuiltinIndex() {
+        SyntheticCorpus corpus = new SyntheticCorpus(1_000, 5L);
+        List<DocumentationSection> sections = corpus.sections(500);
+        InvertedIndex builtin = new InvertedIndex();
+        sections.forEach(builtin::addDocument);
+
+        try (LuceneSearchEngine lucene = new LuceneSearchEngine(directory)) {
+            sections.forEach(lucene::addDocument);
+            lucene.build();
+
+            assertEquals(postings(builtin), postings(lucene));
+            assertEquals(builtin.mostFrequentTerms(20), lucene.mostFrequentTerms(20));
+            String term = builtin.mostFrequentTerms(1).getFirst();
+            assertEquals(builtin.getDocumentFrequency(term), lucene.getDocumentFrequency(term));
+            assertEquals(500, lucene.getTotalDocuments());
+        }
+    }
+
+    @Test
+    void testSameQueriesFindMostlyTheSameResults() {
+        SyntheticCorpus corpus = new SyntheticCorpus(3_000, 11L);
+        List<DocumentationSection> sections = corpus.sections(2_000);
+        InvertedIndex builtin = new InvertedIndex();
+        sections.forEach(builtin::addDocument);
+
+        try (LuceneSearchEngine lucene = new LuceneSearchEngine(directory)) {
+            sections.forEach(lucene::addDocument);
+            double overlap = 0;
+            List<String> queries = corpus.queries(20, 4);
+            for (String query : queries) {
+                Set<String> expected = resultIds(builtin.search(query, 10));
+                Set<String> actual = resultIds(lucene.search(query, 10));
+                actual.retainAll(expected);
+                overlap += expected.isEmpty() ? 1 : (double) actual.size() / expected.size();
+            }
+            // Both score with BM25F, but with different length normalization and fuzzy matching
+            assertTrue(overlap / queries.size() > 0.6, "Overlap " + overlap / queries.size());
+        }
+    }
+
+    @Test
+    void testFieldWeightsStructuredQueriesAndStaticScore() {
+        try (LuceneSearchEngine lucene = new LuceneSearchEngine(directory)) {
+            lucene.addDocument(section("mentions", "Query execution",
+                "Queries are executed by the DSLContext, a savepoint may be set inside a transaction"));
+            lucene.addDocument(section("savepoints", "Savepoints", "Nested transactions are emulated on most dialects"));
+            DocumentationSection postgres = section("merge-postgres", "MERGE statement", "Emulating MERGE with INSERT .. ON CONFLICT in PostgreSQL");
+            postgres.getCodeExamples().add(new CodeExample("create.insertInto(BOOK).values(1, \"A\").onConflict().doNothing()", "", "java"));
+            lucene.addDocument(postgres);
+            DocumentationSection oracle = section("merge-oracle", "MERGE statement", "Native MERGE support in Oracle");
+            oracle.getCodeExamples().add(new CodeExample("create.mergeInto(BOOK).using(selectOne()).onConflict()", "", "java"));
+            lucene.addDocument(oracle, 1f);
+
+            assertEquals(List.of("savepoints", "mentions"), ids(lucene.search("savepoint", 10)));
+            assertEquals(List.of("merge-oracle", "merge-postgres"), ids(lucene.search("title:merge AND code:onConflict", 10)));
+            assertEquals(List.of("merge-postgres"), ids(lucene.search("title:merge AND code:onConflict -oracle", 10)));
+            assertTrue(lucene.search("title:merge AND title:savepoints", 10).isEmpty());
+            assertEquals("lucene", lucene.getStatistics().get("engine"));
+        }
+    }
+
+    @Test
+    void testDefaultDirectoryIsPrivateAndDeletedOnClose() {
+        LuceneSearchEngine first = new LuceneSearchEngine(SynonymGraph.defaultGraph());
+        LuceneSearchEngine second = new LuceneSearchEngine(SynonymGraph.defaultGraph());
+        first.addDocument(section("savepoints", "Savepoints", "Nested transactions are emulated on most dialects"));
+        first.build();
+
+        assertNotEquals(first.getPath(), second.getPath());
+        first.close();
+        second.close();
+        assertFalse(Files.exists(first.getPath()));
+        assertFalse(Files.exists(second.getPath()));
+
+        try (LuceneSearchEngine configured = new LuceneSearchEngine(directory)) {
+            configured.build();
+        }
+        assertTrue(Files.isDirectory(directory));
+    }
+
+    private static Set<String> postings(SearchEngine engine) {
+        Set<String> postings = new HashSet<>();
+        engine.forEachPosting((term, document, frequency) -> postings.add(term + "/" + document + "/" + frequency));
+        return postings;
+    }
+
+    private static Set<String> resultIds(List<InvertedIndex.SearchMatch> matches) {
+        return new HashSet<>(ids(matches));
+    }
+
+    private static List<String> ids(List<InvertedIndex.SearchMatch> matches) {
+        return matches.stream().map(match -> match.getDocument().getId()).toList();
+    }
+
+    private static DocumentationSection section(String id, String title, String content) {
+        return new DocumentationSection(id, title, content, 3, title);
+    }
+}
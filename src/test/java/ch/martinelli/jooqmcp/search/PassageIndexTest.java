@@ -0,0 +1,68 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.search.PassageIndex.Passage;
+import ch.martinelli.jooqmcp.search.PassageIndex.ScoredPassage;
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PassageIndexTest {
+
+    private static final String FILLER = "Queries are built with the DSL and executed against a configured connection. ";
+
+    @Test
+    void testSplitIntoOverlappingPassagesCoveringTheContent() {
+        String content = FILLER.repeat(30);
+        List<Passage> passages = PassageIndex.split(0, content);
+
+        assertTrue(passages.size() > 1);
+        assertEquals(0, passages.getFirst().start());
+        assertTrue(passages.getLast().last());
+        assertEquals(content.stripTrailing().length(), passages.getLast().end());
+        for (int i = 0; i < passages.size(); i++) {
+            Passage passage = passages.get(i);
+            assertTrue(passage.text().length() <= PassageIndex.MAX_LENGTH);
+            assertEquals(content.substring(passage.start(), passage.end()), passage.text());
+            if (i > 0) {
+                // Every passage overlaps its predecessor, so no sentence is lost at a cut
+                assertTrue(passage.start() < passages.get(i - 1).end());
+                assertTrue(passage.start() > passages.get(i - 1).start());
+            }
+            if (!passage.last()) {
+                assertTrue(passage.text().length() >= PassageIndex.MIN_LENGTH);
+                assertTrue(passage.text().endsWith("."), "Passages end at a sentence: " + passage.text());
+            }
+        }
+    }
+
+    @Test
+    void testShortContentIsOnePassage() {
+        List<Passage> passages = PassageIndex.split(3, "  A short section.  ");
+
+        assertEquals(1, passages.size());
+        assertEquals(new Passage(3, 2, "A short section.", true), passages.getFirst());
+        assertTrue(PassageIndex.split(3, "").isEmpty());
+    }
+
+    @Test
+    void testSearchFindsThePassageWithinItsSection() {
+        String transactions = FILLER.repeat(8) + "Nested transactions are emulated with savepoints on most dialects. "
+            + FILLER.repeat(8);
+        PassageIndex index = new PassageIndex(List.of(
+            new DocumentationSection(null, "Queries", FILLER.repeat(10), 2, "Queries"),
+            new DocumentationSection(null, "Transactions", transactions, 2, "Transactions")
+        ));
+
+        List<ScoredPassage> matches = index.search("savepoints", 5, Deadline.NONE);
+
+        assertFalse(matches.isEmpty());
+        Passage best = matches.getFirst().passage();
+        assertEquals(1, best.section());
+        assertTrue(best.text().contains("savepoints"));
+        assertTrue(best.start() > 0);
+        assertTrue(index.passagesOf(1).contains(best));
+    }
+}
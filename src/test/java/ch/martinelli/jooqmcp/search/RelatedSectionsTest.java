@@ -0,0 +1,40 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RelatedSectionsTest {
+
+    private static final String MERGE = "The MERGE statement combines insert and update into a single upsert "
+        + "operation that matches rows of a source table against the target table using a join condition";
+
+    private final RelatedSections related = new RelatedSections(List.of(
+        section("MERGE", MERGE),
+        section("MERGE in PostgreSQL", MERGE + " and is emulated with INSERT ON CONFLICT in PostgreSQL"),
+        section("Transactions", "Transactions are started with DSLContext transaction and committed when "
+            + "the lambda completes or rolled back when an exception is thrown from the transactional code"),
+        section("Empty", "")
+    ));
+
+    @Test
+    void testNearDuplicatesAreRelated() {
+        List<RelatedSections.Related> mergeRelated = related.relatedTo(0);
+        assertFalse(mergeRelated.isEmpty());
+        assertEquals(1, mergeRelated.get(0).ordinal());
+        assertTrue(mergeRelated.get(0).similarity() > 0.5);
+    }
+
+    @Test
+    void testUnrelatedSectionsAreNotListed() {
+        assertTrue(related.relatedTo(2).stream().noneMatch(r -> r.ordinal() == 0 || r.ordinal() == 1));
+        assertTrue(related.relatedTo(3).isEmpty());
+    }
+
+    private static DocumentationSection section(String title, String content) {
+        return new DocumentationSection(null, title, content, 2, title);
+    }
+}
@@ -0,0 +1,69 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.search.PassageIndex.Passage;
+import ch.martinelli.jooqmcp.search.PassageIndex.ScoredPassage;
+import ch.martinelli.jooqmcp.search.ResponsePacker.Source;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponsePackerTest {
+
+    private static final String HEADER = "Found 2 results:\n\n";
+
+    @Test
+    void testBestPassagesAcrossResultsFillTheBudget() {
+        List<Source> sources = List.of(
+            source("First", scored(0, 0, "a".repeat(400), false, 1.0)),
+            source("Second", scored(1, 0, "b".repeat(400), false, 5.0), scored(1, 800, "c".repeat(400), true, 4.0))
+        );
+
+        String packed = ResponsePacker.pack(HEADER, sources, 1000);
+
+        assertTrue(packed.getBytes(StandardCharsets.UTF_8).length <= 1000);
+        // The two best passages both belong to the second result, which is listed first
+        assertTrue(packed.startsWith(HEADER + "1. **Second**"));
+        assertTrue(packed.contains("b".repeat(400)));
+        assertTrue(packed.contains("c".repeat(400)));
+        assertFalse(packed.contains("a".repeat(400)));
+        assertTrue(packed.contains("[1 more matching sections not shown"));
+    }
+
+    @Test
+    void testOverlappingPassagesAreMerged() {
+        String content = "one two three four five six seven";
+        List<Source> sources = List.of(source("Only",
+            scored(0, 0, content.substring(0, 17), false, 2.0),
+            scored(0, 8, content.substring(8), true, 1.0)));
+
+        String packed = ResponsePacker.pack(HEADER, sources, 3000);
+
+        assertTrue(packed.contains("   " + content + "\n"));
+        assertFalse(packed.contains("[1 more"));
+    }
+
+    @Test
+    void testSkipsPassagesThatDoNotFitButKeepsSmallerOnes() {
+        List<Source> sources = List.of(
+            source("Large", scored(0, 0, "x".repeat(600), true, 3.0)),
+            source("Small", scored(1, 10, "small passage", true, 1.0))
+        );
+
+        String packed = ResponsePacker.pack(HEADER, sources, 200);
+
+        assertTrue(packed.contains("1. **Small**\n   ...small passage\n"));
+        assertFalse(packed.contains("xxx"));
+    }
+
+    private static Source source(String title, ScoredPassage... passages) {
+        return new Source(title, "Manual > " + title, List.of(passages), Set.of());
+    }
+
+    private static ScoredPassage scored(int section, int start, String text, boolean last, double score) {
+        return new ScoredPassage(new Passage(section, start, text, last), score, Set.of());
+    }
+}
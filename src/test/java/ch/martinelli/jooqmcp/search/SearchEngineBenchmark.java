@@ -0,0 +1,60 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
+import ch.martinelli.jooqmcp.util.SynonymGraph;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency of the built-in and the Lucene engine on the same synthetic corpus and query set as
+ * the WAND pruning test. Run with {@code benchmark/run.sh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchEngineBenchmark {
+
+    @Param({"builtin", "lucene"})
+    public String engine;
+
+    @Param({"20000"})
+    public int sections;
+
+    private SearchEngine index;
+    private List<String> queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SyntheticCorpus corpus = new SyntheticCorpus(5_000, 7L);
+        List<DocumentationSection> documents = corpus.sections(sections);
+        queries = corpus.queries(30, 6);
+        index = engine.equals("lucene") ? new LuceneSearchEngine(SynonymGraph.defaultGraph()) : new ShardedIndex(0);
+        documents.forEach(index::addDocument);
+        index.build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        index.close();
+    }
+
+    @Benchmark
+    public List<InvertedIndex.SearchMatch> search() {
+        String query = queries.get(next);
+        next = (next + 1) % queries.size();
+        return index.search(query, 10);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SearchEngineBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,49 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SectionTreeTest {
+
+    // 0 SQL building
+    //   1 SQL Statements
+    //     2 The SELECT statement
+    //     3 The INSERT statement
+    //   4 Column expressions
+    // 5 Code generation
+    //     6 Skipped level
+    private final SectionTree tree = new SectionTree(List.of(
+        section(1), section(2), section(3), section(3), section(2), section(1), section(3)
+    ));
+
+    @Test
+    void testRoots() {
+        assertArrayEquals(new int[]{0, 5}, tree.roots());
+        assertEquals(SectionTree.NONE, tree.parent(0));
+    }
+
+    @Test
+    void testChildrenAndSiblings() {
+        assertArrayEquals(new int[]{1, 4}, tree.children(0));
+        assertArrayEquals(new int[]{2, 3}, tree.children(1));
+        assertEquals(3, tree.nextSibling(2));
+        assertEquals(SectionTree.NONE, tree.nextSibling(3));
+        assertArrayEquals(new int[]{2, 3}, tree.siblings(3));
+        assertEquals(0, tree.childCount(4));
+    }
+
+    @Test
+    void testSkippedHeadingLevelAttachesToNearestAncestor() {
+        assertEquals(5, tree.parent(6));
+        assertEquals(1, tree.depth(6));
+        assertEquals(2, tree.depth(2));
+    }
+
+    private static DocumentationSection section(int level) {
+        return new DocumentationSection(null, "Section", "", level, "Section");
+    }
+}
@@ -0,0 +1,74 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
+import ch.martinelli.jooqmcp.util.TextProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SemanticIndexTest {
+
+    private static final String[] TRANSACTIONS =
+        {"transaction", "commit", "rollback", "savepoint", "isolation", "atomic", "connection", "durable"};
+    private static final String[] QUERIES =
+        {"select", "join", "table", "column", "predicate", "order", "group", "limit"};
+
+    @Test
+    void testParaphraseWithoutSharedTermsIsRetrieved() {
+        // One latent dimension per topic
+        SemanticIndex index = new SemanticIndex(index(sections()), 2);
+
+        List<String> queryTerms = TextProcessor.processText("commit rollback");
+        List<SemanticIndex.SemanticMatch> matches = index.search("commit rollback", 24);
+
+        assertFalse(matches.isEmpty());
+        assertTrue(matches.stream().allMatch(match -> match.document().getId().startsWith("transactions-")),
+            "Only sections about transactions should be close to the query");
+        assertTrue(matches.stream().anyMatch(match ->
+                Collections.disjoint(queryTerms, TextProcessor.processText(match.document().getSection().getContent()))),
+            "A section sharing no term with the query should be found");
+        for (int i = 1; i < matches.size(); i++) {
+            assertTrue(matches.get(i - 1).similarity() >= matches.get(i).similarity());
+        }
+    }
+
+    @Test
+    void testUnknownTermsFindNothing() {
+        SemanticIndex index = new SemanticIndex(index(sections()), 2);
+
+        assertTrue(index.search("xyzzy", 10).isEmpty());
+        assertTrue(index.search(" ", 10).isEmpty());
+    }
+
+    private static InvertedIndex index(List<DocumentationSection> sections) {
+        InvertedIndex index = new InvertedIndex();
+        sections.forEach(index::addDocument);
+        index.build();
+        return index;
+    }
+
+    /**
+     * Two topics with disjoint vocabularies; every section holds a window of 3 to 5 of its topic's words
+     */
+    private static List<DocumentationSection> sections() {
+        List<DocumentationSection> sections = new ArrayList<>();
+        for (String[] topic : List.of(TRANSACTIONS, QUERIES)) {
+            String name = topic == TRANSACTIONS ? "transactions" : "queries";
+            for (int size = 3; size <= 5; size++) {
+                for (int start = 0; start < topic.length; start++) {
+                    StringBuilder content = new StringBuilder();
+                    for (int i = 0; i < size; i++) {
+                        content.append(topic[(start + i) % topic.length]).append(' ');
+                    }
+                    String id = name + "-" + size + "-" + start;
+                    sections.add(new DocumentationSection(id, id, content.toString().trim(), 2, name));
+                }
+            }
+        }
+        return sections;
+    }
+}
@@ -0,0 +1,50 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedIndexTest {
+
+    @Test
+    void testShardedSearchMatchesSingleIndex() {
+        SyntheticCorpus corpus = new SyntheticCorpus(3_000, 11L);
+        List<DocumentationSection> sections = corpus.sections(5_000);
+        InvertedIndex single = new InvertedIndex();
+        sections.forEach(single::addDocument);
+
+        try (ShardedIndex sharded = new ShardedIndex(4)) {
+            sections.forEach(sharded::addDocument);
+            assertEquals(4, sharded.getShardCount());
+            assertEquals(sections.size(), sharded.getTotalDocuments());
+
+            for (String query : corpus.queries(20, 4)) {
+                List<InvertedIndex.SearchMatch> expected = single.search(query, 10);
+                List<InvertedIndex.SearchMatch> actual = sharded.search(query, 10);
+
+                assertEquals(expected.size(), actual.size(), query);
+                for (int i = 0; i < expected.size(); i++) {
+                    assertSame(expected.get(i).getDocument().getSection(), actual.get(i).getDocument().getSection(), query);
+                    assertEquals(expected.get(i).getScore(), actual.get(i).getScore(), 1e-4, query);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testDocumentsKeepGlobalOrder() {
+        SyntheticCorpus corpus = new SyntheticCorpus(500, 3L);
+        List<DocumentationSection> sections = corpus.sections(50);
+        try (ShardedIndex sharded = new ShardedIndex(3)) {
+            sections.forEach(sharded::addDocument);
+
+            List<InvertedIndex.IndexedDocument> documents = sharded.getDocuments();
+            for (int i = 0; i < sections.size(); i++) {
+                assertSame(sections.get(i), documents.get(i).getSection());
+            }
+        }
+    }
+}
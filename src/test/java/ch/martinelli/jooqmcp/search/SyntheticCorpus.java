@@ -0,0 +1,90 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic corpus of generated sections whose word frequencies follow a Zipf distribution,
+ * used to exercise the search code on far more documents than the manual has.
+ */
+final class SyntheticCorpus {
+
+    private static final String[] CONSONANTS = {"b", "d", "f", "g", "k", "l", "m", "n", "p", "r", "t", "v", "z"};
+    private static final String[] VOWELS = {"a", "e", "i", "o", "u"};
+
+    private final String[] vocabulary;
+    private final double[] cumulative;
+    private final Random random;
+
+    SyntheticCorpus(int vocabularySize, long seed) {
+        this.random = new Random(seed);
+        this.vocabulary = new String[vocabularySize];
+        for (int i = 0; i < vocabularySize; i++) {
+            vocabulary[i] = word(i);
+        }
+        this.cumulative = new double[vocabularySize];
+        double sum = 0;
+        for (int rank = 0; rank < vocabularySize; rank++) {
+            sum += 1.0 / (rank + 1);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < vocabularySize; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    List<DocumentationSection> sections(int count) {
+        List<DocumentationSection> sections = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String title = words(2 + random.nextInt(3));
+            String content = words(30 + random.nextInt(300));
+            sections.add(new DocumentationSection("section-" + i, title, content, 1 + random.nextInt(6), title));
+        }
+        return sections;
+    }
+
+    /**
+     * Queries mixing frequent and rare words, the shape synonym expansion produces
+     */
+    List<String> queries(int count, int termsPerQuery) {
+        List<String> queries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            queries.add(words(termsPerQuery));
+        }
+        return queries;
+    }
+
+    String words(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(vocabulary[sampleRank()]);
+        }
+        return text.toString();
+    }
+
+    private int sampleRank() {
+        int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+        return rank >= 0 ? rank : Math.min(-rank - 1, cumulative.length - 1);
+    }
+
+    /**
+     * Pronounceable, collision free word for a rank; syllables end in a vowel so stemming leaves them intact
+     */
+    private static String word(int rank) {
+        StringBuilder word = new StringBuilder();
+        int value = rank + CONSONANTS.length * VOWELS.length;
+        while (value > 0) {
+            int syllable = value % (CONSONANTS.length * VOWELS.length);
+            word.append(CONSONANTS[syllable / VOWELS.length]).append(VOWELS[syllable % VOWELS.length]);
+            value /= CONSONANTS.length * VOWELS.length;
+        }
+        return word.toString();
+    }
+}
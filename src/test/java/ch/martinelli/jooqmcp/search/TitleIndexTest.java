@@ -0,0 +1,58 @@
+package ch.martinelli.jooqmcp.search;
+
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TitleIndexTest {
+
+    private final TitleIndex titleIndex = new TitleIndex(List.of(
+        new DocumentationSection("sql-building", "SQL building", "", 1, "SQL building"),
+        new DocumentationSection("select-statement", "The SELECT statement", "", 2, "SQL building > The SELECT statement"),
+        new DocumentationSection("select-example", "Example", "", 3, "SQL building > The SELECT statement > Example"),
+        new DocumentationSection("code-generation", "Code generation", "", 1, "Code generation"),
+        new DocumentationSection("codegen-maven", "Running the code generator with Maven", "", 2, "Code generation > Running the code generator with Maven"),
+        new DocumentationSection("codegen-example", "Example", "", 3, "Code generation > Running the code generator with Maven > Example"),
+        new DocumentationSection("intro-example", "Example", "", 2, "SQL building > Example")
+    ));
+
+    @Test
+    void testExactTitleMatch() {
+        assertEquals("code-generation", titleIndex.lookup("Code Generation").getId());
+    }
+
+    @Test
+    void testDuplicateTitlesAreKept() {
+        List<DocumentationSection> examples = titleIndex.sectionsWithTitle("example");
+        assertEquals(3, examples.size());
+        // Preferred section is the highest level one
+        assertEquals("intro-example", examples.get(0).getId());
+        assertEquals("intro-example", titleIndex.lookup("Example").getId());
+    }
+
+    @Test
+    void testBreadcrumbDisambiguatesDuplicateTitles() {
+        assertEquals("select-example", titleIndex.lookup("The SELECT statement > Example").getId());
+        assertEquals("codegen-example", titleIndex.lookup("running the code generator with maven>example").getId());
+    }
+
+    @Test
+    void testTokenMatchPrefersTitleHits() {
+        assertEquals("select-statement", titleIndex.lookup("select statement").getId());
+        assertEquals("codegen-maven", titleIndex.lookup("maven code generator").getId());
+    }
+
+    @Test
+    void testTypoFallsBackToTrigrams() {
+        assertEquals("code-generation", titleIndex.lookup("code generaton").getId());
+    }
+
+    @Test
+    void testUnknownTopic() {
+        assertNull(titleIndex.lookup("xyzabc123nonexistent"));
+        assertNull(titleIndex.lookup(" "));
+    }
+}
@@ -1,7 +1,9 @@
 package ch.martinelli.jooqmcp.service;
 
 import org.junit.jupiter.api.Test;
+import ch.martinelli.jooqmcp.config.DocumentationIndexHealthIndicator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
 
@@ -17,6 +19,19 @@ class JooqDocumentationServiceIntegrationTest {
     @Autowired
     private JooqDocumentationService documentationService;
 
+    @Autowired
+    private LocalJooqDocumentationService localDocumentationService;
+
+    @Autowired
+    private DocumentationIndexHealthIndicator documentationIndexHealthIndicator;
+
+    @Test
+    void testReadyAfterBackgroundIndexing() {
+        assertTrue(localDocumentationService.awaitReady(), "Indexing should finish within the startup wait");
+        assertEquals(LocalJooqDocumentationService.IndexState.READY, localDocumentationService.getState());
+        assertEquals(Status.UP, documentationIndexHealthIndicator.health().getStatus());
+    }
+
     @Test
     void testSearchDocumentation_SelectDistinct() {
         String result = documentationService.searchDocumentation("SELECT DISTINCT");
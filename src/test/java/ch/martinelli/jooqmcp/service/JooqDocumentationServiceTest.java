@@ -114,6 +114,16 @@ class JooqDocumentationServiceTest {
         assertEquals("Please specify a database name (e.g., MySQL, PostgreSQL, Oracle, SQL Server).", response);
     }
 
+    @Test
+    void testGetDatabaseSupport_WithDialectComparison() {
+        // Act
+        String response = jooqDocumentationService.getDatabaseSupport("PostgreSQL vs Oracle for MERGE");
+
+        // Assert
+        assertTrue(response.contains("PostgreSQL") && response.contains("Oracle"));
+        assertTrue(response.length() <= 3500);
+    }
+
     @Test
     void testGetQueryDslReference_WithValidQueryType() {
         // Act
@@ -152,6 +162,54 @@ class JooqDocumentationServiceTest {
         assertEquals("Please specify an advanced feature (e.g., transactions, stored procedures, batch operations).", response);
     }
     
+    @Test
+    void testGetSectionTree_WithEmptySection() {
+        // Act
+        String response = jooqDocumentationService.getSectionTree("");
+
+        // Assert
+        assertTrue(response.startsWith("# jOOQ Manual Outline"));
+        assertTrue(response.length() <= 3500);
+    }
+    
+    @Test
+    void testGetSectionTree_WithUnknownSection() {
+        // Act
+        String response = jooqDocumentationService.getSectionTree("xyzabc123nonexistent");
+
+        // Assert
+        assertTrue(response.contains("No documentation found"));
+    }
+    
+    @Test
+    void testGetRelatedSections_WithEmptyTopic() {
+        // Act
+        String response = jooqDocumentationService.getRelatedSections("");
+
+        // Assert
+        assertEquals("Please specify a topic or section title (e.g., The SELECT statement, transactions).", response);
+    }
+    
+    @Test
+    void testGetSectionReferences_ListsBothDirections() {
+        // Act
+        String response = jooqDocumentationService.getSectionReferences("The SELECT statement");
+
+        // Assert
+        assertTrue(response.startsWith("# References of"));
+        assertTrue(response.contains("## Links to ("));
+        assertTrue(response.contains("## Referenced from ("));
+    }
+
+    @Test
+    void testGetSectionReferences_WithEmptySection() {
+        // Act
+        String response = jooqDocumentationService.getSectionReferences(" ");
+
+        // Assert
+        assertEquals("Please specify a section title or anchor id (e.g., The SELECT statement, the-where-clause).", response);
+    }
+    
     @Test
     void testSearchDocumentation_ContentTruncation() {
         // Act - search for a common term that should return multiple results
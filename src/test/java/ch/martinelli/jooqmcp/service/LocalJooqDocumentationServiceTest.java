@@ -0,0 +1,86 @@
+package ch.martinelli.jooqmcp.service;
+
+import ch.martinelli.jooqmcp.search.InvertedIndex;
+import ch.martinelli.jooqmcp.search.SemanticIndex;
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.DocumentationSection;
+import ch.martinelli.jooqmcp.service.LocalJooqDocumentationService.HybridMatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalJooqDocumentationServiceTest {
+
+    private static final String[] TRANSACTIONS =
+        {"transaction", "commit", "savepoint", "isolation", "atomic", "connection", "durable"};
+    private static final String[] QUERIES =
+        {"select", "join", "table", "column", "predicate", "order", "group", "limit"};
+
+    @Test
+    void testFusionAddsSemanticHitsBelowTheExactMatch() {
+        InvertedIndex index = new InvertedIndex();
+        index.addDocument(new DocumentationSection("rollback", "Rollback", "rollback a transaction after a failed commit", 2, "Transactions"));
+        index.addDocument(new DocumentationSection("savepoints", "Savepoints", "savepoint rollback within an isolation level", 2, "Transactions"));
+        addTopic(index, "transactions", TRANSACTIONS);
+        addTopic(index, "queries", QUERIES);
+        index.build();
+        SemanticIndex semanticIndex = new SemanticIndex(index);
+
+        List<InvertedIndex.SearchMatch> lexical = index.search("rollback", 10);
+        List<SemanticIndex.SemanticMatch> semantic = semanticIndex.search("rollback", 10);
+        List<HybridMatch> fused = LocalJooqDocumentationService.fuse(lexical, semantic, 10);
+
+        assertEquals(2, lexical.size());
+        assertEquals("rollback", fused.getFirst().document().getId());
+        List<HybridMatch> semanticOnly = fused.stream()
+            .filter(match -> lexical.stream().noneMatch(hit -> hit.getDocument() == match.document()))
+            .toList();
+        assertFalse(semanticOnly.isEmpty(), "Semantic neighbours should fill the results");
+        assertTrue(semanticOnly.stream().allMatch(match -> match.matchedTerms().isEmpty()
+            && match.document().getId().startsWith("transactions-")));
+        assertTrue(fused.indexOf(semanticOnly.getFirst()) >= lexical.size(),
+            "Semantic-only hits rank below the keyword hits");
+    }
+
+    @Test
+    void testFusionRanksSectionsFoundByBothFirst() {
+        InvertedIndex index = new InvertedIndex();
+        addTopic(index, "transactions", TRANSACTIONS);
+        addTopic(index, "queries", QUERIES);
+        index.build();
+        SemanticIndex semanticIndex = new SemanticIndex(index);
+
+        List<InvertedIndex.SearchMatch> lexical = index.search("savepoint", 3);
+        List<SemanticIndex.SemanticMatch> semantic = semanticIndex.search("savepoint", 10);
+        List<HybridMatch> fused = LocalJooqDocumentationService.fuse(lexical, semantic, 10);
+
+        assertEquals(lexical.getFirst().getDocument(), fused.getFirst().document());
+        for (int i = 1; i < fused.size(); i++) {
+            assertTrue(fused.get(i - 1).score() >= fused.get(i).score());
+        }
+    }
+
+    @Test
+    void testSqlKeywordQueriesAreNormalizedLikeKeywords() {
+        assertEquals("not exists", LocalJooqDocumentationService.normalizeQuery(" NOT EXISTS "));
+        assertEquals("is not null", LocalJooqDocumentationService.normalizeQuery("IS NOT NULL"));
+        assertEquals("title:merge AND NOT oracle", LocalJooqDocumentationService.normalizeQuery("title:merge AND NOT oracle"));
+    }
+
+    /**
+     * Sections holding windows of 3 to 5 of the topic's words
+     */
+    private static void addTopic(InvertedIndex index, String name, String[] topic) {
+        for (int size = 3; size <= 5; size++) {
+            for (int start = 0; start < topic.length; start++) {
+                StringBuilder content = new StringBuilder();
+                for (int i = 0; i < size; i++) {
+                    content.append(topic[(start + i) % topic.length]).append(' ');
+                }
+                String id = name + "-" + size + "-" + start;
+                index.addDocument(new DocumentationSection(id, id, content.toString().trim(), 2, name));
+            }
+        }
+    }
+}
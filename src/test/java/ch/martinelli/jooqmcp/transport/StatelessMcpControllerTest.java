@@ -0,0 +1,81 @@
+package ch.martinelli.jooqmcp.transport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StatelessMcpControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testInitializeAndListTools() throws Exception {
+        mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"jsonrpc":"2.0","id":1,"method":"initialize","params":{"protocolVersion":"2025-03-26","capabilities":{},"clientInfo":{"name":"test","version":"1"}}}"""))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(1))
+            .andExpect(jsonPath("$.result.protocolVersion").value("2025-03-26"))
+            .andExpect(jsonPath("$.result.capabilities.tools").exists());
+
+        mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"jsonrpc":"2.0","method":"notifications/initialized"}"""))
+            .andExpect(status().isAccepted());
+
+        mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"jsonrpc":"2.0","id":"list","method":"tools/list"}"""))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.result.tools[*].name", hasItems("searchDocumentation", "getSqlExamples")))
+            .andExpect(jsonPath("$.result.tools[0].inputSchema.type").value("object"));
+    }
+
+    @Test
+    void testCallToolWithoutSession() throws Exception {
+        mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"jsonrpc":"2.0","id":7,"method":"tools/call","params":{"name":"searchDocumentation","arguments":{"query":"select"}}}"""))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(7))
+            .andExpect(jsonPath("$.result.isError").value(false))
+            .andExpect(jsonPath("$.result.content[0].text", containsString("select")));
+
+        mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"jsonrpc":"2.0","id":8,"method":"tools/call","params":{"name":"unknown"}}"""))
+            .andExpect(jsonPath("$.error.code").value(-32602));
+
+        mockMvc.perform(get("/mcp")).andExpect(status().isMethodNotAllowed());
+    }
+
+    @Test
+    void testFlyClientIpIsOnlyTrustedBehindFlyProxy() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.1");
+        request.addHeader("Fly-Client-IP", "203.0.113.7");
+
+        assertEquals("address-10.0.0.1", controller("").clientAddress(request));
+        assertEquals("address-203.0.113.7", controller("jooq-mcp").clientAddress(request));
+    }
+
+    private static StatelessMcpController controller(String flyApp) {
+        return new StatelessMcpController(List.of(), new ObjectMapper(), "jooq-mcp", "1.0.0", flyApp);
+    }
+}
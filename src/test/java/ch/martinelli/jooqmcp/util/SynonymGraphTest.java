@@ -0,0 +1,52 @@
+package ch.martinelli.jooqmcp.util;
+
+import ch.martinelli.jooqmcp.util.SynonymGraph.Expansion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SynonymGraphTest {
+
+    @Test
+    void testEdgesAreBidirectionalWithTheirWeights() {
+        SynonymGraph graph = SynonymGraph.parse(List.of(
+            "# comment",
+            "",
+            "select: query^0.6, find, get^0.2"));
+
+        assertEquals(List.of(new Expansion("query", 0.6f), new Expansion("find", SynonymGraph.DEFAULT_WEIGHT),
+            new Expansion("get", 0.2f)), graph.expand("select"));
+        assertEquals(List.of(new Expansion("select", 0.2f)), graph.expand("get"));
+        assertEquals(4, graph.getTermCount());
+        assertEquals(6, graph.getEdgeCount());
+    }
+
+    @Test
+    void testSynonymsOfOneHeadAreNotLinked() {
+        SynonymGraph graph = SynonymGraph.parse(List.of("select: query, get", "insert: add, get^0.1"));
+
+        assertEquals(List.of("select", "insert"), graph.expand("get").stream().map(Expansion::term).toList());
+        assertTrue(graph.expand("query").stream().noneMatch(expansion -> expansion.term().equals("get")));
+        assertTrue(graph.expand("unknown").isEmpty());
+    }
+
+    @Test
+    void testTermsAreStemmedAndMultiWordEntriesIgnored() {
+        SynonymGraph graph = SynonymGraph.parse(List.of("records: rows^0.8, result set, the"));
+
+        assertEquals(List.of(new Expansion("row", 0.8f)), graph.expand("record"));
+    }
+
+    @Test
+    void testDefaultGraphIsLoadedFromTheClasspath() {
+        SynonymGraph graph = SynonymGraph.defaultGraph();
+
+        assertTrue(graph.getEdgeCount() > 0);
+        assertSame(graph, SynonymGraph.defaultGraph());
+        // Expansions are stems, as indexed
+        assertEquals(Set.of("where", "filt", "condi", "criteria"), TextProcessor.expandWithSynonyms("where"));
+    }
+}